@@ -0,0 +1,90 @@
+package edu.iis.mto.blog.rest.load;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Minimal blog api client built on {@link HttpURLConnection} (keep-alive) to keep client overhead out of measured latencies.
+ */
+public class BlogClient {
+
+    private final String baseUrl;
+
+    public BlogClient(String baseUrl) {
+        this.baseUrl = baseUrl;
+    }
+
+    public Response createUser(String email) throws IOException {
+        return send("POST", "/blog/user", "{\"email\":\"" + email + "\",\"firstName\":\"Load\",\"lastName\":\"Tester\"}");
+    }
+
+    public Response createPost(long userId, String entry) throws IOException {
+        return send("POST", "/blog/user/" + userId + "/post", "{\"entry\":\"" + entry + "\"}");
+    }
+
+    public Response like(long userId, long postId) throws IOException {
+        return send("POST", "/blog/user/" + userId + "/like/" + postId, null);
+    }
+
+    public Response findUsers(String searchString) throws IOException {
+        return send("GET", "/blog/user/find?searchString=" + URLEncoder.encode(searchString, "UTF-8"), null);
+    }
+
+    private Response send(String method, String path, String body) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) new URL(baseUrl + path).openConnection();
+        connection.setRequestMethod(method);
+        connection.setRequestProperty("Accept", "application/json");
+        if (body != null) {
+            connection.setDoOutput(true);
+            connection.setRequestProperty("Content-Type", "application/json;charset=UTF-8");
+            try (OutputStream out = connection.getOutputStream()) {
+                out.write(body.getBytes(StandardCharsets.UTF_8));
+            }
+        }
+        int status = connection.getResponseCode();
+        InputStream in = status < 400 ? connection.getInputStream() : connection.getErrorStream();
+        return new Response(status, in == null ? "" : readFully(in));
+    }
+
+    private static String readFully(InputStream in) throws IOException {
+        try (InputStream stream = in) {
+            ByteArrayOutputStream content = new ByteArrayOutputStream();
+            byte[] buffer = new byte[4096];
+            int read;
+            while ((read = stream.read(buffer)) != -1) {
+                content.write(buffer, 0, read);
+            }
+            return new String(content.toByteArray(), StandardCharsets.UTF_8);
+        }
+    }
+
+    public static class Response {
+
+        private final int status;
+
+        private final String body;
+
+        Response(int status, String body) {
+            this.status = status;
+            this.body = body;
+        }
+
+        public int getStatus() {
+            return status;
+        }
+
+        public String getBody() {
+            return body;
+        }
+
+        public boolean isSuccessful() {
+            return status >= 200 && status < 300;
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package edu.iis.mto.blog.rest.load;
+
+import java.util.Arrays;
+
+/**
+ * Collects request latencies of a single operation; not thread safe, every worker records into its own instance and the
+ * results are merged after the run.
+ */
+public class LatencyRecorder {
+
+    private long[] latencies = new long[1024];
+
+    private int count;
+
+    private int errors;
+
+    public void record(long latencyNanos, boolean success) {
+        if (count == latencies.length) {
+            latencies = Arrays.copyOf(latencies, count * 2);
+        }
+        latencies[count++] = latencyNanos;
+        if (!success) {
+            errors++;
+        }
+    }
+
+    public void merge(LatencyRecorder other) {
+        for (int i = 0; i < other.count; i++) {
+            record(other.latencies[i], true);
+        }
+        errors += other.errors;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public int getErrors() {
+        return errors;
+    }
+
+    public double errorRate() {
+        return count == 0 ? 0 : (double) errors / count;
+    }
+
+    /**
+     * @return latency in milliseconds at given percentile (0..100), nearest rank
+     */
+    public double percentileMillis(double percentile) {
+        if (count == 0) {
+            return 0;
+        }
+        long[] sorted = Arrays.copyOf(latencies, count);
+        Arrays.sort(sorted);
+        int rank = (int) Math.ceil(percentile / 100 * count);
+        return sorted[Math.max(0, rank - 1)] / 1_000_000.0;
+    }
+}
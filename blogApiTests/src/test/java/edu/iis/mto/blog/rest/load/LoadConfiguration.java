@@ -0,0 +1,103 @@
+package edu.iis.mto.blog.rest.load;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Load test settings read from system properties, e.g.
+ * {@code -Dload.threads=16 -Dload.mix=createUser:1,createPost:2,like:5,search:10 -Dload.slo.p99Millis=200}.
+ */
+public class LoadConfiguration {
+
+    private final int threads = Integer.getInteger("load.threads", 8);
+
+    private final int warmupSeconds = Integer.getInteger("load.warmupSeconds", 5);
+
+    private final int durationSeconds = Integer.getInteger("load.durationSeconds", 30);
+
+    private final Map<Operation, Integer> mix = parseMix(System.getProperty("load.mix", "createUser:1,createPost:2,like:5,search:10"));
+
+    private final List<Long> confirmedUserIds = parseIds(System.getProperty("load.confirmedUserIds", "1,4,5"));
+
+    private final String[] searchTerms = System.getProperty("load.searchTerms", "domain,john,owner,ian,st")
+                                               .split(",");
+
+    private final double sloP50Millis = doubleProperty("load.slo.p50Millis", 100);
+
+    private final double sloP99Millis = doubleProperty("load.slo.p99Millis", 500);
+
+    private final double sloP999Millis = doubleProperty("load.slo.p999Millis", 1000);
+
+    private final double sloMinRequestsPerSecond = doubleProperty("load.slo.minRequestsPerSecond", 0);
+
+    private final double sloMaxErrorRate = doubleProperty("load.slo.maxErrorRate", 0.01);
+
+    public int getThreads() {
+        return threads;
+    }
+
+    public int getWarmupSeconds() {
+        return warmupSeconds;
+    }
+
+    public int getDurationSeconds() {
+        return durationSeconds;
+    }
+
+    public Map<Operation, Integer> getMix() {
+        return mix;
+    }
+
+    public List<Long> getConfirmedUserIds() {
+        return confirmedUserIds;
+    }
+
+    public String[] getSearchTerms() {
+        return searchTerms;
+    }
+
+    public double getSloP50Millis() {
+        return sloP50Millis;
+    }
+
+    public double getSloP99Millis() {
+        return sloP99Millis;
+    }
+
+    public double getSloP999Millis() {
+        return sloP999Millis;
+    }
+
+    public double getSloMinRequestsPerSecond() {
+        return sloMinRequestsPerSecond;
+    }
+
+    public double getSloMaxErrorRate() {
+        return sloMaxErrorRate;
+    }
+
+    private static Map<Operation, Integer> parseMix(String mix) {
+        Map<Operation, Integer> weights = new EnumMap<>(Operation.class);
+        for (String entry : mix.split(",")) {
+            String[] keyAndWeight = entry.trim()
+                                         .split(":");
+            weights.put(Operation.ofKey(keyAndWeight[0]), Integer.valueOf(keyAndWeight[1]));
+        }
+        return weights;
+    }
+
+    private static List<Long> parseIds(String ids) {
+        List<Long> result = new ArrayList<>();
+        for (String id : ids.split(",")) {
+            result.add(Long.valueOf(id.trim()));
+        }
+        return result;
+    }
+
+    private static double doubleProperty(String name, double defaultValue) {
+        String value = System.getProperty(name);
+        return value == null ? defaultValue : Double.parseDouble(value);
+    }
+}
@@ -0,0 +1,189 @@
+package edu.iis.mto.blog.rest.load;
+
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.junit.Assert.assertThat;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.junit.Test;
+
+import edu.iis.mto.blog.rest.test.FunctionalTests;
+import io.restassured.RestAssured;
+
+/**
+ * Replays a weighted mix of blog api calls from concurrent workers against a running blogapi and checks latency percentiles,
+ * throughput and error rate against configured SLOs (see {@link LoadConfiguration}). Excluded from the default build, run
+ * with {@code mvn test -Pload}.
+ */
+public class LoadTest extends FunctionalTests {
+
+    private static final Pattern ID = Pattern.compile("\"id\"\\s*:\\s*(\\d+)");
+
+    private static final int SEED_POSTS_PER_USER = 5;
+
+    private final LoadConfiguration configuration = new LoadConfiguration();
+
+    private final List<long[]> posts = Collections.synchronizedList(new ArrayList<>());
+
+    private final AtomicLong sequence = new AtomicLong();
+
+    private final String runId = Long.toString(System.currentTimeMillis(), 36);
+
+    private Operation[] weightedOperations;
+
+    @Test
+    public void blogApiShouldMeetServiceLevelObjectives() throws Exception {
+        BlogClient client = new BlogClient(RestAssured.baseURI + ":" + RestAssured.port + RestAssured.basePath);
+        weightedOperations = weightedOperations();
+        seedPosts(client);
+
+        run(client, configuration.getWarmupSeconds());
+        Map<Operation, LatencyRecorder> results = run(client, configuration.getDurationSeconds());
+
+        LatencyRecorder total = new LatencyRecorder();
+        results.values()
+               .forEach(total::merge);
+        double requestsPerSecond = (double) total.getCount() / configuration.getDurationSeconds();
+        report(results, total, requestsPerSecond);
+
+        assertThat("p50 [ms]", total.percentileMillis(50), lessThanOrEqualTo(configuration.getSloP50Millis()));
+        assertThat("p99 [ms]", total.percentileMillis(99), lessThanOrEqualTo(configuration.getSloP99Millis()));
+        assertThat("p99.9 [ms]", total.percentileMillis(99.9), lessThanOrEqualTo(configuration.getSloP999Millis()));
+        assertThat("requests per second", requestsPerSecond, greaterThanOrEqualTo(configuration.getSloMinRequestsPerSecond()));
+        assertThat("error rate", total.errorRate(), lessThanOrEqualTo(configuration.getSloMaxErrorRate()));
+    }
+
+    private void seedPosts(BlogClient client) throws IOException {
+        for (Long userId : configuration.getConfirmedUserIds()) {
+            for (int i = 0; i < SEED_POSTS_PER_USER; i++) {
+                createPost(client, userId);
+            }
+        }
+    }
+
+    private Map<Operation, LatencyRecorder> run(BlogClient client, int seconds) throws Exception {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+        ExecutorService executor = Executors.newFixedThreadPool(configuration.getThreads());
+        try {
+            List<Future<Map<Operation, LatencyRecorder>>> workers = new ArrayList<>();
+            for (int i = 0; i < configuration.getThreads(); i++) {
+                workers.add(executor.submit(worker(client, deadline)));
+            }
+            Map<Operation, LatencyRecorder> merged = new EnumMap<>(Operation.class);
+            for (Future<Map<Operation, LatencyRecorder>> worker : workers) {
+                worker.get()
+                      .forEach((operation, recorder) -> merged.computeIfAbsent(operation, key -> new LatencyRecorder())
+                                                              .merge(recorder));
+            }
+            return merged;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private Callable<Map<Operation, LatencyRecorder>> worker(BlogClient client, long deadline) {
+        return () -> {
+            Map<Operation, LatencyRecorder> recorders = new EnumMap<>(Operation.class);
+            while (System.nanoTime() < deadline) {
+                Operation operation = weightedOperations[ThreadLocalRandom.current()
+                                                                          .nextInt(weightedOperations.length)];
+                long start = System.nanoTime();
+                boolean success;
+                try {
+                    success = execute(client, operation);
+                } catch (IOException e) {
+                    success = false;
+                }
+                recorders.computeIfAbsent(operation, key -> new LatencyRecorder())
+                         .record(System.nanoTime() - start, success);
+            }
+            return recorders;
+        };
+    }
+
+    private boolean execute(BlogClient client, Operation operation) throws IOException {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        switch (operation) {
+            case CREATE_USER:
+                return client.createUser("load-" + runId + "-" + sequence.incrementAndGet() + "@domain.com")
+                             .isSuccessful();
+            case CREATE_POST:
+                return createPost(client, randomConfirmedUser(random));
+            case LIKE:
+                long[] post = posts.get(random.nextInt(posts.size()));
+                long likerId = randomConfirmedUser(random);
+                if (likerId == post[1]) {
+                    likerId = otherConfirmedUser(likerId);
+                }
+                return client.like(likerId, post[0])
+                             .isSuccessful();
+            case SEARCH:
+                String[] terms = configuration.getSearchTerms();
+                return client.findUsers(terms[random.nextInt(terms.length)])
+                             .isSuccessful();
+            default:
+                throw new IllegalStateException("unsupported operation " + operation);
+        }
+    }
+
+    private boolean createPost(BlogClient client, long userId) throws IOException {
+        BlogClient.Response response = client.createPost(userId, "load test post " + sequence.incrementAndGet());
+        Matcher id = ID.matcher(response.getBody());
+        if (response.isSuccessful() && id.find()) {
+            posts.add(new long[] {Long.parseLong(id.group(1)), userId});
+            return true;
+        }
+        return false;
+    }
+
+    private long randomConfirmedUser(ThreadLocalRandom random) {
+        List<Long> userIds = configuration.getConfirmedUserIds();
+        return userIds.get(random.nextInt(userIds.size()));
+    }
+
+    private long otherConfirmedUser(long userId) {
+        List<Long> userIds = configuration.getConfirmedUserIds();
+        return userIds.get((userIds.indexOf(userId) + 1) % userIds.size());
+    }
+
+    private Operation[] weightedOperations() {
+        List<Operation> operations = new ArrayList<>();
+        configuration.getMix()
+                     .forEach((operation, weight) -> {
+                         for (int i = 0; i < weight; i++) {
+                             operations.add(operation);
+                         }
+                     });
+        return operations.toArray(new Operation[0]);
+    }
+
+    private void report(Map<Operation, LatencyRecorder> results, LatencyRecorder total, double requestsPerSecond) {
+        System.out.println(String.format("%-12s %10s %8s %10s %10s %10s", "operation", "requests", "errors", "p50 [ms]", "p99 [ms]",
+                "p99.9 [ms]"));
+        results.forEach((operation, recorder) -> System.out.println(line(operation.getKey(), recorder)));
+        System.out.println(line("total", total));
+        System.out.println(String.format("threads: %d, duration: %d s, throughput: %.1f requests/s", configuration.getThreads(),
+                configuration.getDurationSeconds(), requestsPerSecond));
+    }
+
+    private String line(String name, LatencyRecorder recorder) {
+        return String.format("%-12s %10d %8d %10.2f %10.2f %10.2f", name, recorder.getCount(), recorder.getErrors(),
+                recorder.percentileMillis(50), recorder.percentileMillis(99), recorder.percentileMillis(99.9));
+    }
+
+}
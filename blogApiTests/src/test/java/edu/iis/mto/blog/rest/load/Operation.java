@@ -0,0 +1,27 @@
+package edu.iis.mto.blog.rest.load;
+
+public enum Operation {
+    CREATE_USER("createUser"),
+    CREATE_POST("createPost"),
+    LIKE("like"),
+    SEARCH("search");
+
+    private final String key;
+
+    Operation(String key) {
+        this.key = key;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public static Operation ofKey(String key) {
+        for (Operation operation : values()) {
+            if (operation.key.equals(key)) {
+                return operation;
+            }
+        }
+        throw new IllegalArgumentException("unknown load operation '" + key + "'");
+    }
+}
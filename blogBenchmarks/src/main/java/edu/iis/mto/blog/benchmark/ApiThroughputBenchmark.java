@@ -0,0 +1,166 @@
+package edu.iis.mto.blog.benchmark;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+
+import javax.sql.DataSource;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import edu.iis.mto.blog.BlogApplication;
+
+/**
+ * Requests per second of the user posts listing served over HTTP while every SQL statement takes {@code statementLatencyMs},
+ * with service calls on the servlet threads ({@code sync}) or on the bounded API executor ({@code async}). The servlet container
+ * has fewer threads than the client, the executor and the connection pool have as many as the client.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Threads(ApiThroughputBenchmark.CLIENTS)
+@Fork(1)
+public class ApiThroughputBenchmark {
+
+    static final int CLIENTS = 32;
+
+    private static final int SERVLET_THREADS = 8;
+
+    @Param({ "sync", "async" })
+    private String execution;
+
+    @Param("5")
+    private int statementLatencyMs;
+
+    private ConfigurableApplicationContext context;
+
+    private URL userPosts;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        // arguments, as application.properties overrides default properties of the builder
+        context = new SpringApplicationBuilder(BlogApplication.class, SlowDatabase.class).run("--server.port=0",
+                "--spring.datasource.url=jdbc:h2:mem:throughput", "--spring.jpa.show-sql=false", "--logging.level.root=WARN",
+                "--blog.api.execution=" + execution, "--blog.api.executor.core-size=" + CLIENTS,
+                "--blog.api.executor.max-size=" + CLIENTS, "--spring.datasource.hikari.maximum-pool-size=" + CLIENTS,
+                "--server.tomcat.max-threads=" + SERVLET_THREADS, "--blog.benchmark.statement-latency-ms=" + statementLatencyMs);
+        int port = ((WebServerApplicationContext) context).getWebServer()
+                                                          .getPort();
+        userPosts = new URL("http://localhost:" + port + "/blog/user/4/post");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int getUserPosts() throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) userPosts.openConnection();
+        int status = connection.getResponseCode();
+        try (InputStream body = connection.getInputStream()) {
+            byte[] buffer = new byte[8192];
+            while (body.read(buffer) >= 0) {
+                // read fully, so the connection is kept alive
+            }
+        }
+        return status;
+    }
+
+    /**
+     * Delays every execution of a prepared statement, holding the connection like a distant or loaded database would. Not
+     * annotated, so component scanning of the application does not apply it to the other benchmarks.
+     */
+    public static class SlowDatabase {
+
+        @Bean
+        public static BeanPostProcessor slowDataSourcePostProcessor(
+                @Value("${blog.benchmark.statement-latency-ms}") long latencyMs) {
+            return new BeanPostProcessor() {
+
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    if (bean instanceof DataSource) {
+                        return new SlowDataSource((DataSource) bean, latencyMs);
+                    }
+                    return bean;
+                }
+            };
+        }
+
+    }
+
+    private static class SlowDataSource extends DelegatingDataSource {
+
+        private final long latencyMs;
+
+        SlowDataSource(DataSource targetDataSource, long latencyMs) {
+            super(targetDataSource);
+            this.latencyMs = latencyMs;
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            Connection connection = super.getConnection();
+            return proxy(Connection.class, (proxy, method, args) -> {
+                Object result = invoke(connection, method, args);
+                return result instanceof PreparedStatement ? slowStatement((PreparedStatement) result) : result;
+            });
+        }
+
+        private PreparedStatement slowStatement(PreparedStatement statement) {
+            return proxy(PreparedStatement.class, (proxy, method, args) -> {
+                if (method.getName()
+                          .startsWith("execute")) {
+                    Thread.sleep(latencyMs);
+                }
+                return invoke(statement, method, args);
+            });
+        }
+
+        private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+            return type.cast(Proxy.newProxyInstance(SlowDataSource.class.getClassLoader(), new Class<?>[] { type }, handler));
+        }
+
+        private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getTargetException();
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,60 @@
+package edu.iis.mto.blog.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import edu.iis.mto.blog.dto.PostPage;
+import edu.iis.mto.blog.dto.RelatedUser;
+import edu.iis.mto.blog.dto.UserData;
+
+/**
+ * Read path of {@code BlogDataFinder}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BlogDataFinderBenchmark {
+
+    private static final int PAGE_SIZE = 20;
+
+    @Benchmark
+    public List<UserData> findUsersIndexed(SeededBlog blog) {
+        return blog.dataFinder()
+                   .findUsers("irst" + blog.randomUserIndex(), 0, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public List<UserData> findUsersShortQuery(SeededBlog blog) {
+        return blog.dataFinder()
+                   .findUsers("t" + blog.randomUserIndex() % 10, 0, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public PostPage getUserPosts(SeededBlog blog) {
+        return blog.dataFinder()
+                   .getUserPosts(blog.randomUserId(), null, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public List<RelatedUser> getLikersOfUserPosts(SeededBlog blog) {
+        return blog.dataFinder()
+                   .getLikersOfUserPosts(blog.randomUserId(), PAGE_SIZE);
+    }
+
+    @Benchmark
+    public List<RelatedUser> getUsersWithCommonLikes(SeededBlog blog) {
+        return blog.dataFinder()
+                   .getUsersWithCommonLikes(blog.randomUserId(), PAGE_SIZE);
+    }
+
+}
@@ -0,0 +1,47 @@
+package edu.iis.mto.blog.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import edu.iis.mto.blog.api.request.PostRequest;
+
+/**
+ * Write path of {@code BlogManager}; every invocation persists a new post or like, except repeating a stored like.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BlogManagerBenchmark {
+
+    @Benchmark
+    public Long createPost(SeededBlog blog) {
+        PostRequest postRequest = new PostRequest();
+        postRequest.setEntry("benchmark entry");
+        return blog.blogService()
+                   .createPost(blog.randomUserId(), postRequest);
+    }
+
+    @Benchmark
+    public boolean addLikeToPost(SeededBlog blog) {
+        long[] like = blog.nextNewLike();
+        return blog.blogService()
+                   .addLikeToPost(like[0], like[1]);
+    }
+
+    @Benchmark
+    public boolean addDuplicateLike(SeededBlog blog) {
+        long[] like = blog.randomExistingLike();
+        return blog.blogService()
+                   .addLikeToPost(like[0], like[1]);
+    }
+
+}
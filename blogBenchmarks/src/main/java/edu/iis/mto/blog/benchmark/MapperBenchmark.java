@@ -0,0 +1,81 @@
+package edu.iis.mto.blog.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import edu.iis.mto.blog.domain.model.AccountStatus;
+import edu.iis.mto.blog.domain.model.BlogPost;
+import edu.iis.mto.blog.domain.model.User;
+import edu.iis.mto.blog.dto.PostData;
+import edu.iis.mto.blog.dto.UserData;
+import edu.iis.mto.blog.mapper.BlogDataMapper;
+import edu.iis.mto.blog.mapper.BlogDataMapperImpl;
+import edu.iis.mto.blog.mapper.DirectBlogDataMapper;
+
+/**
+ * Compares ModelMapper based {@link BlogDataMapperImpl} with hand written {@link DirectBlogDataMapper} on the read path
+ * mappings.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MapperBenchmark {
+
+    private final BlogDataMapper modelMapper = new BlogDataMapperImpl();
+
+    private final BlogDataMapper directMapper = new DirectBlogDataMapper();
+
+    private User user;
+
+    private BlogPost blogPost;
+
+    @Setup
+    public void setUp() {
+        user = new User();
+        user.setId(1L);
+        user.setFirstName("John");
+        user.setLastName("Steward");
+        user.setEmail("john@domain.com");
+        user.setAccountStatus(AccountStatus.CONFIRMED);
+
+        blogPost = new BlogPost();
+        blogPost.setId(1L);
+        blogPost.setUser(user);
+        blogPost.setEntry("Test post by confirmed user");
+        blogPost.setLikesCount(42);
+    }
+
+    @Benchmark
+    public UserData modelMapperUserToDto() {
+        return modelMapper.mapToDto(user);
+    }
+
+    @Benchmark
+    public UserData directUserToDto() {
+        return directMapper.mapToDto(user);
+    }
+
+    @Benchmark
+    public PostData modelMapperPostToDto() {
+        return modelMapper.mapToDto(blogPost);
+    }
+
+    @Benchmark
+    public PostData directPostToDto() {
+        return directMapper.mapToDto(blogPost);
+    }
+
+}
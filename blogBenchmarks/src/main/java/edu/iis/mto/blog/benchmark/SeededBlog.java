@@ -0,0 +1,225 @@
+package edu.iis.mto.blog.benchmark;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import edu.iis.mto.blog.BlogApplication;
+import edu.iis.mto.blog.domain.graph.LikeGraph;
+import edu.iis.mto.blog.domain.likes.LikeFilter;
+import edu.iis.mto.blog.domain.search.UserSearchIndex;
+import edu.iis.mto.blog.services.BlogService;
+import edu.iis.mto.blog.services.DataFinder;
+
+/**
+ * Blog application context backed by an in-memory H2 database seeded with {@code users} confirmed users, {@code posts} posts
+ * spread evenly over the users and {@code likes} likes. Sizes are set with JMH parameters, e.g.
+ * {@code -p users=1000,100000,1000000}.
+ */
+@State(Scope.Benchmark)
+public class SeededBlog {
+
+    private static final int BATCH_SIZE = 10_000;
+
+    private static final String EMAIL_PREFIX = "bench-";
+
+    private static final String EXTRA_LIKER_EMAIL_PREFIX = "liker-";
+
+    @Param("1000")
+    private int users;
+
+    @Param("1000")
+    private int posts;
+
+    @Param("1000")
+    private int likes;
+
+    private ConfigurableApplicationContext context;
+
+    private JdbcTemplate jdbc;
+
+    private BlogService blogService;
+
+    private DataFinder dataFinder;
+
+    private long[] userIds;
+
+    private long[] postIds;
+
+    private long[] extraLikerIds = new long[0];
+
+    private final AtomicLong nextLike = new AtomicLong();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        if (likes > (long) posts * (users - 1)) {
+            throw new IllegalArgumentException("too many likes for given number of users and posts");
+        }
+        // swagger configuration needs the servlet context, the server itself listens on a random port and stays idle
+        context = new SpringApplicationBuilder(BlogApplication.class).properties("server.port=0",
+                "spring.datasource.url=jdbc:h2:mem:benchmark", "spring.jpa.show-sql=false", "logging.level.root=WARN")
+                                                                      .run();
+        blogService = context.getBean(BlogService.class);
+        dataFinder = context.getBean(DataFinder.class);
+
+        jdbc = context.getBean(JdbcTemplate.class);
+        seedUsers(EMAIL_PREFIX, 0, users);
+        userIds = ids(jdbc.queryForList("select id from user where email like '" + EMAIL_PREFIX + "%' order by id", Long.class));
+        seedPosts();
+        postIds = ids(jdbc.queryForList("select p.id from blog_post p join user u on u.id = p.user_id where u.email like '"
+                + EMAIL_PREFIX + "%' order by p.id", Long.class));
+        seedLikes();
+        nextLike.set(likes);
+        context.getBean(UserSearchIndex.class)
+               .rebuild();
+        context.getBean(LikeFilter.class)
+               .warm();
+        context.getBean(LikeGraph.class)
+               .build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    public BlogService blogService() {
+        return blogService;
+    }
+
+    public DataFinder dataFinder() {
+        return dataFinder;
+    }
+
+    public long randomUserId() {
+        return userIds[ThreadLocalRandom.current()
+                                        .nextInt(userIds.length)];
+    }
+
+    public int randomUserIndex() {
+        return ThreadLocalRandom.current()
+                                .nextInt(users);
+    }
+
+    /**
+     * @return user id and post id of a like which has not been given yet; once seeded users have liked every post of other
+     *         users, likes come from extra users seeded on demand
+     */
+    public long[] nextNewLike() {
+        long like = nextLike.getAndIncrement();
+        int post = (int) (like % posts);
+        long capacity = (long) posts * (users - 1);
+        if (like < capacity) {
+            return new long[] {userIds[likerIndex(post, like)], postIds[post]};
+        }
+        return new long[] {extraLiker((like - capacity) / posts), postIds[post]};
+    }
+
+    /**
+     * @return user id and post id of a seeded like
+     */
+    public long[] randomExistingLike() {
+        int like = ThreadLocalRandom.current()
+                                    .nextInt(likes);
+        int post = like % posts;
+        return new long[] {userIds[likerIndex(post, like)], postIds[post]};
+    }
+
+    private int authorIndex(int post) {
+        return post % users;
+    }
+
+    private int likerIndex(int post, long like) {
+        return (int) ((authorIndex(post) + 1 + like / posts) % users);
+    }
+
+    /**
+     * Extra likers author no posts, so none of their likes is a like of an own post.
+     */
+    private synchronized long extraLiker(long index) {
+        while (index >= extraLikerIds.length) {
+            seedUsers(EXTRA_LIKER_EMAIL_PREFIX, extraLikerIds.length, BATCH_SIZE);
+            extraLikerIds = ids(jdbc.queryForList("select id from user where email like '" + EXTRA_LIKER_EMAIL_PREFIX
+                    + "%' order by id", Long.class));
+        }
+        return extraLikerIds[(int) index];
+    }
+
+    private void seedUsers(String emailPrefix, int first, int count) {
+        batch("insert into user (id, version, account_status, email, first_name, last_name, followers_count) "
+                + "values (next value for user_seq, 0, 'CONFIRMED', ?, ?, ?, 0)", count,
+                (ps, i) -> {
+                    ps.setString(1, emailPrefix + (first + i) + "@domain.com");
+                    ps.setString(2, "First" + (first + i));
+                    ps.setString(3, "Last" + (first + i));
+                });
+    }
+
+    private void seedPosts() {
+        batch("insert into blog_post (id, version, entry, preview, entry_length, likes_count, user_id) "
+                + "values (next value for blog_post_seq, 0, ?, ?, ?, ?, ?)", posts, (ps, i) -> {
+                    String entry = "Benchmark post number " + i;
+                    ps.setString(1, entry);
+                    ps.setString(2, entry);
+                    ps.setInt(3, entry.length());
+                    ps.setInt(4, likesOfPost(i));
+                    ps.setLong(5, userIds[authorIndex(i)]);
+                });
+    }
+
+    private void seedLikes() {
+        batch("insert into like_post (user_id, post_id) values (?, ?)", likes, (ps, i) -> {
+            int post = i % posts;
+            ps.setLong(1, userIds[likerIndex(post, i)]);
+            ps.setLong(2, postIds[post]);
+        });
+    }
+
+    private int likesOfPost(int post) {
+        return likes / posts + (post < likes % posts ? 1 : 0);
+    }
+
+    private void batch(String sql, int rows, RowSetter setter) {
+        for (int from = 0; from < rows; from += BATCH_SIZE) {
+            int offset = from;
+            int size = Math.min(BATCH_SIZE, rows - from);
+            jdbc.batchUpdate(sql, new BatchPreparedStatementSetter() {
+
+                @Override
+                public void setValues(PreparedStatement ps, int i) throws SQLException {
+                    setter.set(ps, offset + i);
+                }
+
+                @Override
+                public int getBatchSize() {
+                    return size;
+                }
+            });
+        }
+    }
+
+    private static long[] ids(List<Long> ids) {
+        return ids.stream()
+                  .mapToLong(Long::longValue)
+                  .toArray();
+    }
+
+    private interface RowSetter {
+
+        void set(PreparedStatement ps, int row) throws SQLException;
+    }
+
+}
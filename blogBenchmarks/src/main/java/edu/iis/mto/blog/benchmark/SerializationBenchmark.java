@@ -0,0 +1,104 @@
+package edu.iis.mto.blog.benchmark;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+
+import edu.iis.mto.blog.domain.model.BlogPost;
+import edu.iis.mto.blog.dto.PostData;
+
+/**
+ * Cost of encoding one page of the user posts listing in each format the API negotiates, with and without the gzip step the
+ * servlet container applies above the compression threshold. Bytes on the wire of every combination are printed once per
+ * trial.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SerializationBenchmark {
+
+    @Param({ "json", "cbor", "smile" })
+    private String format;
+
+    @Param({ "false", "true" })
+    private boolean gzip;
+
+    @Param({ "50", "500" })
+    private int posts;
+
+    private ObjectMapper mapper;
+
+    private List<PostData> page;
+
+    @Setup
+    public void setUp() throws IOException {
+        mapper = mapper(format);
+        page = new ArrayList<>(posts);
+        for (int i = 0; i < posts; i++) {
+            BlogPost post = new BlogPost();
+            post.setEntry(entry(i));
+            page.add(new PostData((long) i + 1, post.getPreview(), post.getEntryLength(), i % 17));
+        }
+        System.out.println("bytes on the wire: " + format + (gzip ? "+gzip" : "") + " " + posts + " posts = " + encode().length);
+    }
+
+    @Benchmark
+    public byte[] encodePostsPage() throws IOException {
+        return encode();
+    }
+
+    private byte[] encode() throws IOException {
+        if (!gzip) {
+            return mapper.writeValueAsBytes(page);
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream compressed = new GZIPOutputStream(out)) {
+            mapper.writeValue(compressed, page);
+        }
+        return out.toByteArray();
+    }
+
+    private static ObjectMapper mapper(String format) {
+        switch (format) {
+        case "cbor":
+            return new ObjectMapper(new CBORFactory());
+        case "smile":
+            return new ObjectMapper(new SmileFactory());
+        default:
+            return new ObjectMapper();
+        }
+    }
+
+    private static String entry(int i) {
+        StringBuilder entry = new StringBuilder();
+        while (entry.length() < 1000) {
+            entry.append("Post number ")
+                 .append(i)
+                 .append(" of the seeded blog, written by a confirmed user. ");
+        }
+        return entry.toString();
+    }
+
+}
@@ -0,0 +1,64 @@
+package edu.iis.mto.blog.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import edu.iis.mto.blog.api.request.UserRequest;
+import edu.iis.mto.blog.dto.ItemResult;
+
+/**
+ * Creating {@code batchSize} users one by one, each in its own transaction, against a single {@code createUsers} call, which
+ * sends the inserts in JDBC batches now that ids come from a pooled sequence instead of an identity column.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UserInsertBenchmark {
+
+    @Param({"50", "500"})
+    private int batchSize;
+
+    private final AtomicLong nextUser = new AtomicLong();
+
+    @Benchmark
+    public Long createUsersOneByOne(SeededBlog blog) {
+        Long lastId = null;
+        for (UserRequest userRequest : newUsers()) {
+            lastId = blog.blogService()
+                         .createUser(userRequest);
+        }
+        return lastId;
+    }
+
+    @Benchmark
+    public List<ItemResult> createUsersInBatch(SeededBlog blog) {
+        return blog.blogService()
+                   .createUsers(newUsers());
+    }
+
+    private List<UserRequest> newUsers() {
+        List<UserRequest> userRequests = new ArrayList<>(batchSize);
+        for (int i = 0; i < batchSize; i++) {
+            long user = nextUser.getAndIncrement();
+            userRequests.add(new UserRequest("First" + user, "Last" + user, "insert-" + user + "@domain.com"));
+        }
+        return userRequests;
+    }
+
+}
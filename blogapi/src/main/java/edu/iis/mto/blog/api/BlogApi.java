@@ -1,31 +1,49 @@
 package edu.iis.mto.blog.api;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.util.List;
 
+import javax.servlet.http.HttpServletResponse;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
 
 import edu.iis.mto.blog.api.request.PostRequest;
 import edu.iis.mto.blog.api.request.UserRequest;
 import edu.iis.mto.blog.dto.Id;
+import edu.iis.mto.blog.dto.ItemResult;
 import edu.iis.mto.blog.dto.PostData;
+import edu.iis.mto.blog.dto.PostEntry;
+import edu.iis.mto.blog.dto.PostPage;
+import edu.iis.mto.blog.dto.RelatedUser;
 import edu.iis.mto.blog.dto.UserData;
 import edu.iis.mto.blog.services.BlogService;
 import edu.iis.mto.blog.services.DataFinder;
 import io.swagger.annotations.Api;
 import io.swagger.annotations.ApiOperation;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
 @RestController
 @RequestMapping(path = "/blog", produces = MediaType.APPLICATION_JSON_UTF8_VALUE)
 @Api(tags = "blog api")
@@ -33,34 +51,80 @@ public class BlogApi {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(BlogApi.class);
 
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    public static final String NDJSON_VALUE = "application/x-ndjson";
+
+    public static final String ENTRY_LENGTH_HEADER = "X-Entry-Length";
+
+    public static final String CBOR_VALUE = "application/cbor";
+
+    public static final String SMILE_VALUE = "application/x-jackson-smile";
+
     @Autowired
     private BlogService blogService;
 
     @Autowired
     private DataFinder finder;
 
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${blog.posts.default-page-size}")
+    private int defaultPageSize;
+
+    @Value("${blog.posts.max-page-size}")
+    private int maxPageSize;
+
+    @Value("${blog.user-search.default-page-size}")
+    private int defaultSearchPageSize;
+
+    @Value("${blog.user-search.max-results}")
+    private int maxSearchResults;
+
+    @Value("${blog.batch.max-items}")
+    private int maxBatchItems;
+
     @ApiOperation(value = "Creates new user")
     @PostMapping(path = "/user")
     @ResponseStatus(HttpStatus.CREATED)
     public Id createUser(@RequestBody UserRequest userRequest) {
         LOGGER.debug("create user endpoint called for data '{}'", userRequest);
-        Long userId = blogService.createUser(userRequest);
-        return id(userId);
+        return id(blogService.createUser(userRequest));
     }
 
-    @ApiOperation(value = "get user info based on user id")
-    @GetMapping(path = "/user/{id}")
-    @ResponseStatus(HttpStatus.OK)
-    public UserData getUser(@PathVariable("id") Long userId) {
+    @ApiOperation(value = "Creates new users, returns id or error for each of them in request order")
+    @PostMapping(path = "/user/batch")
+    public List<ItemResult> createUsers(@RequestBody List<UserRequest> userRequests) {
+        LOGGER.debug("create users endpoint called for {} users", userRequests.size());
+        checkBatchSize(userRequests);
+        return blogService.createUsers(userRequests);
+    }
+
+    @ApiOperation(value = "get user info based on user id; answers 304 when If-None-Match holds the current ETag")
+    @GetMapping(path = "/user/{id}", produces = { MediaType.APPLICATION_JSON_UTF8_VALUE, CBOR_VALUE, SMILE_VALUE })
+    public ResponseEntity<UserData> getUser(@PathVariable("id") Long userId,
+            @RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         LOGGER.debug("get user endpoint called for user id '{}'", userId);
-        return finder.getUserData(userId);
+        String etag = etag(finder.getUserVersion(userId));
+        if (matches(ifNoneMatch, etag)) {
+            return notModified(etag);
+        }
+        // the served data may come from a cache, older than the version just read
+        UserData user = finder.getUserData(userId);
+        return ResponseEntity.ok()
+                             .eTag(etag(user.getVersion()))
+                             .varyBy(HttpHeaders.ACCEPT)
+                             .body(user);
     }
 
-    @ApiOperation(value = "find users based on email or first name or last name")
-    @GetMapping(path = "/user/find")
-    public List<UserData> findUser(@RequestParam String searchString) {
-        LOGGER.debug("find users endpoint called for searchString '{}'", searchString);
-        return finder.findUsers(searchString);
+    @ApiOperation(value = "find users based on email or first name or last name, paged")
+    @GetMapping(path = "/user/find", produces = { MediaType.APPLICATION_JSON_UTF8_VALUE, CBOR_VALUE, SMILE_VALUE })
+    public List<UserData> findUser(@RequestParam String searchString,
+            @RequestParam(name = "page", defaultValue = "0") int page, @RequestParam(name = "size", required = false) Integer size) {
+        LOGGER.debug("find users endpoint called for searchString '{}', page '{}'", searchString, page);
+        int pageSize = size == null ? defaultSearchPageSize : Math.max(1, Math.min(size, maxSearchResults));
+        return finder.findUsers(searchString, Math.max(0, page), pageSize);
     }
 
     @ApiOperation(value = "Creates new blog post")
@@ -69,8 +133,16 @@ public class BlogApi {
     public Id createPost(@PathVariable("id") Long userId, @RequestBody PostRequest postRequest) {
         LOGGER.debug("create post endpoint called for data '{}'", postRequest);
 
-        Long postId = blogService.createPost(userId, postRequest);
-        return id(postId);
+        return id(blogService.createPost(userId, postRequest));
+    }
+
+    @ApiOperation(value = "Creates new blog posts, returns id or error for each of them in request order")
+    @PostMapping(path = "/user/{id}/post/batch")
+    public List<ItemResult> createPosts(@PathVariable("id") Long userId,
+            @RequestBody List<PostRequest> postRequests) {
+        LOGGER.debug("create posts endpoint called for {} posts of user '{}'", postRequests.size(), userId);
+        checkBatchSize(postRequests);
+        return blogService.createPosts(userId, postRequests);
     }
 
     @ApiOperation(value = "Add like to blog post")
@@ -80,20 +152,172 @@ public class BlogApi {
         return blogService.addLikeToPost(userId, postId);
     }
 
-    @ApiOperation(value = "get user posts based on user id")
-    @GetMapping(path = "/user/{id}/post")
-    public List<PostData> getUserPosts(@PathVariable("id") Long userId) {
-        LOGGER.debug("get user posts endpoint called for user id '{}'", userId);
-        return finder.getUserPosts(userId);
+    @ApiOperation(value = "Follow user, posts of the followee appear in the home timeline of the user")
+    @PostMapping(path = "user/{userId}/follow/{followeeId}")
+    public boolean followUser(@PathVariable("userId") Long userId, @PathVariable("followeeId") Long followeeId) {
+        LOGGER.debug("follow user endpoint called for userId '{}' and followeeId '{}'", userId, followeeId);
+        return blogService.followUser(userId, followeeId);
+    }
+
+    @ApiOperation(value = "Unfollow user")
+    @DeleteMapping(path = "user/{userId}/follow/{followeeId}")
+    public boolean unfollowUser(@PathVariable("userId") Long userId, @PathVariable("followeeId") Long followeeId) {
+        LOGGER.debug("unfollow user endpoint called for userId '{}' and followeeId '{}'", userId, followeeId);
+        return blogService.unfollowUser(userId, followeeId);
+    }
+
+    @ApiOperation(value = "get home timeline of the user: posts of followed users, newest first, paged by post id; next page cursor "
+            + "is returned in " + NEXT_CURSOR_HEADER + " header")
+    @GetMapping(path = "/user/{id}/timeline", produces = { MediaType.APPLICATION_JSON_UTF8_VALUE, CBOR_VALUE, SMILE_VALUE })
+    public ResponseEntity<List<PostData>> getTimeline(@PathVariable("id") Long userId,
+            @RequestParam(name = "before", required = false) Long beforeId,
+            @RequestParam(name = "limit", required = false) Integer limit) {
+        LOGGER.debug("get timeline endpoint called for user id '{}' before post id '{}'", userId, beforeId);
+        PostPage page = finder.getTimeline(userId, beforeId, pageSize(limit));
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                                                            .varyBy(HttpHeaders.ACCEPT);
+        if (page.getNextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, page.getNextCursor()
+                                                    .toString());
+        }
+        return response.body(page.getPosts());
+    }
+
+    @ApiOperation(value = "get users who liked posts of the user, most likes first")
+    @GetMapping(path = "/user/{id}/likers", produces = { MediaType.APPLICATION_JSON_UTF8_VALUE, CBOR_VALUE, SMILE_VALUE })
+    public List<RelatedUser> getLikersOfUserPosts(@PathVariable("id") Long userId,
+            @RequestParam(name = "limit", required = false) Integer limit) {
+        LOGGER.debug("get likers endpoint called for user id '{}', limit '{}'", userId, limit);
+        return finder.getLikersOfUserPosts(userId, pageSize(limit));
+    }
+
+    @ApiOperation(value = "get other users who liked the same posts as the user, most common likes first")
+    @GetMapping(path = "/user/{id}/common-likes", produces = { MediaType.APPLICATION_JSON_UTF8_VALUE, CBOR_VALUE, SMILE_VALUE })
+    public List<RelatedUser> getUsersWithCommonLikes(@PathVariable("id") Long userId,
+            @RequestParam(name = "limit", required = false) Integer limit) {
+        LOGGER.debug("get users with common likes endpoint called for user id '{}', limit '{}'", userId, limit);
+        return finder.getUsersWithCommonLikes(userId, pageSize(limit));
+    }
+
+    @ApiOperation(value = "get user posts based on user id, paged by post id; next page cursor is returned in "
+            + NEXT_CURSOR_HEADER + " header; answers 304 when If-None-Match holds the current ETag")
+    @GetMapping(path = "/user/{id}/post", produces = { MediaType.APPLICATION_JSON_UTF8_VALUE, CBOR_VALUE, SMILE_VALUE })
+    public ResponseEntity<List<PostData>> getUserPosts(@PathVariable("id") Long userId,
+            @RequestParam(name = "after", required = false) Long afterId, @RequestParam(name = "limit", required = false) Integer limit,
+            @RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        LOGGER.debug("get user posts endpoint called for user id '{}' after post id '{}'", userId, afterId);
+        String etag = etag(finder.getUserPostsVersion(userId, afterId, pageSize(limit)));
+        if (matches(ifNoneMatch, etag)) {
+            return notModified(etag);
+        }
+        // the served page may come from a cache, older than the version just read
+        PostPage page = finder.getUserPosts(userId, afterId, pageSize(limit));
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                                                            .eTag(etag(page.getVersion()))
+                                                            .varyBy(HttpHeaders.ACCEPT);
+        if (page.getNextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, page.getNextCursor()
+                                                    .toString());
+        }
+        return response.body(page.getPosts());
+    }
+
+    @ApiOperation(value = "exports all posts of the user as newline delimited JSON, streamed without paging")
+    @GetMapping(path = "/user/{id}/post/export", produces = NDJSON_VALUE)
+    public void exportUserPosts(@PathVariable("id") Long userId, HttpServletResponse response) throws IOException {
+        LOGGER.debug("export user posts endpoint called for user id '{}'", userId);
+        response.setContentType(NDJSON_VALUE);
+        response.setCharacterEncoding("UTF-8");
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "no-store");
+        OutputStream out = response.getOutputStream();
+        try (JsonGenerator generator = objectMapper.getFactory()
+                                                   .createGenerator(out)) {
+            // the servlet container flushes its buffer when full, so an unknown user can still be reported with an error status
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.disable(JsonGenerator.Feature.FLUSH_PASSED_TO_STREAM);
+            generator.setRootValueSeparator(null);
+            finder.exportUserPosts(userId, post -> {
+                try {
+                    generator.writeObject(post);
+                    generator.writeRaw('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        }
+    }
+
+    @ApiOperation(value = "get whole entry of the post or given range of its characters; length of the whole entry is returned in "
+            + ENTRY_LENGTH_HEADER + " header")
+    @GetMapping(path = "/post/{id}/entry", produces = MediaType.TEXT_PLAIN_VALUE + ";charset=UTF-8")
+    public ResponseEntity<String> getPostEntry(@PathVariable("id") Long postId,
+            @RequestParam(name = "offset", defaultValue = "0") int offset, @RequestParam(name = "length", required = false) Integer length) {
+        LOGGER.debug("get post entry endpoint called for post id '{}', offset '{}', length '{}'", postId, offset, length);
+        PostEntry entry = finder.getPostEntry(postId, Math.max(0, offset), length == null ? null : Math.max(0, length));
+        return ResponseEntity.ok()
+                             .header(ENTRY_LENGTH_HEADER, Integer.toString(entry.getEntryLength()))
+                             .body(entry.getText() == null ? "" : entry.getText());
+    }
+
+    @ApiOperation(value = "get most liked posts, of the author when given, most liked first")
+    @GetMapping(path = "/post/top", produces = { MediaType.APPLICATION_JSON_UTF8_VALUE, CBOR_VALUE, SMILE_VALUE })
+    public List<PostData> getTopLikedPosts(@RequestParam(name = "author", required = false) Long authorId,
+            @RequestParam(name = "limit", defaultValue = "10") int limit) {
+        LOGGER.debug("get top liked posts endpoint called for author id '{}', limit '{}'", authorId, limit);
+        return finder.getTopLikedPosts(authorId, Math.max(1, limit));
     }
 
     @ApiOperation(value = "get single post based on post id")
-    @GetMapping(path = "/post")
+    @GetMapping(path = "/post", produces = { MediaType.APPLICATION_JSON_UTF8_VALUE, CBOR_VALUE, SMILE_VALUE })
     public PostData getPosts(@PathVariable("id") Long postId) {
         LOGGER.debug("get post by id '{}'", postId);
         return finder.getPost(postId);
     }
 
+    private void checkBatchSize(List<?> items) {
+        if (items.size() > maxBatchItems) {
+            throw new ResponseStatusException(HttpStatus.PAYLOAD_TOO_LARGE, "at most " + maxBatchItems + " items allowed");
+        }
+    }
+
+    /**
+     * Weak, as the same version is served in several encodings; Tomcat does not compress responses carrying a strong ETag.
+     */
+    private static String etag(long version) {
+        return "W/\"" + Long.toHexString(version) + "\"";
+    }
+
+    /**
+     * Weak comparison of {@code If-None-Match} entries with the ETag.
+     */
+    private static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        String opaqueTag = etag.substring(2);
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*") || tag.equals(etag) || tag.equals(opaqueTag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static <T> ResponseEntity<T> notModified(String etag) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                             .eTag(etag)
+                             .varyBy(HttpHeaders.ACCEPT)
+                             .build();
+    }
+
+    private int pageSize(Integer limit) {
+        if (limit == null) {
+            return defaultPageSize;
+        }
+        return Math.max(1, Math.min(limit, maxPageSize));
+    }
+
     private Id id(Long id) {
         return new Id(id);
     }
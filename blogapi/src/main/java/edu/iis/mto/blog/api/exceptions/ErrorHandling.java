@@ -1,6 +1,7 @@
 package edu.iis.mto.blog.api.exceptions;
 
 import java.io.IOException;
+import java.util.concurrent.RejectedExecutionException;
 
 import javax.persistence.EntityNotFoundException;
 import javax.servlet.http.HttpServletResponse;
@@ -8,11 +9,13 @@ import javax.servlet.http.HttpServletResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 
 import edu.iis.mto.blog.domain.errors.DomainError;
+import edu.iis.mto.blog.domain.errors.LikesBacklogFullError;
 
 @ControllerAdvice
 public class ErrorHandling {
@@ -31,6 +34,20 @@ public class ErrorHandling {
         response.sendError(HttpStatus.NOT_FOUND.value(), exc.getMessage());
     }
 
+    @ExceptionHandler(LikesBacklogFullError.class)
+    public void likesBacklogFull(LikesBacklogFullError exc, HttpServletResponse response) throws IOException {
+        LOGGER.warn(exc.getMessage());
+        response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+        response.sendError(HttpStatus.SERVICE_UNAVAILABLE.value(), exc.getMessage());
+    }
+
+    @ExceptionHandler(RejectedExecutionException.class)
+    public void apiExecutorSaturated(RejectedExecutionException exc, HttpServletResponse response) throws IOException {
+        LOGGER.warn(exc.getMessage());
+        response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+        response.sendError(HttpStatus.SERVICE_UNAVAILABLE.value(), "too many requests in progress");
+    }
+
     @ExceptionHandler(EntityNotFoundException.class)
     public void entityNotFound(EntityNotFoundException exc, HttpServletResponse response) throws IOException {
         LOGGER.error(exc.getMessage());
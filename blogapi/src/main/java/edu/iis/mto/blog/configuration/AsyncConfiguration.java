@@ -0,0 +1,63 @@
+package edu.iis.mto.blog.configuration;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.web.servlet.WebMvcRegistrations;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerAdapter;
+
+import edu.iis.mto.blog.metrics.SqlStatementCounter;
+
+/**
+ * Executor of the {@code BlogApi} service calls. With {@code blog.api.execution=sync} endpoints run on the servlet thread
+ * and return their values directly, with {@code async} they run on a bounded pool, so servlet threads are not held while
+ * waiting for the database, and responses are written after a Servlet async dispatch; work above the pool and queue
+ * capacity is rejected.
+ */
+@Configuration
+public class AsyncConfiguration implements WebMvcConfigurer {
+
+    public static final String API_EXECUTOR = "blogApiExecutor";
+
+    @Value("${blog.api.executor.timeout-ms}")
+    private long timeoutMs;
+
+    @Bean(name = API_EXECUTOR)
+    @ConditionalOnProperty(name = "blog.api.execution", havingValue = "async")
+    public TaskExecutor pooledApiExecutor(@Value("${blog.api.executor.core-size}") int coreSize,
+            @Value("${blog.api.executor.max-size}") int maxSize, @Value("${blog.api.executor.queue-capacity}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(coreSize);
+        executor.setMaxPoolSize(maxSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("blog-api-");
+        executor.setTaskDecorator(SqlStatementCounter::carry);
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        return executor;
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "blog.api.execution", havingValue = "async")
+    public WebMvcRegistrations apiExecutorRegistrations(@Qualifier(API_EXECUTOR) TaskExecutor executor) {
+        return new WebMvcRegistrations() {
+
+            @Override
+            public RequestMappingHandlerAdapter getRequestMappingHandlerAdapter() {
+                return new ExecutorHandlerAdapter(executor);
+            }
+
+        };
+    }
+
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.setDefaultTimeout(timeoutMs);
+    }
+
+}
@@ -0,0 +1,66 @@
+package edu.iis.mto.blog.configuration;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.util.StringUtils;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+import edu.iis.mto.blog.domain.routing.ReadWriteRoutingDataSource;
+import edu.iis.mto.blog.domain.routing.ReadWriteRoutingDataSource.LazyRoutingDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Replaces the single data source with a primary pool configured by {@code spring.datasource.*} and a pool per replica listed in
+ * {@code blog.datasource.replica.urls}; replica pools are sized like the primary one. The pools stay out of the context, so the
+ * application sees a single data source.
+ */
+@Configuration
+@ConditionalOnProperty(name = "blog.datasource.replica.urls")
+public class DataSourceRoutingConfiguration {
+
+    private static final String HIKARI_PROPERTIES = "spring.datasource.hikari";
+
+    @Bean
+    public LazyRoutingDataSource dataSource(DataSourceProperties properties, Environment environment,
+            ObjectProvider<MeterRegistry> meterRegistry, @Value("${blog.datasource.replica.urls}") String[] replicaUrls,
+            @Value("${blog.datasource.replica.username:}") String username, @Value("${blog.datasource.replica.password:}") String password) {
+        HikariDataSource primary = properties.initializeDataSourceBuilder()
+                                             .type(HikariDataSource.class)
+                                             .build();
+        Binder.get(environment)
+              .bind(HIKARI_PROPERTIES, Bindable.ofInstance(primary));
+        primary.setPoolName("primary");
+        meterRegistry.ifAvailable(primary::setMetricRegistry);
+
+        List<DataSource> replicas = new ArrayList<>();
+        for (String url : replicaUrls) {
+            HikariDataSource replica = new HikariDataSource();
+            primary.copyStateTo(replica);
+            replica.setJdbcUrl(url.trim());
+            replica.setPoolName("replica-" + replicas.size());
+            replica.setReadOnly(true);
+            if (StringUtils.hasText(username)) {
+                replica.setUsername(username);
+                replica.setPassword(password);
+            }
+            replicas.add(replica);
+        }
+        ReadWriteRoutingDataSource routingDataSource = new ReadWriteRoutingDataSource(primary, replicas);
+        routingDataSource.afterPropertiesSet();
+        return routingDataSource.lazy();
+    }
+
+}
@@ -0,0 +1,67 @@
+package edu.iis.mto.blog.configuration;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.method.support.ModelAndViewContainer;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerAdapter;
+import org.springframework.web.servlet.mvc.method.annotation.ServletInvocableHandlerMethod;
+
+import edu.iis.mto.blog.api.BlogApi;
+
+/**
+ * Invokes {@code BlogApi} endpoints on the executor: arguments are resolved on the servlet thread, the endpoint runs on
+ * the executor and its plain return value completes a {@code CompletableFuture}, written after a Servlet async dispatch.
+ * Endpoints writing the response themselves stay on the servlet thread.
+ */
+class ExecutorHandlerAdapter extends RequestMappingHandlerAdapter {
+
+    private final Executor executor;
+
+    ExecutorHandlerAdapter(Executor executor) {
+        this.executor = executor;
+    }
+
+    @Override
+    protected ServletInvocableHandlerMethod createInvocableHandlerMethod(HandlerMethod handlerMethod) {
+        if (handlerMethod.getBeanType() == BlogApi.class && !handlerMethod.isVoid()) {
+            return new ExecutorInvocableHandlerMethod(handlerMethod, executor);
+        }
+        return super.createInvocableHandlerMethod(handlerMethod);
+    }
+
+    private static class ExecutorInvocableHandlerMethod extends ServletInvocableHandlerMethod {
+
+        private final Executor executor;
+
+        ExecutorInvocableHandlerMethod(HandlerMethod handlerMethod, Executor executor) {
+            super(handlerMethod);
+            this.executor = executor;
+        }
+
+        /**
+         * The future is handled by the type of the returned value, the result after the dispatch by the declared one.
+         */
+        @Override
+        public Object invokeForRequest(NativeWebRequest request, ModelAndViewContainer mavContainer, Object... providedArgs)
+                throws Exception {
+            Object[] args = getMethodArgumentValues(request, mavContainer, providedArgs);
+            return CompletableFuture.supplyAsync(() -> invoke(args), executor);
+        }
+
+        private Object invoke(Object[] args) {
+            try {
+                return doInvoke(args);
+            } catch (RuntimeException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new CompletionException(e);
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,51 @@
+package edu.iis.mto.blog.configuration;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import edu.iis.mto.blog.metrics.CallMetricsAspect;
+import edu.iis.mto.blog.metrics.SqlStatementsFilter;
+import edu.iis.mto.blog.metrics.StatementCountingDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Metrics next to the {@code http.server.requests} endpoint timings of Spring Boot, all served by {@code /actuator/metrics}.
+ */
+@Configuration
+public class MetricsConfiguration {
+
+    private static final String DATA_SOURCE = "dataSource";
+
+    @Bean
+    public CallMetricsAspect callMetricsAspect(MeterRegistry registry) {
+        return new CallMetricsAspect(registry);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "blog.metrics.sql-statements.enabled", havingValue = "true")
+    public static BeanPostProcessor statementCountingDataSourcePostProcessor() {
+        return new BeanPostProcessor() {
+
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                // only the data source used by the application, pools behind a routing data source are not counted twice
+                if (bean instanceof DataSource && DATA_SOURCE.equals(beanName)) {
+                    return new StatementCountingDataSource((DataSource) bean);
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "blog.metrics.sql-statements.enabled", havingValue = "true")
+    public FilterRegistrationBean<SqlStatementsFilter> sqlStatementsFilter(MeterRegistry registry) {
+        return new FilterRegistrationBean<>(new SqlStatementsFilter(registry));
+    }
+
+}
@@ -1,19 +1,40 @@
 package edu.iis.mto.blog.domain;
 
+import java.util.Collections;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import edu.iis.mto.blog.domain.cache.BlogCaches;
 import edu.iis.mto.blog.domain.errors.DomainError;
+import edu.iis.mto.blog.domain.graph.LikeGraph;
+import edu.iis.mto.blog.domain.leaderboard.LikesLeaderboard;
 import edu.iis.mto.blog.domain.model.BlogPost;
+import edu.iis.mto.blog.domain.model.RankedPost;
 import edu.iis.mto.blog.domain.model.User;
 import edu.iis.mto.blog.domain.repository.BlogPostRepository;
 import edu.iis.mto.blog.domain.repository.LikePostRepository;
+import edu.iis.mto.blog.domain.repository.PostVersion;
 import edu.iis.mto.blog.domain.repository.UserRepository;
+import edu.iis.mto.blog.domain.routing.RecentWrites;
+import edu.iis.mto.blog.domain.search.UserSearchIndex;
+import edu.iis.mto.blog.domain.timeline.HomeTimelines;
 import edu.iis.mto.blog.dto.PostData;
+import edu.iis.mto.blog.dto.PostEntry;
+import edu.iis.mto.blog.dto.PostPage;
+import edu.iis.mto.blog.dto.RelatedUser;
 import edu.iis.mto.blog.dto.UserData;
 import edu.iis.mto.blog.mapper.BlogDataMapper;
 import edu.iis.mto.blog.services.DataFinder;
@@ -23,13 +44,35 @@ import edu.iis.mto.blog.domain.model.AccountStatus;
 @Service
 public class BlogDataFinder extends DomainService implements DataFinder {
 
+    private final UserSearchIndex userSearchIndex;
+
+    private final RecentWrites recentWrites;
+
+    private final HomeTimelines homeTimelines;
+
+    private final LikesLeaderboard likesLeaderboard;
+
+    private final LikeGraph likeGraph;
+
+    private final int maxSearchResults;
+
     protected BlogDataFinder(UserRepository userRepository, BlogPostRepository blogPostRepository, LikePostRepository likePostRepository,
-            BlogDataMapper mapper) {
+            BlogDataMapper mapper, UserSearchIndex userSearchIndex, RecentWrites recentWrites,
+            HomeTimelines homeTimelines, LikesLeaderboard likesLeaderboard, LikeGraph likeGraph,
+            @Value("${blog.user-search.max-results}") int maxSearchResults) {
         super(userRepository, blogPostRepository, likePostRepository, mapper);
+        this.userSearchIndex = userSearchIndex;
+        this.recentWrites = recentWrites;
+        this.homeTimelines = homeTimelines;
+        this.likesLeaderboard = likesLeaderboard;
+        this.likeGraph = likeGraph;
+        this.maxSearchResults = maxSearchResults;
     }
 
     @Override
+    @Cacheable(cacheNames = BlogCaches.USERS, key = "#userId")
     public UserData getUserData(Long userId) {
+        recentWrites.readingUser(userId);
         User user = userRepository.findById(userId)
                                   .orElseThrow(domainError(DomainError.USER_NOT_FOUND));
 
@@ -37,34 +80,172 @@ public class BlogDataFinder extends DomainService implements DataFinder {
     }
 
     @Override
-    public List<UserData> findUsers(String searchString) {
-        List<User> users = userRepository.findByFirstNameContainingOrLastNameContainingOrEmailContainingAllIgnoreCase(searchString,
-                searchString, searchString);
+    public long getUserVersion(Long userId) {
+        recentWrites.readingUser(userId);
+        return userRepository.findVersionById(userId)
+                             .orElseThrow(domainError(DomainError.USER_NOT_FOUND));
+    }
+
+    /**
+     * Search results are bounded: pages reaching beyond {@code blog.user-search.max-results} matches are empty.
+     */
+    @Override
+    public List<UserData> findUsers(String searchString, int page, int size) {
+        long start = (long) page * size;
+        if (start >= maxSearchResults) {
+            return Collections.emptyList();
+        }
+        int offset = (int) start;
+        int pageSize = Math.min(size, maxSearchResults - offset);
+        if (userSearchIndex.canSearch(searchString)) {
+            return findIndexedUsers(searchString, offset, pageSize);
+        }
+        return userRepository.findUserDataByPattern(containsPattern(searchString), AccountStatus.REMOVED,
+                PageRequest.of(page, size))
+                             .stream()
+                             .limit(pageSize)
+                             .collect(Collectors.toList());
+    }
 
-        return users.stream()
-                    .filter(user -> user.getAccountStatus() != AccountStatus.REMOVED)
-                    .map(mapper::mapToDto)
-                    .collect(Collectors.toList());
+    private List<UserData> findIndexedUsers(String searchString, int offset, int pageSize) {
+        List<Long> rankedIds = userSearchIndex.search(searchString, offset + pageSize);
+        if (rankedIds.size() <= offset) {
+            return Collections.emptyList();
+        }
+        List<Long> pageIds = rankedIds.subList(offset, rankedIds.size());
+        Map<Long, UserData> users = userRepository.findUserDataByIds(pageIds, AccountStatus.REMOVED)
+                                                  .stream()
+                                                  .collect(Collectors.toMap(UserData::getId, Function.identity()));
+        return pageIds.stream()
+                      .map(users::get)
+                      .filter(Objects::nonNull)
+                      .collect(Collectors.toList());
+    }
+
+    private static String containsPattern(String searchString) {
+        String escaped = searchString.toUpperCase(Locale.ROOT)
+                                     .replace("!", "!!")
+                                     .replace("%", "!%")
+                                     .replace("_", "!_");
+        return "%" + escaped + "%";
     }
 
     @Override
     public PostData getPost(Long postId) {
+        recentWrites.readingPost(postId);
         BlogPost blogPost = blogPostRepository.findById(postId)
                                               .orElseThrow(domainError(DomainError.POST_NOT_FOUND));
         return mapper.mapToDto(blogPost);
     }
 
     @Override
-    public List<PostData> getUserPosts(Long userId) {
-        User user = userRepository.findById(userId)
-                                  .orElseThrow(domainError(DomainError.USER_NOT_FOUND));
-        if (user.getAccountStatus() == AccountStatus.REMOVED) {
+    public PostEntry getPostEntry(Long postId, int offset, Integer length) {
+        if (offset < 0 || offset == Integer.MAX_VALUE) {
+            throw new DomainError(DomainError.ENTRY_OFFSET_OUT_OF_RANGE);
+        }
+        recentWrites.readingPost(postId);
+        return blogPostRepository.findEntryRange(postId, offset + 1, length == null ? Integer.MAX_VALUE : length)
+                                 .orElseThrow(domainError(DomainError.POST_NOT_FOUND));
+    }
+
+    @Override
+    @Cacheable(cacheNames = BlogCaches.USER_POSTS, key = "new edu.iis.mto.blog.domain.cache.UserPostsKey(#userId, #afterId, #limit)")
+    public PostPage getUserPosts(Long userId, Long afterId, int limit) {
+        recentWrites.readingUser(userId);
+        checkPostsVisible(userId);
+        // read first, a change committed in between makes the version older than the posts, never newer
+        long version = postsVersion(userId, afterId, limit);
+        List<PostData> posts = blogPostRepository.findPostDataByUserIdAfter(userId, afterId == null ? 0L : afterId,
+                PageRequest.of(0, limit + 1));
+        if (posts.size() <= limit) {
+            return new PostPage(posts, null, version);
+        }
+        List<PostData> page = posts.subList(0, limit);
+        return new PostPage(page, page.get(limit - 1)
+                                      .getId(), version);
+    }
+
+    @Override
+    public long getUserPostsVersion(Long userId, Long afterId, int limit) {
+        recentWrites.readingUser(userId);
+        checkPostsVisible(userId);
+        return postsVersion(userId, afterId, limit);
+    }
+
+    /**
+     * Hash of ids and versions of the posts on the page, including the first post of the next page which decides about the
+     * cursor; likes bump the version of the liked post.
+     */
+    private long postsVersion(Long userId, Long afterId, int limit) {
+        long hash = limit;
+        for (PostVersion post : blogPostRepository.findPostVersionsByUserIdAfter(userId, afterId == null ? 0L : afterId,
+                PageRequest.of(0, limit + 1))) {
+            hash = 31 * hash + post.getId();
+            hash = 31 * hash + post.getVersion();
+        }
+        return hash;
+    }
+
+    @Override
+    public PostPage getTimeline(Long userId, Long beforeId, int limit) {
+        recentWrites.readingUser(userId);
+        checkPostsVisible(userId);
+        return homeTimelines.read(userId, beforeId, limit);
+    }
+
+    /**
+     * Served from memory, without a transaction.
+     */
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public List<PostData> getTopLikedPosts(Long authorId, int limit) {
+        return likesLeaderboard.top(authorId, limit)
+                               .stream()
+                               .map(BlogDataFinder::rankedPostData)
+                               .collect(Collectors.toList());
+    }
+
+    /**
+     * Served from memory, without a transaction.
+     */
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public List<RelatedUser> getLikersOfUserPosts(Long userId, int limit) {
+        return likeGraph.likersOfPostsBy(userId, limit);
+    }
+
+    /**
+     * Served from memory, without a transaction.
+     */
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public List<RelatedUser> getUsersWithCommonLikes(Long userId, int limit) {
+        return likeGraph.usersWithCommonLikes(userId, limit);
+    }
+
+    private static PostData rankedPostData(RankedPost post) {
+        PostData data = new PostData();
+        data.setId(post.getPostId());
+        data.setAuthorId(post.getAuthorId());
+        data.setLikesCount(post.getLikesCount());
+        return data;
+    }
+
+    @Override
+    public void exportUserPosts(Long userId, Consumer<PostData> consumer) {
+        recentWrites.readingUser(userId);
+        checkPostsVisible(userId);
+        try (Stream<PostData> posts = blogPostRepository.streamPostDataByUserId(userId)) {
+            posts.forEach(consumer);
+        }
+    }
+
+    private void checkPostsVisible(Long userId) {
+        AccountStatus accountStatus = userRepository.findAccountStatusById(userId)
+                                                    .orElseThrow(domainError(DomainError.USER_NOT_FOUND));
+        if (accountStatus == AccountStatus.REMOVED) {
             throw new DomainError(DomainError.USER_STATUS_REMOVED);
         }
-        List<BlogPost> posts = blogPostRepository.findByUser(user);
-        return posts.stream()
-                    .map(mapper::mapToDto)
-                    .collect(Collectors.toList());
     }
 
 }
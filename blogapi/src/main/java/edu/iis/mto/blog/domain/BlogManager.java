@@ -1,7 +1,17 @@
 package edu.iis.mto.blog.domain;
 
-import java.util.Optional;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
@@ -9,13 +19,23 @@ import org.springframework.transaction.annotation.Transactional;
 import edu.iis.mto.blog.api.request.PostRequest;
 import edu.iis.mto.blog.api.request.UserRequest;
 import edu.iis.mto.blog.domain.errors.DomainError;
+import edu.iis.mto.blog.domain.events.FollowChangedEvent;
+import edu.iis.mto.blog.domain.events.PostCreatedEvent;
+import edu.iis.mto.blog.domain.events.PostLikedEvent;
+import edu.iis.mto.blog.domain.events.UserChangedEvent;
+import edu.iis.mto.blog.domain.likes.LikeFilter;
 import edu.iis.mto.blog.domain.model.AccountStatus;
 import edu.iis.mto.blog.domain.model.BlogPost;
-import edu.iis.mto.blog.domain.model.LikePost;
+import edu.iis.mto.blog.domain.model.Follow;
+import edu.iis.mto.blog.domain.model.RankedPost;
 import edu.iis.mto.blog.domain.model.User;
 import edu.iis.mto.blog.domain.repository.BlogPostRepository;
+import edu.iis.mto.blog.domain.repository.FollowRepository;
+import edu.iis.mto.blog.domain.repository.LikeInsertResult;
 import edu.iis.mto.blog.domain.repository.LikePostRepository;
 import edu.iis.mto.blog.domain.repository.UserRepository;
+import edu.iis.mto.blog.domain.timeline.HomeTimelines;
+import edu.iis.mto.blog.dto.ItemResult;
 import edu.iis.mto.blog.mapper.BlogDataMapper;
 import edu.iis.mto.blog.services.BlogService;
 
@@ -23,9 +43,25 @@ import edu.iis.mto.blog.services.BlogService;
 @Transactional(propagation = Propagation.REQUIRED)
 public class BlogManager extends DomainService implements BlogService {
 
+    private final FollowRepository followRepository;
+
+    private final HomeTimelines homeTimelines;
+
+    private final LikeFilter likeFilter;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final int jdbcBatchSize;
+
     protected BlogManager(UserRepository userRepository, BlogPostRepository blogPostRepository, LikePostRepository likePostRepository,
-            BlogDataMapper mapper) {
+            BlogDataMapper mapper, FollowRepository followRepository, HomeTimelines homeTimelines, LikeFilter likeFilter,
+            ApplicationEventPublisher eventPublisher, @Value("${spring.jpa.properties.hibernate.jdbc.batch_size}") int jdbcBatchSize) {
         super(userRepository, blogPostRepository, likePostRepository, mapper);
+        this.followRepository = followRepository;
+        this.homeTimelines = homeTimelines;
+        this.likeFilter = likeFilter;
+        this.eventPublisher = eventPublisher;
+        this.jdbcBatchSize = jdbcBatchSize;
     }
 
     @Override
@@ -33,6 +69,7 @@ public class BlogManager extends DomainService implements BlogService {
         User user = mapper.mapToEntity(userRequest);
         user.setAccountStatus(AccountStatus.NEW);
         userRepository.save(user);
+        eventPublisher.publishEvent(new UserChangedEvent(user));
         return user.getId();
     }
 
@@ -45,12 +82,160 @@ public class BlogManager extends DomainService implements BlogService {
         }
         BlogPost post = mapper.mapToEntity(postRequest);
         post.setUser(user);
-        blogPostRepository.save(post);
+        blogPostRepository.saveAndFlush(post);
+        homeTimelines.postsCreated(Collections.singletonList(post.getId()));
+        eventPublisher.publishEvent(new PostCreatedEvent(userId, post.getId()));
         return post.getId();
     }
 
+    @Override
+    public List<ItemResult> createUsers(List<UserRequest> userRequests) {
+        Set<String> emails = userRequests.stream()
+                                         .map(UserRequest::getEmail)
+                                         .filter(Objects::nonNull)
+                                         .map(email -> email.toLowerCase(Locale.ROOT))
+                                         .collect(Collectors.toSet());
+        // emails differing only in case are the same address, the unique index of emails does not ignore case
+        Set<String> usedEmails = new HashSet<>();
+        if (!emails.isEmpty()) {
+            userRepository.findExistingEmails(emails)
+                          .forEach(used -> usedEmails.add(used.toLowerCase(Locale.ROOT)));
+        }
+        List<ItemResult> results = new ArrayList<>(userRequests.size());
+        List<User> users = new ArrayList<>(userRequests.size());
+        for (UserRequest userRequest : userRequests) {
+            String email = userRequest.getEmail();
+            if (email == null || email.isEmpty()) {
+                results.add(ItemResult.failed(DomainError.EMAIL_REQUIRED));
+            } else if (!usedEmails.add(email.toLowerCase(Locale.ROOT))) {
+                results.add(ItemResult.failed(DomainError.EMAIL_TAKEN));
+            } else {
+                User user = mapper.mapToEntity(userRequest);
+                user.setAccountStatus(AccountStatus.NEW);
+                users.add(user);
+                results.add(null);
+            }
+        }
+        saveInBatches(users, userRepository);
+        users.forEach(user -> eventPublisher.publishEvent(new UserChangedEvent(user)));
+        return fillCreated(results, users.stream()
+                                         .map(User::getId)
+                                         .collect(Collectors.toList()));
+    }
+
+    @Override
+    public List<ItemResult> createPosts(Long userId, List<PostRequest> postRequests) {
+        User user = userRepository.findById(userId)
+                                  .orElseThrow(domainError(DomainError.USER_NOT_FOUND));
+        if (user.getAccountStatus() != AccountStatus.CONFIRMED) {
+            throw new DomainError(DomainError.USER_NOT_CONFIRMED);
+        }
+        List<ItemResult> results = new ArrayList<>(postRequests.size());
+        List<BlogPost> posts = new ArrayList<>(postRequests.size());
+        for (PostRequest postRequest : postRequests) {
+            if (postRequest.getEntry() == null) {
+                results.add(ItemResult.failed(DomainError.ENTRY_REQUIRED));
+            } else {
+                BlogPost post = mapper.mapToEntity(postRequest);
+                post.setUser(user);
+                posts.add(post);
+                results.add(null);
+            }
+        }
+        saveInBatches(posts, blogPostRepository);
+        List<Long> postIds = posts.stream()
+                                  .map(BlogPost::getId)
+                                  .collect(Collectors.toList());
+        homeTimelines.postsCreated(postIds);
+        postIds.forEach(postId -> eventPublisher.publishEvent(new PostCreatedEvent(userId, postId)));
+        return fillCreated(results, postIds);
+    }
+
+    /**
+     * Insert-first: the like is stored by a single conditional insert, only a rejected insert is examined further to report the
+     * reason. A like the filter may have seen is looked up first, so a repeated like is answered by a read instead of a failed
+     * insert.
+     */
     @Override
     public boolean addLikeToPost(Long userId, Long postId) {
+        if (likeFilter.mightBeLiked(userId, postId) && likePostRepository.existsByUserIdAndPostId(userId, postId)) {
+            return false;
+        }
+        LikeInsertResult result = likePostRepository.insertLike(userId, postId);
+        if (result == LikeInsertResult.INSERTED) {
+            blogPostRepository.incrementLikesCount(postId);
+            RankedPost likedPost = blogPostRepository.findRankById(postId)
+                                                     .orElseThrow(domainError(DomainError.POST_NOT_FOUND));
+            eventPublisher.publishEvent(new PostLikedEvent(userId, likedPost));
+            return true;
+        }
+        if (result == LikeInsertResult.DUPLICATE) {
+            return false;
+        }
+        verifyLikeAllowed(userId, postId);
+        return false;
+    }
+
+    @Override
+    public boolean followUser(Long followerId, Long followeeId) {
+        if (followerId.equals(followeeId)) {
+            throw new DomainError(DomainError.SELF_FOLLOW);
+        }
+        User follower = userRepository.findById(followerId)
+                                      .orElseThrow(domainError(DomainError.USER_NOT_FOUND));
+        if (follower.getAccountStatus() != AccountStatus.CONFIRMED) {
+            throw new DomainError(DomainError.USER_NOT_CONFIRMED);
+        }
+        User followee = userRepository.findById(followeeId)
+                                      .orElseThrow(domainError(DomainError.USER_NOT_FOUND));
+        if (followee.getAccountStatus() == AccountStatus.REMOVED) {
+            throw new DomainError(DomainError.USER_STATUS_REMOVED);
+        }
+        if (followRepository.existsByFollowerIdAndFolloweeId(followerId, followeeId)) {
+            return false;
+        }
+        Follow follow = new Follow();
+        follow.setFollower(follower);
+        follow.setFollowee(followee);
+        followRepository.save(follow);
+        userRepository.addToFollowersCount(followeeId, 1);
+        homeTimelines.followed(followerId, followeeId);
+        eventPublisher.publishEvent(new FollowChangedEvent(followerId, followeeId));
+        return true;
+    }
+
+    @Override
+    public boolean unfollowUser(Long followerId, Long followeeId) {
+        if (followRepository.deleteByFollowerIdAndFolloweeId(followerId, followeeId) == 0) {
+            return false;
+        }
+        userRepository.addToFollowersCount(followeeId, -1);
+        homeTimelines.unfollowed(followerId, followeeId);
+        eventPublisher.publishEvent(new FollowChangedEvent(followerId, followeeId));
+        return true;
+    }
+
+    /**
+     * Flushes every {@code hibernate.jdbc.batch_size} entities, so each flush sends one JDBC batch of inserts.
+     */
+    private <T> void saveInBatches(List<T> entities, JpaRepository<T, Long> repository) {
+        for (int from = 0; from < entities.size(); from += jdbcBatchSize) {
+            repository.saveAll(entities.subList(from, Math.min(from + jdbcBatchSize, entities.size())));
+            repository.flush();
+        }
+    }
+
+    private List<ItemResult> fillCreated(List<ItemResult> results, List<Long> createdIds) {
+        int created = 0;
+        for (int i = 0; i < results.size(); i++) {
+            if (results.get(i) == null) {
+                results.set(i, ItemResult.created(createdIds.get(created++)));
+            }
+        }
+        return results;
+    }
+
+    private void verifyLikeAllowed(Long userId, Long postId) {
         User user = userRepository.findById(userId)
                                   .orElseThrow(domainError(DomainError.USER_NOT_FOUND));
         BlogPost post = blogPostRepository.findById(postId)
@@ -65,16 +250,6 @@ public class BlogManager extends DomainService implements BlogService {
                 .equals(AccountStatus.CONFIRMED)) {
             throw new DomainError(DomainError.USER_NOT_CONFIRMED);
         }
-
-        Optional<LikePost> existingLikeForPost = likePostRepository.findByUserAndPost(user, post);
-        if (existingLikeForPost.isPresent()) {
-            return false;
-        }
-        LikePost likePost = new LikePost();
-        likePost.setUser(user);
-        likePost.setPost(post);
-        likePostRepository.save(likePost);
-        return true;
     }
 
 }
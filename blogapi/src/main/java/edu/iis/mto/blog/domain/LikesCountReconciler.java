@@ -0,0 +1,41 @@
+package edu.iis.mto.blog.domain;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import edu.iis.mto.blog.domain.events.LikesCountsReconciledEvent;
+import edu.iis.mto.blog.domain.repository.BlogPostRepository;
+
+/**
+ * Periodically aligns the denormalized {@code BlogPost.likesCount} with the {@code LikePost} table.
+ */
+@Component
+public class LikesCountReconciler {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(LikesCountReconciler.class);
+
+    private final BlogPostRepository blogPostRepository;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    public LikesCountReconciler(BlogPostRepository blogPostRepository, ApplicationEventPublisher eventPublisher) {
+        this.blogPostRepository = blogPostRepository;
+        this.eventPublisher = eventPublisher;
+    }
+
+    @Scheduled(initialDelayString = "${blog.likes.reconcile-interval-ms}", fixedDelayString = "${blog.likes.reconcile-interval-ms}")
+    @Transactional
+    public int reconcile() {
+        int repaired = blogPostRepository.reconcileLikesCounts();
+        if (repaired > 0) {
+            LOGGER.warn("likes counter repaired for {} posts", repaired);
+            eventPublisher.publishEvent(new LikesCountsReconciledEvent(repaired));
+        }
+        return repaired;
+    }
+
+}
@@ -0,0 +1,84 @@
+package edu.iis.mto.blog.domain.cache;
+
+import java.util.Map;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import edu.iis.mto.blog.domain.events.LikesCountsReconciledEvent;
+import edu.iis.mto.blog.domain.events.PostCreatedEvent;
+import edu.iis.mto.blog.domain.events.PostLikedEvent;
+import edu.iis.mto.blog.domain.events.UserChangedEvent;
+import edu.iis.mto.blog.domain.repository.BlogPostRepository;
+
+/**
+ * Evicts cached reads affected by committed writes of {@code BlogManager}.
+ */
+@Component
+public class BlogCacheInvalidator {
+
+    private final CacheManager cacheManager;
+
+    private final BlogPostRepository blogPostRepository;
+
+    public BlogCacheInvalidator(CacheManager cacheManager, BlogPostRepository blogPostRepository) {
+        this.cacheManager = cacheManager;
+        this.blogPostRepository = blogPostRepository;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        Long userId = event.getUser()
+                           .getId();
+        if (userId == null) {
+            return;
+        }
+        Cache users = cacheManager.getCache(BlogCaches.USERS);
+        if (users != null) {
+            users.evict(userId);
+        }
+        evictUserPosts(userId);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPostCreated(PostCreatedEvent event) {
+        evictUserPosts(event.getAuthorId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPostLiked(PostLikedEvent event) {
+        blogPostRepository.findAuthorIdById(event.getPostId())
+                          .ifPresent(this::evictUserPosts);
+    }
+
+    /**
+     * Repaired counters are bulk updates of unknown authors, all cached post pages are dropped.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onLikesCountsReconciled(LikesCountsReconciledEvent event) {
+        Cache userPosts = cacheManager.getCache(BlogCaches.USER_POSTS);
+        if (userPosts != null) {
+            userPosts.clear();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void evictUserPosts(Long userId) {
+        Cache userPosts = cacheManager.getCache(BlogCaches.USER_POSTS);
+        if (userPosts == null) {
+            return;
+        }
+        Object nativeCache = userPosts.getNativeCache();
+        if (nativeCache instanceof com.github.benmanes.caffeine.cache.Cache) {
+            Map<Object, Object> entries = ((com.github.benmanes.caffeine.cache.Cache<Object, Object>) nativeCache).asMap();
+            entries.keySet()
+                   .removeIf(key -> key instanceof UserPostsKey && ((UserPostsKey) key).getUserId()
+                                                                                     .equals(userId));
+        } else {
+            userPosts.clear();
+        }
+    }
+
+}
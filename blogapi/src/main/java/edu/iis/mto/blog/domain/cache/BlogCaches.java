@@ -0,0 +1,14 @@
+package edu.iis.mto.blog.domain.cache;
+
+/**
+ * Names of read caches; sizes and expiration are configured with {@code spring.cache.caffeine.spec}.
+ */
+public final class BlogCaches {
+
+    public static final String USERS = "users";
+
+    public static final String USER_POSTS = "userPosts";
+
+    private BlogCaches() {}
+
+}
@@ -0,0 +1,39 @@
+package edu.iis.mto.blog.domain.cache;
+
+import java.util.Objects;
+
+/**
+ * Key of a cached page of user posts.
+ */
+public class UserPostsKey {
+
+    private final Long userId;
+
+    private final Long afterId;
+
+    private final int limit;
+
+    public UserPostsKey(Long userId, Long afterId, int limit) {
+        this.userId = userId;
+        this.afterId = afterId;
+        this.limit = limit;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (obj instanceof UserPostsKey) {
+            UserPostsKey other = (UserPostsKey) obj;
+            return userId.equals(other.userId) && Objects.equals(afterId, other.afterId) && limit == other.limit;
+        }
+        return false;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(userId, afterId, limit);
+    }
+}
@@ -1,5 +1,10 @@
 package edu.iis.mto.blog.domain.errors;
 
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
 public class DomainError extends RuntimeException {
 
     private static final long serialVersionUID = 1L;
@@ -7,11 +12,30 @@ public class DomainError extends RuntimeException {
     public static final String USER_NOT_FOUND = "unknown user";
     public static final String POST_NOT_FOUND = "unknown post";
     public static final String SELF_LIKE = "cannot like own post";
+    public static final String SELF_FOLLOW = "cannot follow yourself";
     public static final String USER_NOT_CONFIRMED = "user status has to be confirmed in order to like post";
     public static final String USER_STATUS_REMOVED = "User has been removed";
+    public static final String EMAIL_REQUIRED = "email is required";
+    public static final String EMAIL_TAKEN = "email is already used";
+    public static final String ENTRY_REQUIRED = "entry is required";
+    public static final String ENTRY_OFFSET_OUT_OF_RANGE = "entry offset out of range";
+
+    public static final String OTHER = "other";
+
+    private static final Set<String> CODES = Collections.unmodifiableSet(new HashSet<>(Arrays.asList(USER_NOT_FOUND, POST_NOT_FOUND,
+            SELF_LIKE, SELF_FOLLOW, USER_NOT_CONFIRMED, USER_STATUS_REMOVED, EMAIL_REQUIRED, EMAIL_TAKEN, ENTRY_REQUIRED,
+            ENTRY_OFFSET_OUT_OF_RANGE)));
 
     public DomainError(String msg) {
         super(msg);
     }
 
+    /**
+     * Message of the error when it is one of the constants above, {@link #OTHER} otherwise; a fixed set of values to tag
+     * metrics with.
+     */
+    public String getCode() {
+        return CODES.contains(getMessage()) ? getMessage() : OTHER;
+    }
+
 }
@@ -0,0 +1,13 @@
+package edu.iis.mto.blog.domain.errors;
+
+public class LikesBacklogFullError extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public static final String LIKES_BACKLOG_FULL = "too many pending likes, retry later";
+
+    public LikesBacklogFullError() {
+        super(LIKES_BACKLOG_FULL);
+    }
+
+}
@@ -0,0 +1,25 @@
+package edu.iis.mto.blog.domain.events;
+
+/**
+ * Published by {@code BlogManager} after a user started or stopped following another user.
+ */
+public class FollowChangedEvent {
+
+    private final Long followerId;
+
+    private final Long followeeId;
+
+    public FollowChangedEvent(Long followerId, Long followeeId) {
+        this.followerId = followerId;
+        this.followeeId = followeeId;
+    }
+
+    public Long getFollowerId() {
+        return followerId;
+    }
+
+    public Long getFolloweeId() {
+        return followeeId;
+    }
+
+}
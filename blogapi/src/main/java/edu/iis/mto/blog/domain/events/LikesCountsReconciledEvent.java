@@ -0,0 +1,18 @@
+package edu.iis.mto.blog.domain.events;
+
+/**
+ * Published by {@code LikesCountReconciler} after likes counters of some posts have been repaired.
+ */
+public class LikesCountsReconciledEvent {
+
+    private final int repaired;
+
+    public LikesCountsReconciledEvent(int repaired) {
+        this.repaired = repaired;
+    }
+
+    public int getRepaired() {
+        return repaired;
+    }
+
+}
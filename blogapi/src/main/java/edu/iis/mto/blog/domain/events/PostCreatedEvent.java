@@ -0,0 +1,25 @@
+package edu.iis.mto.blog.domain.events;
+
+/**
+ * Published by {@code BlogManager} after a post has been created.
+ */
+public class PostCreatedEvent {
+
+    private final Long authorId;
+
+    private final Long postId;
+
+    public PostCreatedEvent(Long authorId, Long postId) {
+        this.authorId = authorId;
+        this.postId = postId;
+    }
+
+    public Long getAuthorId() {
+        return authorId;
+    }
+
+    public Long getPostId() {
+        return postId;
+    }
+
+}
@@ -0,0 +1,37 @@
+package edu.iis.mto.blog.domain.events;
+
+import edu.iis.mto.blog.domain.model.RankedPost;
+
+/**
+ * Published by {@code BlogManager} after a new like has been stored.
+ */
+public class PostLikedEvent {
+
+    private final Long userId;
+
+    private final Long postId;
+
+    private final RankedPost likedPost;
+
+    public PostLikedEvent(Long userId, RankedPost likedPost) {
+        this.userId = userId;
+        this.postId = likedPost.getPostId();
+        this.likedPost = likedPost;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public Long getPostId() {
+        return postId;
+    }
+
+    /**
+     * Author and likes counter of the post, read in the transaction which counted the like.
+     */
+    public RankedPost getLikedPost() {
+        return likedPost;
+    }
+
+}
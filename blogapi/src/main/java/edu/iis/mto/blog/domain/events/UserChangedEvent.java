@@ -0,0 +1,20 @@
+package edu.iis.mto.blog.domain.events;
+
+import edu.iis.mto.blog.domain.model.User;
+
+/**
+ * Published by {@code BlogManager} whenever a user is created or its data or status changes.
+ */
+public class UserChangedEvent {
+
+    private final User user;
+
+    public UserChangedEvent(User user) {
+        this.user = user;
+    }
+
+    public User getUser() {
+        return user;
+    }
+
+}
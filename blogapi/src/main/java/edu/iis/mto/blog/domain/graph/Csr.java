@@ -0,0 +1,107 @@
+package edu.iis.mto.blog.domain.graph;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+import edu.iis.mto.blog.domain.snapshot.SnapshotInput;
+import edu.iis.mto.blog.domain.snapshot.SnapshotOutput;
+
+/**
+ * Adjacency in compressed sparse row layout: targets of node {@code n} are {@code targets[offsets[n]..offsets[n + 1])}, sorted.
+ * Two int arrays for the whole graph, no object per node or edge.
+ */
+final class Csr {
+
+    static final Csr EMPTY = build(new long[0]);
+
+    private final int[] offsets;
+
+    private final int[] targets;
+
+    private Csr(int[] offsets, int[] targets) {
+        this.offsets = offsets;
+        this.targets = targets;
+    }
+
+    /**
+     * @param edges packed edges, sorted and unique, see {@link EdgeList#sortedUnique()}
+     */
+    static Csr build(long[] edges) {
+        int nodes = edges.length == 0 ? 0 : EdgeList.from(edges[edges.length - 1]) + 1;
+        int[] offsets = new int[nodes + 1];
+        int[] targets = new int[edges.length];
+        for (int i = 0; i < edges.length; i++) {
+            offsets[EdgeList.from(edges[i]) + 1]++;
+            targets[i] = EdgeList.to(edges[i]);
+        }
+        for (int node = 0; node < nodes; node++) {
+            offsets[node + 1] += offsets[node];
+        }
+        return new Csr(offsets, targets);
+    }
+
+    static Csr readFrom(SnapshotInput in) throws IOException {
+        return new Csr(in.getInts(), in.getInts());
+    }
+
+    void writeTo(SnapshotOutput out) throws IOException {
+        out.putInts(offsets, offsets.length);
+        out.putInts(targets, targets.length);
+    }
+
+    int edgeCount() {
+        return targets.length;
+    }
+
+    int start(int node) {
+        return node >= 0 && node < offsets.length - 1 ? offsets[node] : 0;
+    }
+
+    int end(int node) {
+        return node >= 0 && node < offsets.length - 1 ? offsets[node + 1] : 0;
+    }
+
+    int target(int index) {
+        return targets[index];
+    }
+
+    boolean contains(int node, int target) {
+        return node >= 0 && node < offsets.length - 1
+                && Arrays.binarySearch(targets, offsets[node], offsets[node + 1], target) >= 0;
+    }
+
+    /**
+     * Same edges with source and target swapped, counted into place without sorting; sources are visited in order, so the
+     * targets of each node come out sorted.
+     */
+    Csr transposed() {
+        int nodes = 0;
+        for (int target : targets) {
+            nodes = Math.max(nodes, target + 1);
+        }
+        int[] transposedOffsets = new int[nodes + 1];
+        for (int target : targets) {
+            transposedOffsets[target + 1]++;
+        }
+        for (int node = 0; node < nodes; node++) {
+            transposedOffsets[node + 1] += transposedOffsets[node];
+        }
+        int[] next = Arrays.copyOf(transposedOffsets, nodes);
+        int[] transposedTargets = new int[targets.length];
+        for (int node = 0; node < offsets.length - 1; node++) {
+            for (int i = offsets[node]; i < offsets[node + 1]; i++) {
+                transposedTargets[next[targets[i]]++] = node;
+            }
+        }
+        return new Csr(transposedOffsets, transposedTargets);
+    }
+
+    void copyTo(EdgeList edges) {
+        for (int node = 0; node < offsets.length - 1; node++) {
+            for (int i = offsets[node]; i < offsets[node + 1]; i++) {
+                edges.add(node, targets[i]);
+            }
+        }
+    }
+
+}
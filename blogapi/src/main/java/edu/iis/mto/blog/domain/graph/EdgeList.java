@@ -0,0 +1,82 @@
+package edu.iis.mto.blog.domain.graph;
+
+import java.util.Arrays;
+
+/**
+ * Growable list of edges, each packed into one {@code long}: source in the high and target in the low 32 bits, so sorting the
+ * packed values orders edges by source, then target. Appended by a single writer at a time, read without locking: the size is
+ * published after the edge, readers see {@link #size()} edges.
+ */
+final class EdgeList {
+
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private volatile long[] edges;
+
+    private volatile int size;
+
+    EdgeList() {
+        this(INITIAL_CAPACITY);
+    }
+
+    EdgeList(int capacity) {
+        edges = new long[Math.max(1, capacity)];
+    }
+
+    static long pack(int from, int to) {
+        return (long) from << Integer.SIZE | to & 0xFFFFFFFFL;
+    }
+
+    static int from(long edge) {
+        return (int) (edge >>> Integer.SIZE);
+    }
+
+    static int to(long edge) {
+        return (int) edge;
+    }
+
+    void add(int from, int to) {
+        int count = size;
+        if (count == edges.length) {
+            edges = Arrays.copyOf(edges, count * 2);
+        }
+        edges[count] = pack(from, to);
+        size = count + 1;
+    }
+
+    void addAll(EdgeList other) {
+        int count = other.size;
+        long[] otherEdges = other.edges;
+        for (int i = 0; i < count; i++) {
+            add(from(otherEdges[i]), to(otherEdges[i]));
+        }
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Backing array, valid up to a size read before it.
+     */
+    long[] edges() {
+        return edges;
+    }
+
+    /**
+     * Edges sorted by source and target, each once.
+     */
+    long[] sortedUnique() {
+        int count = size;
+        long[] sorted = Arrays.copyOf(edges, count);
+        Arrays.sort(sorted);
+        int unique = 0;
+        for (int i = 0; i < count; i++) {
+            if (unique == 0 || sorted[i] != sorted[unique - 1]) {
+                sorted[unique++] = sorted[i];
+            }
+        }
+        return Arrays.copyOf(sorted, unique);
+    }
+
+}
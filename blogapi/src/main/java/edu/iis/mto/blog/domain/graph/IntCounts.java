@@ -0,0 +1,89 @@
+package edu.iis.mto.blog.domain.graph;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Counters of int keys in open addressing arrays, for tallies over many edges without boxing.
+ */
+final class IntCounts {
+
+    private static final int EMPTY = -1;
+
+    private int[] keys;
+
+    private int[] counts;
+
+    private int size;
+
+    IntCounts() {
+        keys = new int[64];
+        counts = new int[64];
+        Arrays.fill(keys, EMPTY);
+    }
+
+    void increment(int key) {
+        int mask = keys.length - 1;
+        int slot = mix(key) & mask;
+        while (keys[slot] != EMPTY && keys[slot] != key) {
+            slot = slot + 1 & mask;
+        }
+        if (keys[slot] == EMPTY) {
+            keys[slot] = key;
+            size++;
+        }
+        counts[slot]++;
+        if (size * 2 > keys.length) {
+            grow();
+        }
+    }
+
+    /**
+     * Keys with the highest counts, ties broken by the lower key; pairs of key and count.
+     */
+    List<int[]> top(int limit) {
+        // lowest ranked pair first, so it is the one dropped
+        PriorityQueue<int[]> top = new PriorityQueue<>(
+                (a, b) -> a[1] != b[1] ? Integer.compare(a[1], b[1]) : Integer.compare(b[0], a[0]));
+        for (int slot = 0; slot < keys.length; slot++) {
+            if (keys[slot] != EMPTY) {
+                top.add(new int[] {keys[slot], counts[slot]});
+                if (top.size() > limit) {
+                    top.poll();
+                }
+            }
+        }
+        List<int[]> sorted = new ArrayList<>(top.size());
+        while (!top.isEmpty()) {
+            sorted.add(0, top.poll());
+        }
+        return sorted;
+    }
+
+    private void grow() {
+        int[] oldKeys = keys;
+        int[] oldCounts = counts;
+        keys = new int[oldKeys.length * 2];
+        counts = new int[oldKeys.length * 2];
+        Arrays.fill(keys, EMPTY);
+        int mask = keys.length - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != EMPTY) {
+                int slot = mix(oldKeys[i]) & mask;
+                while (keys[slot] != EMPTY) {
+                    slot = slot + 1 & mask;
+                }
+                keys[slot] = oldKeys[i];
+                counts[slot] = oldCounts[i];
+            }
+        }
+    }
+
+    private static int mix(int key) {
+        int h = key * 0x9E3779B9;
+        return h ^ h >>> 16;
+    }
+
+}
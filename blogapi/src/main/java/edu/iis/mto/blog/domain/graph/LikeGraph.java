@@ -0,0 +1,414 @@
+package edu.iis.mto.blog.domain.graph;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import edu.iis.mto.blog.domain.events.PostCreatedEvent;
+import edu.iis.mto.blog.domain.events.PostLikedEvent;
+import edu.iis.mto.blog.domain.likes.PendingLike;
+import edu.iis.mto.blog.domain.repository.BlogPostRepository;
+import edu.iis.mto.blog.domain.repository.LikePostRepository;
+import edu.iis.mto.blog.domain.repository.PostAuthor;
+import edu.iis.mto.blog.domain.snapshot.ReadModelSnapshots;
+import edu.iis.mto.blog.domain.snapshot.SnapshotInput;
+import edu.iis.mto.blog.domain.snapshot.SnapshotOutput;
+import edu.iis.mto.blog.dto.RelatedUser;
+
+/**
+ * In-memory graph of likes (user to post, post to user) and authorship (author to post) for analytics queries, held in
+ * {@link Csr} int arrays indexed by entity id; ids come from sequences and fit in an int. Built from the database, or restored
+ * from a snapshot by {@link ReadModelSnapshots}, on startup.
+ * Likes and posts stored afterwards are appended to edge lists scanned by every query. When they reach
+ * {@code blog.likes.graph.compaction-threshold} they are merged into new arrays by a background thread, while later ones are
+ * appended to fresh lists. Queries read an immutable snapshot and do not lock.
+ */
+@Component
+public class LikeGraph {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(LikeGraph.class);
+
+    private static final EdgeList NO_EDGES = new EdgeList(1);
+
+    /**
+     * Ids are never negative, no user is excluded.
+     */
+    private static final int NO_USER = -1;
+
+    private final LikePostRepository likePostRepository;
+
+    private final BlogPostRepository blogPostRepository;
+
+    private final int compactionThreshold;
+
+    private final Executor compactor;
+
+    private final Object writeLock = new Object();
+
+    private volatile Snapshot snapshot = new Snapshot(Csr.EMPTY, Csr.EMPTY, Csr.EMPTY, NO_EDGES, NO_EDGES);
+
+    /**
+     * Guarded by {@link #writeLock}.
+     */
+    private boolean compacting;
+
+    @Autowired
+    public LikeGraph(LikePostRepository likePostRepository, BlogPostRepository blogPostRepository,
+            @Value("${blog.likes.graph.compaction-threshold}") int compactionThreshold) {
+        // the thread ends when idle, no shutdown needed
+        this(likePostRepository, blogPostRepository, compactionThreshold,
+                new ThreadPoolExecutor(0, 1, 1, TimeUnit.MINUTES, new LinkedBlockingQueue<>(), task -> {
+                    Thread thread = new Thread(task, "like-graph-compaction");
+                    thread.setDaemon(true);
+                    return thread;
+                }));
+    }
+
+    LikeGraph(LikePostRepository likePostRepository, BlogPostRepository blogPostRepository, int compactionThreshold,
+            Executor compactor) {
+        this.likePostRepository = likePostRepository;
+        this.blogPostRepository = blogPostRepository;
+        this.compactionThreshold = compactionThreshold;
+        this.compactor = compactor;
+    }
+
+    @Transactional(readOnly = true)
+    public void build() {
+        long started = System.nanoTime();
+        EdgeList likes = new EdgeList();
+        addLikes(likes, likePostRepository.streamAllLikes());
+        EdgeList posts = new EdgeList();
+        addPosts(posts, blogPostRepository.streamPostAuthors());
+        Snapshot built = publish(likes, posts);
+        LOGGER.info("like graph built with {} likes and {} posts in {} ms", built.likesByUser.edgeCount(),
+                built.postsByAuthor.edgeCount(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+    }
+
+    /**
+     * Restores the arrays written by {@link #writeTo} as they are, and appends likes and posts stored with ids above the given
+     * ones which are not in them yet.
+     */
+    @Transactional(readOnly = true)
+    public void restore(SnapshotInput in, long likesAfterId, long postsAfterId) throws IOException {
+        long started = System.nanoTime();
+        Csr likesByUser = Csr.readFrom(in);
+        Csr postsByAuthor = Csr.readFrom(in);
+        Csr likesByPost = likesByUser.transposed();
+        EdgeList likes = new EdgeList();
+        addLikes(likes, likePostRepository.streamLikesAfter(likesAfterId));
+        EdgeList posts = new EdgeList();
+        addPosts(posts, blogPostRepository.streamPostAuthorsAfter(postsAfterId));
+        synchronized (writeLock) {
+            // likes and posts stored meanwhile are appended to the current snapshot, possibly read as well
+            Snapshot current = snapshot;
+            snapshot = new Snapshot(likesByUser, likesByPost, postsByAuthor, current.mergingLikes, current.mergingPosts,
+                    current.newLikes, current.newPosts);
+            appendMissing(likes, posts);
+        }
+        LOGGER.info("like graph restored with {} likes and {} posts, {} likes and {} posts replayed, in {} ms",
+                likesByUser.edgeCount(), postsByAuthor.edgeCount(), likes.size(), posts.size(),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+    }
+
+    /**
+     * Appends likes and posts stored with ids above the given ones which are not in the graph yet, such as those stored through
+     * other nodes.
+     */
+    @Transactional(readOnly = true)
+    public void catchUp(long likesAfterId, long postsAfterId) {
+        EdgeList likes = new EdgeList();
+        addLikes(likes, likePostRepository.streamLikesAfter(likesAfterId));
+        EdgeList posts = new EdgeList();
+        addPosts(posts, blogPostRepository.streamPostAuthorsAfter(postsAfterId));
+        synchronized (writeLock) {
+            appendMissing(likes, posts);
+        }
+    }
+
+    public void writeTo(SnapshotOutput out) throws IOException {
+        Snapshot current = snapshot;
+        Snapshot merged = current.mergingLikes.size() + current.mergingPosts.size() + current.newLikes.size()
+                + current.newPosts.size() == 0 ? current : compact(current, new EdgeList(), new EdgeList());
+        merged.likesByUser.writeTo(out);
+        merged.postsByAuthor.writeTo(out);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPostLiked(PostLikedEvent event) {
+        synchronized (writeLock) {
+            snapshot.newLikes.add(index(event.getUserId()), index(event.getPostId()));
+            compactIfNeeded();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPostCreated(PostCreatedEvent event) {
+        synchronized (writeLock) {
+            snapshot.newPosts.add(index(event.getAuthorId()), index(event.getPostId()));
+            compactIfNeeded();
+        }
+    }
+
+    /**
+     * Users who liked posts of the author, most likes first; none for an id the graph cannot hold.
+     */
+    public List<RelatedUser> likersOfPostsBy(Long authorId, int limit) {
+        if (!indexable(authorId)) {
+            return Collections.emptyList();
+        }
+        Snapshot current = snapshot;
+        int[] posts = current.targets(current.postsByAuthor, current.mergingPosts, current.newPosts, index(authorId));
+        IntCounts likers = new IntCounts();
+        for (int post : posts) {
+            for (int i = current.likesByPost.start(post); i < current.likesByPost.end(post); i++) {
+                likers.increment(current.likesByPost.target(i));
+            }
+        }
+        countLikers(current.mergingLikes, posts, NO_USER, likers);
+        countLikers(current.newLikes, posts, NO_USER, likers);
+        return related(likers, limit);
+    }
+
+    /**
+     * Other users who liked the same posts as the user, most common likes first; none for an id the graph cannot hold.
+     */
+    public List<RelatedUser> usersWithCommonLikes(Long userId, int limit) {
+        if (!indexable(userId)) {
+            return Collections.emptyList();
+        }
+        Snapshot current = snapshot;
+        int user = index(userId);
+        int[] liked = current.targets(current.likesByUser, current.mergingLikes, current.newLikes, user);
+        IntCounts others = new IntCounts();
+        for (int post : liked) {
+            for (int i = current.likesByPost.start(post); i < current.likesByPost.end(post); i++) {
+                int liker = current.likesByPost.target(i);
+                if (liker != user) {
+                    others.increment(liker);
+                }
+            }
+        }
+        countLikers(current.mergingLikes, liked, user, others);
+        countLikers(current.newLikes, liked, user, others);
+        return related(others, limit);
+    }
+
+    /**
+     * Counts appended likes of the sorted posts by users other than the excluded one.
+     */
+    private static void countLikers(EdgeList likes, int[] posts, int excludedUser, IntCounts likers) {
+        int count = likes.size();
+        long[] edges = likes.edges();
+        for (int i = 0; i < count; i++) {
+            int liker = EdgeList.from(edges[i]);
+            if (liker != excludedUser && Arrays.binarySearch(posts, EdgeList.to(edges[i])) >= 0) {
+                likers.increment(liker);
+            }
+        }
+    }
+
+    private static void addLikes(EdgeList likes, Stream<PendingLike> stored) {
+        try (Stream<PendingLike> read = stored) {
+            read.forEach(like -> likes.add(index(like.getUserId()), index(like.getPostId())));
+        }
+    }
+
+    private static void addPosts(EdgeList posts, Stream<PostAuthor> stored) {
+        try (Stream<PostAuthor> read = stored) {
+            read.forEach(post -> posts.add(index(post.getAuthorId()), index(post.getId())));
+        }
+    }
+
+    /**
+     * Called holding {@link #writeLock}. Appends the edges neither in the arrays nor appended already.
+     */
+    private void appendMissing(EdgeList likes, EdgeList posts) {
+        Snapshot current = snapshot;
+        appendMissing(likes, current.likesByUser, current.mergingLikes, current.newLikes);
+        appendMissing(posts, current.postsByAuthor, current.mergingPosts, current.newPosts);
+        compactIfNeeded();
+    }
+
+    private static void appendMissing(EdgeList edges, Csr csr, EdgeList merging, EdgeList appended) {
+        Set<Long> known = new HashSet<>();
+        for (EdgeList list : Arrays.asList(merging, appended)) {
+            int count = list.size();
+            long[] packed = list.edges();
+            for (int i = 0; i < count; i++) {
+                known.add(packed[i]);
+            }
+        }
+        int count = edges.size();
+        long[] packed = edges.edges();
+        for (int i = 0; i < count; i++) {
+            int from = EdgeList.from(packed[i]);
+            int to = EdgeList.to(packed[i]);
+            if (!csr.contains(from, to) && known.add(packed[i])) {
+                appended.add(from, to);
+            }
+        }
+    }
+
+    private Snapshot publish(EdgeList likes, EdgeList posts) {
+        synchronized (writeLock) {
+            // likes and posts stored while reading are in the current snapshot, possibly read as well
+            Snapshot published = compact(snapshot, likes, posts);
+            snapshot = published;
+            return published;
+        }
+    }
+
+    /**
+     * Called holding {@link #writeLock}. The appended edges become the merging ones of a new snapshot, so queries keep seeing
+     * them until the compacted arrays are published, and later edges go to fresh lists.
+     */
+    private void compactIfNeeded() {
+        Snapshot current = snapshot;
+        if (compacting || current.newLikes.size() + current.newPosts.size() < compactionThreshold) {
+            return;
+        }
+        Snapshot merging = new Snapshot(current.likesByUser, current.likesByPost, current.postsByAuthor,
+                concat(current.mergingLikes, current.newLikes), concat(current.mergingPosts, current.newPosts));
+        snapshot = merging;
+        compacting = true;
+        compactor.execute(() -> finishCompaction(merging));
+    }
+
+    private void finishCompaction(Snapshot merging) {
+        Snapshot compacted = null;
+        try {
+            compacted = compact(merging, new EdgeList(), new EdgeList());
+        } catch (RuntimeException e) {
+            LOGGER.error("like graph compaction failed, appended edges are kept", e);
+        }
+        synchronized (writeLock) {
+            compacting = false;
+            Snapshot current = snapshot;
+            // a build or restore published meanwhile has merged these edges already
+            if (compacted != null && current.likesByUser == merging.likesByUser
+                    && current.postsByAuthor == merging.postsByAuthor) {
+                snapshot = new Snapshot(compacted.likesByUser, compacted.likesByPost, compacted.postsByAuthor, NO_EDGES, NO_EDGES,
+                        current.newLikes, current.newPosts);
+            }
+            compactIfNeeded();
+        }
+    }
+
+    private static Snapshot compact(Snapshot current, EdgeList likes, EdgeList posts) {
+        current.likesByUser.copyTo(likes);
+        likes.addAll(current.mergingLikes);
+        likes.addAll(current.newLikes);
+        current.postsByAuthor.copyTo(posts);
+        posts.addAll(current.mergingPosts);
+        posts.addAll(current.newPosts);
+        Csr likesByUser = Csr.build(likes.sortedUnique());
+        return new Snapshot(likesByUser, likesByUser.transposed(), Csr.build(posts.sortedUnique()), NO_EDGES, NO_EDGES);
+    }
+
+    private static EdgeList concat(EdgeList first, EdgeList second) {
+        if (first.size() == 0) {
+            return second;
+        }
+        EdgeList both = new EdgeList(first.size() + second.size());
+        both.addAll(first);
+        both.addAll(second);
+        return both;
+    }
+
+    private static List<RelatedUser> related(IntCounts counts, int limit) {
+        return counts.top(limit)
+                     .stream()
+                     .map(count -> new RelatedUser((long) count[0], count[1]))
+                     .collect(Collectors.toList());
+    }
+
+    private static boolean indexable(Long id) {
+        return id >= 0 && id <= Integer.MAX_VALUE;
+    }
+
+    private static int index(Long id) {
+        return Math.toIntExact(id);
+    }
+
+    /**
+     * Arrays built at the last compaction, edges being merged into new arrays and edges appended since.
+     */
+    private static final class Snapshot {
+
+        private final Csr likesByUser;
+
+        private final Csr likesByPost;
+
+        private final Csr postsByAuthor;
+
+        private final EdgeList mergingLikes;
+
+        private final EdgeList mergingPosts;
+
+        private final EdgeList newLikes;
+
+        private final EdgeList newPosts;
+
+        Snapshot(Csr likesByUser, Csr likesByPost, Csr postsByAuthor, EdgeList mergingLikes, EdgeList mergingPosts) {
+            this(likesByUser, likesByPost, postsByAuthor, mergingLikes, mergingPosts, new EdgeList(), new EdgeList());
+        }
+
+        Snapshot(Csr likesByUser, Csr likesByPost, Csr postsByAuthor, EdgeList mergingLikes, EdgeList mergingPosts,
+                EdgeList newLikes, EdgeList newPosts) {
+            this.likesByUser = likesByUser;
+            this.likesByPost = likesByPost;
+            this.postsByAuthor = postsByAuthor;
+            this.mergingLikes = mergingLikes;
+            this.mergingPosts = mergingPosts;
+            this.newLikes = newLikes;
+            this.newPosts = newPosts;
+        }
+
+        /**
+         * Sorted targets of the node in the arrays and among the merging and appended edges.
+         */
+        int[] targets(Csr csr, EdgeList merging, EdgeList appended, int node) {
+            int start = csr.start(node);
+            int end = csr.end(node);
+            int[] targets = new int[end - start];
+            int size = 0;
+            for (int i = start; i < end; i++) {
+                targets[size++] = csr.target(i);
+            }
+            for (EdgeList list : Arrays.asList(merging, appended)) {
+                int count = list.size();
+                long[] edges = list.edges();
+                for (int i = 0; i < count; i++) {
+                    if (EdgeList.from(edges[i]) == node) {
+                        if (size == targets.length) {
+                            targets = Arrays.copyOf(targets, size * 2 + 1);
+                        }
+                        targets[size++] = EdgeList.to(edges[i]);
+                    }
+                }
+            }
+            int[] sorted = Arrays.copyOf(targets, size);
+            Arrays.sort(sorted);
+            return sorted;
+        }
+
+    }
+
+}
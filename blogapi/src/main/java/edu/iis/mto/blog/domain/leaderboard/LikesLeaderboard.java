@@ -0,0 +1,216 @@
+package edu.iis.mto.blog.domain.leaderboard;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+import javax.annotation.PreDestroy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+
+import edu.iis.mto.blog.domain.events.LikesCountsReconciledEvent;
+import edu.iis.mto.blog.domain.events.PostLikedEvent;
+import edu.iis.mto.blog.domain.model.RankedPost;
+import edu.iis.mto.blog.domain.repository.BlogPostRepository;
+import edu.iis.mto.blog.domain.repository.RankedPostRepository;
+
+/**
+ * Most liked posts, overall ({@code blog.leaderboard.size} posts) and per author ({@code blog.leaderboard.author-size} posts),
+ * updated by each stored like with the likes counter of the liked post. The overall ranking is kept in memory, rankings of the
+ * {@code blog.leaderboard.cached-authors} most recently liked or read authors are cached and the others are loaded from the
+ * stored leaderboard on demand. Rankings changed since last stored are kept in memory until they are stored, every
+ * {@code blog.leaderboard.persist-interval-ms} and on shutdown. On startup the most liked stored posts are ranked again by
+ * their current counters, only the first start counts likes of all posts. Posts which would have entered the leaderboard after
+ * it was last stored enter with their next like.
+ */
+@Component
+public class LikesLeaderboard {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(LikesLeaderboard.class);
+
+    /**
+     * Ids per statement of the leaderboard queries, far below the bind parameter limits of the databases.
+     */
+    private static final int IN_LIST_SIZE = 1000;
+
+    private final RankedPostRepository rankedPostRepository;
+
+    private final BlogPostRepository blogPostRepository;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final int size;
+
+    private final int authorSize;
+
+    private final TopLikedPosts overall;
+
+    private final LoadingCache<Long, TopLikedPosts> perAuthor;
+
+    private final Map<Long, TopLikedPosts> changedAuthors = new ConcurrentHashMap<>();
+
+    public LikesLeaderboard(RankedPostRepository rankedPostRepository, BlogPostRepository blogPostRepository,
+            PlatformTransactionManager transactionManager, @Value("${blog.leaderboard.size}") int size,
+            @Value("${blog.leaderboard.author-size}") int authorSize,
+            @Value("${blog.leaderboard.cached-authors}") int cachedAuthors) {
+        this.rankedPostRepository = rankedPostRepository;
+        this.blogPostRepository = blogPostRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.size = size;
+        this.authorSize = authorSize;
+        this.overall = new TopLikedPosts(size);
+        this.perAuthor = Caffeine.newBuilder()
+                                 .maximumSize(cachedAuthors)
+                                 .build(this::loadAuthor);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void load() {
+        List<Long> storedIds = rankedPostRepository.findMostLikedPostIds(PageRequest.of(0, size));
+        if (storedIds.isEmpty()) {
+            Map<Long, TopLikedPosts> authors = new HashMap<>();
+            try (Stream<RankedPost> posts = blogPostRepository.streamRanksOfLikedPosts()) {
+                posts.forEach(post -> {
+                    overall.offer(post);
+                    authors.computeIfAbsent(post.getAuthorId(), authorId -> new TopLikedPosts(authorSize))
+                           .offer(post);
+                });
+            }
+            changedAuthors.putAll(authors);
+        } else {
+            findRanks(storedIds).forEach(overall::set);
+        }
+        LOGGER.info("likes leaderboard loaded with {} posts", overall.top(size)
+                                                                    .size());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPostLiked(PostLikedEvent event) {
+        offer(event.getLikedPost());
+    }
+
+    /**
+     * Counters may have been lowered, cached rankings are ranked again by the current counters.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onLikesCountsReconciled(LikesCountsReconciledEvent event) {
+        List<RankedPost> ranked = new ArrayList<>();
+        overall.copyTo(ranked);
+        for (RankedPost post : findRanks(ids(ranked))) {
+            if (overall.set(post)) {
+                changed(post.getAuthorId()).markChanged();
+            }
+        }
+        perAuthor.invalidateAll();
+        changedAuthors.forEach((authorId, ofAuthor) -> {
+            List<RankedPost> ofAuthorRanked = new ArrayList<>();
+            ofAuthor.copyTo(ofAuthorRanked);
+            findRanks(ids(ofAuthorRanked)).forEach(ofAuthor::set);
+        });
+    }
+
+    /**
+     * Most liked posts of the author, or of all authors when {@code authorId} is {@code null}.
+     */
+    public List<RankedPost> top(Long authorId, int limit) {
+        if (authorId == null) {
+            return overall.top(Math.min(limit, size));
+        }
+        return ofAuthor(authorId).top(Math.min(limit, authorSize));
+    }
+
+    /**
+     * Replaces the stored posts of the changed authors; a ranking changed again while stored is stored again next time.
+     */
+    @Scheduled(initialDelayString = "${blog.leaderboard.persist-interval-ms}",
+            fixedDelayString = "${blog.leaderboard.persist-interval-ms}")
+    @PreDestroy
+    public synchronized void persist() {
+        if (changedAuthors.isEmpty()) {
+            return;
+        }
+        Map<Long, TopLikedPosts> stored = new HashMap<>(changedAuthors);
+        Map<Long, Long> versions = new HashMap<>();
+        Map<Long, RankedPost> posts = new LinkedHashMap<>();
+        List<RankedPost> ranked = new ArrayList<>();
+        overall.copyTo(ranked);
+        stored.forEach((authorId, ofAuthor) -> versions.put(authorId, ofAuthor.copyTo(ranked)));
+        ranked.stream()
+              .filter(post -> stored.containsKey(post.getAuthorId()))
+              .forEach(post -> posts.putIfAbsent(post.getPostId(), post));
+        List<Long> authorIds = new ArrayList<>(stored.keySet());
+        transactionTemplate.execute(status -> {
+            for (int from = 0; from < authorIds.size(); from += IN_LIST_SIZE) {
+                rankedPostRepository.deleteByAuthorIds(authorIds.subList(from, Math.min(from + IN_LIST_SIZE, authorIds.size())));
+            }
+            return rankedPostRepository.saveAll(posts.values());
+        });
+        stored.forEach((authorId, ofAuthor) -> changedAuthors.computeIfPresent(authorId,
+                (id, current) -> current == ofAuthor && current.version() == versions.get(id) ? null : current));
+        LOGGER.debug("likes leaderboard stored with {} posts of {} authors", posts.size(), stored.size());
+    }
+
+    private void offer(RankedPost post) {
+        boolean changedOverall = overall.offer(post);
+        TopLikedPosts ofAuthor = ofAuthor(post.getAuthorId());
+        if (ofAuthor.offer(post) || changedOverall) {
+            if (changedOverall) {
+                ofAuthor.markChanged();
+            }
+            changedAuthors.put(post.getAuthorId(), ofAuthor);
+        }
+    }
+
+    private TopLikedPosts changed(Long authorId) {
+        return changedAuthors.computeIfAbsent(authorId, this::ofAuthor);
+    }
+
+    /**
+     * A changed ranking is used until stored, also when it has been evicted from the cache meanwhile.
+     */
+    private TopLikedPosts ofAuthor(Long authorId) {
+        TopLikedPosts unstored = changedAuthors.get(authorId);
+        return unstored != null ? unstored : perAuthor.get(authorId);
+    }
+
+    private TopLikedPosts loadAuthor(Long authorId) {
+        TopLikedPosts ofAuthor = new TopLikedPosts(authorSize);
+        findRanks(rankedPostRepository.findPostIdsByAuthorId(authorId)).forEach(ofAuthor::set);
+        return ofAuthor;
+    }
+
+    private List<RankedPost> findRanks(List<Long> postIds) {
+        List<RankedPost> ranks = new ArrayList<>(postIds.size());
+        for (int from = 0; from < postIds.size(); from += IN_LIST_SIZE) {
+            ranks.addAll(blogPostRepository.findRanksByIds(postIds.subList(from, Math.min(from + IN_LIST_SIZE, postIds.size()))));
+        }
+        return ranks;
+    }
+
+    private static List<Long> ids(Collection<RankedPost> posts) {
+        List<Long> ids = new ArrayList<>(posts.size());
+        posts.forEach(post -> ids.add(post.getPostId()));
+        return ids;
+    }
+
+}
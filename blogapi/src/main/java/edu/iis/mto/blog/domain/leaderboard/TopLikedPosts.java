@@ -0,0 +1,111 @@
+package edu.iis.mto.blog.domain.leaderboard;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+import edu.iis.mto.blog.domain.model.RankedPost;
+
+/**
+ * At most {@code capacity} posts with the most likes, ties broken by the older post. Offering a post costs O(log capacity),
+ * a post pushed out of a full ranking is forgotten and enters again when it is offered with more likes than the last one.
+ */
+class TopLikedPosts {
+
+    private static final Comparator<RankedPost> RANKING = Comparator.comparingInt(RankedPost::getLikesCount)
+                                                                    .reversed()
+                                                                    .thenComparing(RankedPost::getPostId);
+
+    private final int capacity;
+
+    private final TreeSet<RankedPost> ranking = new TreeSet<>(RANKING);
+
+    private final Map<Long, RankedPost> members = new HashMap<>();
+
+    private long version;
+
+    TopLikedPosts(int capacity) {
+        this.capacity = capacity;
+    }
+
+    /**
+     * Ranks the post by a likes count read after a like; a count not higher than the ranked one is ignored, as it was read
+     * before the count the post is ranked by.
+     *
+     * @return {@code true} when the ranking changed
+     */
+    synchronized boolean offer(RankedPost post) {
+        RankedPost current = members.get(post.getPostId());
+        if (current != null && current.getLikesCount() >= post.getLikesCount()) {
+            return false;
+        }
+        return rank(current, post);
+    }
+
+    /**
+     * Ranks the post by its current likes count, also when it is lower than the ranked one.
+     *
+     * @return {@code true} when the ranking changed
+     */
+    synchronized boolean set(RankedPost post) {
+        RankedPost current = members.get(post.getPostId());
+        if (current != null && current.getLikesCount() == post.getLikesCount()) {
+            return false;
+        }
+        return rank(current, post);
+    }
+
+    synchronized List<RankedPost> top(int limit) {
+        List<RankedPost> top = new ArrayList<>(Math.min(limit, ranking.size()));
+        for (RankedPost post : ranking) {
+            if (top.size() == limit) {
+                break;
+            }
+            top.add(post);
+        }
+        return top;
+    }
+
+    /**
+     * @return version of the copied ranking
+     */
+    synchronized long copyTo(Collection<RankedPost> posts) {
+        posts.addAll(ranking);
+        return version;
+    }
+
+    /**
+     * Counts as a change of the ranking, for changes of data stored with it.
+     */
+    synchronized void markChanged() {
+        version++;
+    }
+
+    /**
+     * Number of changes of the ranking.
+     */
+    synchronized long version() {
+        return version;
+    }
+
+    private boolean rank(RankedPost current, RankedPost post) {
+        if (current != null) {
+            ranking.remove(current);
+        } else if (ranking.size() >= capacity && RANKING.compare(post, ranking.last()) >= 0) {
+            return false;
+        }
+        ranking.add(post);
+        members.put(post.getPostId(), post);
+        if (ranking.size() > capacity) {
+            members.remove(ranking.pollLast()
+                                  .getPostId());
+        }
+        version++;
+        return true;
+    }
+
+}
@@ -0,0 +1,94 @@
+package edu.iis.mto.blog.domain.likes;
+
+import java.io.IOException;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import edu.iis.mto.blog.domain.events.PostLikedEvent;
+import edu.iis.mto.blog.domain.repository.LikePostRepository;
+import edu.iis.mto.blog.domain.snapshot.ReadModelSnapshots;
+import edu.iis.mto.blog.domain.snapshot.SnapshotInput;
+import edu.iis.mto.blog.domain.snapshot.SnapshotOutput;
+
+/**
+ * Likes known to this node, held in a {@link ScalableBloomFilter} filled from the {@code LikePost} table, or restored from a
+ * snapshot by {@link ReadModelSnapshots}, on startup and with
+ * every like stored afterwards. Tells for sure that a user has not liked a post yet, so only likes it may have seen before need
+ * to be looked up. Likes stored by other nodes are only seen once {@link #catchUp} reads them, the unique (user, post)
+ * constraint still rejects them.
+ */
+@Component
+public class LikeFilter {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(LikeFilter.class);
+
+    private final LikePostRepository likePostRepository;
+
+    private volatile ScalableBloomFilter filter;
+
+    private volatile boolean warmed;
+
+    public LikeFilter(LikePostRepository likePostRepository, @Value("${blog.likes.filter.expected-likes}") long expectedLikes,
+            @Value("${blog.likes.filter.false-positive-rate}") double falsePositiveRate) {
+        this.likePostRepository = likePostRepository;
+        this.filter = new ScalableBloomFilter(expectedLikes, falsePositiveRate);
+    }
+
+    @Transactional(readOnly = true)
+    public void warm() {
+        try (Stream<PendingLike> likes = likePostRepository.streamAllLikes()) {
+            likes.forEach(this::add);
+        }
+        warmed = true;
+        LOGGER.info("like filter warmed, {} KiB", filter.sizeInBytes() / 1024);
+    }
+
+    /**
+     * Replaces the filter with the one written by {@link #writeTo}, keeping its sizing, and adds likes stored with ids above
+     * {@code afterId}. Likes stored meanwhile are among them.
+     */
+    @Transactional(readOnly = true)
+    public void restore(SnapshotInput in, long afterId) throws IOException {
+        filter = ScalableBloomFilter.readFrom(in);
+        catchUp(afterId);
+        warmed = true;
+        LOGGER.info("like filter restored, {} KiB", filter.sizeInBytes() / 1024);
+    }
+
+    /**
+     * Adds likes stored with ids above {@code afterId}, including those stored through other nodes.
+     */
+    @Transactional(readOnly = true)
+    public void catchUp(long afterId) {
+        try (Stream<PendingLike> likes = likePostRepository.streamLikesAfter(afterId)) {
+            likes.forEach(this::add);
+        }
+    }
+
+    public void writeTo(SnapshotOutput out) throws IOException {
+        filter.writeTo(out);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPostLiked(PostLikedEvent event) {
+        filter.add(event.getUserId(), event.getPostId());
+    }
+
+    /**
+     * @return {@code false} only when the user has certainly not liked the post; always {@code true} until the filter is warmed
+     */
+    public boolean mightBeLiked(Long userId, Long postId) {
+        return !warmed || filter.mightContain(userId, postId);
+    }
+
+    private void add(PendingLike like) {
+        filter.add(like.getUserId(), like.getPostId());
+    }
+
+}
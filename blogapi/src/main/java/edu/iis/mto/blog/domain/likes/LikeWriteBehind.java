@@ -0,0 +1,226 @@
+package edu.iis.mto.blog.domain.likes;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import edu.iis.mto.blog.domain.errors.LikesBacklogFullError;
+import edu.iis.mto.blog.domain.events.PostLikedEvent;
+import edu.iis.mto.blog.domain.model.RankedPost;
+import edu.iis.mto.blog.domain.repository.BlogPostRepository;
+import edu.iis.mto.blog.domain.repository.LikeInsertResult;
+import edu.iis.mto.blog.domain.repository.LikePostRepository;
+
+/**
+ * Bounded queue of accepted likes and a single background thread storing them in JDBC batches. A batch is whatever is queued
+ * when the thread wakes up, up to {@code blog.likes.batch-size}, so batches grow with the load. When the queue is full callers
+ * wait {@code blog.likes.offer-timeout-ms} and are then rejected with {@link LikesBacklogFullError}.
+ */
+@Component
+@ConditionalOnProperty(name = "blog.likes.write-mode", havingValue = "async")
+public class LikeWriteBehind {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(LikeWriteBehind.class);
+
+    private static final long POLL_INTERVAL_MS = 100;
+
+    private final LikePostRepository likePostRepository;
+
+    private final BlogPostRepository blogPostRepository;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final BlockingQueue<PendingLike> queue;
+
+    private final int batchSize;
+
+    private final long offerTimeoutMs;
+
+    private final long drainTimeoutMs;
+
+    private final Thread flusher = new Thread(this::run, "like-write-behind");
+
+    /**
+     * Held for reading by callers queueing a like and for writing by {@link #stop()}, so no like is queued after the final
+     * drain.
+     */
+    private final ReadWriteLock stopLock = new ReentrantReadWriteLock();
+
+    private volatile boolean stopped;
+
+    public LikeWriteBehind(LikePostRepository likePostRepository, BlogPostRepository blogPostRepository,
+            PlatformTransactionManager transactionManager, ApplicationEventPublisher eventPublisher,
+            @Value("${blog.likes.queue-capacity}") int queueCapacity, @Value("${blog.likes.batch-size}") int batchSize,
+            @Value("${blog.likes.offer-timeout-ms}") long offerTimeoutMs, @Value("${blog.likes.drain-timeout-ms}") long drainTimeoutMs) {
+        this.likePostRepository = likePostRepository;
+        this.blogPostRepository = blogPostRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.eventPublisher = eventPublisher;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchSize = batchSize;
+        this.offerTimeoutMs = offerTimeoutMs;
+        this.drainTimeoutMs = drainTimeoutMs;
+        flusher.setDaemon(true);
+    }
+
+    @PostConstruct
+    public void start() {
+        flusher.start();
+    }
+
+    public void enqueue(Long userId, Long postId) {
+        boolean accepted = false;
+        stopLock.readLock()
+                .lock();
+        try {
+            if (!stopped) {
+                accepted = queue.offer(new PendingLike(userId, postId), offerTimeoutMs, TimeUnit.MILLISECONDS);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread()
+                  .interrupt();
+        } finally {
+            stopLock.readLock()
+                    .unlock();
+        }
+        if (!accepted) {
+            throw new LikesBacklogFullError();
+        }
+    }
+
+    public int pending() {
+        return queue.size();
+    }
+
+    /**
+     * Stores one batch of queued likes in the calling thread.
+     *
+     * @return number of likes actually stored
+     */
+    public int flushPending() {
+        List<PendingLike> batch = new ArrayList<>(batchSize);
+        queue.drainTo(batch, batchSize);
+        return batch.isEmpty() ? 0 : write(batch);
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        stopLock.writeLock()
+                .lock();
+        try {
+            stopped = true;
+        } finally {
+            stopLock.writeLock()
+                    .unlock();
+        }
+        flusher.join(drainTimeoutMs);
+        long deadline = System.currentTimeMillis() + drainTimeoutMs;
+        while (!queue.isEmpty() && System.currentTimeMillis() < deadline) {
+            flushPending();
+        }
+        if (!queue.isEmpty()) {
+            LOGGER.warn("{} pending likes dropped on shutdown", queue.size());
+        }
+    }
+
+    private void run() {
+        while (!stopped) {
+            try {
+                PendingLike first = queue.poll(POLL_INTERVAL_MS, TimeUnit.MILLISECONDS);
+                if (first != null) {
+                    List<PendingLike> batch = new ArrayList<>(batchSize);
+                    batch.add(first);
+                    queue.drainTo(batch, batchSize - 1);
+                    write(batch);
+                }
+            } catch (InterruptedException e) {
+                return;
+            } catch (RuntimeException e) {
+                LOGGER.error("like batch lost", e);
+            }
+        }
+    }
+
+    private int write(List<PendingLike> batch) {
+        List<PendingLike> distinct = new ArrayList<>(new LinkedHashSet<>(batch));
+        List<PostLikedEvent> events;
+        try {
+            events = transactionTemplate.execute(status -> liked(likePostRepository.insertLikeBatch(distinct)));
+        } catch (DataAccessException e) {
+            LOGGER.warn("like batch of {} failed, storing likes one by one: {}", distinct.size(), e.getMessage());
+            events = writeOneByOne(distinct);
+        }
+        if (events == null) {
+            events = Collections.emptyList();
+        }
+        events.forEach(eventPublisher::publishEvent);
+        return events.size();
+    }
+
+    private List<PostLikedEvent> writeOneByOne(List<PendingLike> likes) {
+        List<PostLikedEvent> events = new ArrayList<>();
+        for (PendingLike like : likes) {
+            try {
+                PostLikedEvent event = transactionTemplate.execute(status -> writeOne(like));
+                if (event != null) {
+                    events.add(event);
+                }
+            } catch (DataAccessException e) {
+                LOGGER.error("{} dropped: {}", like, e.getMessage());
+            }
+        }
+        return events;
+    }
+
+    private PostLikedEvent writeOne(PendingLike like) {
+        if (likePostRepository.insertLike(like.getUserId(), like.getPostId()) != LikeInsertResult.INSERTED) {
+            return null;
+        }
+        blogPostRepository.incrementLikesCount(like.getPostId());
+        return liked(Collections.singletonList(like)).get(0);
+    }
+
+    /**
+     * Events of the stored likes with the counters of their posts, read by one query in the transaction which counted them.
+     */
+    private List<PostLikedEvent> liked(List<PendingLike> stored) {
+        if (stored.isEmpty()) {
+            return Collections.emptyList();
+        }
+        Set<Long> postIds = stored.stream()
+                                  .map(PendingLike::getPostId)
+                                  .collect(Collectors.toSet());
+        Map<Long, RankedPost> likedPosts = blogPostRepository.findRanksByIds(postIds)
+                                                             .stream()
+                                                             .collect(Collectors.toMap(RankedPost::getPostId, Function.identity()));
+        return stored.stream()
+                     .map(like -> new PostLikedEvent(like.getUserId(), likedPosts.get(like.getPostId())))
+                     .collect(Collectors.toList());
+    }
+
+}
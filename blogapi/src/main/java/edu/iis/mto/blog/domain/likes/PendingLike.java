@@ -0,0 +1,46 @@
+package edu.iis.mto.blog.domain.likes;
+
+import java.util.Objects;
+
+public class PendingLike {
+
+    private final Long userId;
+
+    private final Long postId;
+
+    public PendingLike(Long userId, Long postId) {
+        this.userId = userId;
+        this.postId = postId;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public Long getPostId() {
+        return postId;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof PendingLike)) {
+            return false;
+        }
+        PendingLike other = (PendingLike) obj;
+        return Objects.equals(userId, other.userId) && Objects.equals(postId, other.postId);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(userId, postId);
+    }
+
+    @Override
+    public String toString() {
+        return "PendingLike [userId=" + userId + ", postId=" + postId + "]";
+    }
+
+}
@@ -0,0 +1,200 @@
+package edu.iis.mto.blog.domain.likes;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import edu.iis.mto.blog.domain.snapshot.SnapshotInput;
+import edu.iis.mto.blog.domain.snapshot.SnapshotOutput;
+
+/**
+ * Scalable Bloom filter of pairs of longs: a chain of bit arrays, each next one for twice as many pairs with half the false
+ * positive rate of the previous one, started when the last one is full. The false positive rate stays below twice the rate of
+ * the first array however many pairs are added. There are no false negatives. Lookups and additions do not lock, only starting
+ * a new array does.
+ */
+class ScalableBloomFilter {
+
+    private static final double TIGHTENING_RATIO = 0.5;
+
+    private static final int GROWTH_FACTOR = 2;
+
+    private final double falsePositiveRate;
+
+    private volatile Slice[] slices;
+
+    ScalableBloomFilter(long expectedPairs, double falsePositiveRate) {
+        this(falsePositiveRate, new Slice[] {new Slice(Math.max(1, expectedPairs), falsePositiveRate)});
+    }
+
+    private ScalableBloomFilter(double falsePositiveRate, Slice[] slices) {
+        this.falsePositiveRate = falsePositiveRate;
+        this.slices = slices;
+    }
+
+    static ScalableBloomFilter readFrom(SnapshotInput in) throws IOException {
+        double falsePositiveRate = in.getDouble();
+        Slice[] slices = new Slice[in.getInt()];
+        for (int i = 0; i < slices.length; i++) {
+            Slice slice = new Slice(in.getLong(), sliceFalsePositiveRate(falsePositiveRate, i));
+            slice.added.set(in.getLong());
+            long[] words = in.getLongs();
+            if (words.length != slice.bits.length()) {
+                throw new IOException("bit array of filter slice " + i + " does not match its capacity");
+            }
+            for (int word = 0; word < words.length; word++) {
+                slice.bits.set(word, words[word]);
+            }
+            slices[i] = slice;
+        }
+        return new ScalableBloomFilter(falsePositiveRate, slices);
+    }
+
+    /**
+     * Bits set by additions running meanwhile may or may not be written.
+     */
+    void writeTo(SnapshotOutput out) throws IOException {
+        Slice[] current = slices;
+        out.putDouble(falsePositiveRate);
+        out.putInt(current.length);
+        for (Slice slice : current) {
+            out.putLong(slice.capacity);
+            out.putLong(slice.added.get());
+            long[] words = new long[slice.bits.length()];
+            for (int word = 0; word < words.length; word++) {
+                words[word] = slice.bits.get(word);
+            }
+            out.putLongs(words, words.length);
+        }
+    }
+
+    boolean mightContain(long first, long second) {
+        long hash1 = hash(first, second);
+        long hash2 = secondHash(hash1);
+        for (Slice slice : slices) {
+            if (slice.mightContain(hash1, hash2)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    void add(long first, long second) {
+        long hash1 = hash(first, second);
+        long hash2 = secondHash(hash1);
+        Slice[] current = slices;
+        for (Slice slice : current) {
+            if (slice.mightContain(hash1, hash2)) {
+                return;
+            }
+        }
+        Slice last = current[current.length - 1];
+        if (last.isFull()) {
+            last = grow(last);
+        }
+        last.add(hash1, hash2);
+    }
+
+    long sizeInBytes() {
+        long bytes = 0;
+        for (Slice slice : slices) {
+            bytes += (long) slice.bits.length() * Long.BYTES;
+        }
+        return bytes;
+    }
+
+    private synchronized Slice grow(Slice full) {
+        Slice[] current = slices;
+        Slice last = current[current.length - 1];
+        if (last != full) {
+            return last;
+        }
+        Slice[] grown = new Slice[current.length + 1];
+        System.arraycopy(current, 0, grown, 0, current.length);
+        grown[current.length] = new Slice(full.capacity * GROWTH_FACTOR,
+                sliceFalsePositiveRate(falsePositiveRate, current.length));
+        slices = grown;
+        return grown[current.length];
+    }
+
+    private static double sliceFalsePositiveRate(double falsePositiveRate, int slice) {
+        return falsePositiveRate * Math.pow(TIGHTENING_RATIO, slice);
+    }
+
+    private static long hash(long first, long second) {
+        return mix(mix(first) * 31 + second);
+    }
+
+    private static long secondHash(long hash1) {
+        // odd, so probes of one pair never repeat within an array
+        return mix(hash1 ^ 0x9E3779B97F4A7C15L) | 1;
+    }
+
+    /**
+     * Finalizer of MurmurHash3, spreads every input bit over the whole result.
+     */
+    private static long mix(long value) {
+        long h = value;
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB9FE1A85EC53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    /**
+     * Bit array sized for {@code capacity} pairs at the given false positive rate, probed at {@code hashes} positions derived
+     * from two hashes.
+     */
+    private static class Slice {
+
+        private final long capacity;
+
+        private final long bitCount;
+
+        private final int hashes;
+
+        private final AtomicLongArray bits;
+
+        private final AtomicLong added = new AtomicLong();
+
+        Slice(long capacity, double falsePositiveRate) {
+            this.capacity = capacity;
+            double ln2 = Math.log(2);
+            long words = Math.max(1, (long) Math.ceil(-capacity * Math.log(falsePositiveRate) / (ln2 * ln2) / Long.SIZE));
+            this.bits = new AtomicLongArray(Math.toIntExact(words));
+            this.bitCount = words * Long.SIZE;
+            this.hashes = Math.max(1, (int) Math.round((double) bitCount / capacity * ln2));
+        }
+
+        boolean isFull() {
+            return added.get() >= capacity;
+        }
+
+        boolean mightContain(long hash1, long hash2) {
+            for (int i = 0; i < hashes; i++) {
+                long bit = Long.remainderUnsigned(hash1 + i * hash2, bitCount);
+                if ((bits.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        void add(long hash1, long hash2) {
+            for (int i = 0; i < hashes; i++) {
+                long bit = Long.remainderUnsigned(hash1 + i * hash2, bitCount);
+                int word = (int) (bit >>> 6);
+                long mask = 1L << bit;
+                long current;
+                do {
+                    current = bits.get(word);
+                } while ((current & mask) == 0 && !bits.compareAndSet(word, current, current | mask));
+            }
+            added.incrementAndGet();
+        }
+
+    }
+
+}
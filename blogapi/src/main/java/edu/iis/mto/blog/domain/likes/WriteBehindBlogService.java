@@ -0,0 +1,99 @@
+package edu.iis.mto.blog.domain.likes;
+
+import java.util.List;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import edu.iis.mto.blog.api.request.PostRequest;
+import edu.iis.mto.blog.api.request.UserRequest;
+import edu.iis.mto.blog.domain.BlogManager;
+import edu.iis.mto.blog.domain.DomainService;
+import edu.iis.mto.blog.domain.errors.DomainError;
+import edu.iis.mto.blog.domain.model.AccountStatus;
+import edu.iis.mto.blog.domain.repository.BlogPostRepository;
+import edu.iis.mto.blog.domain.repository.LikePostRepository;
+import edu.iis.mto.blog.domain.repository.UserRepository;
+import edu.iis.mto.blog.dto.ItemResult;
+import edu.iis.mto.blog.mapper.BlogDataMapper;
+import edu.iis.mto.blog.services.BlogService;
+
+/**
+ * Blog service used with {@code blog.likes.write-mode=async}. A like is validated by two read-only lookups and handed to
+ * {@link LikeWriteBehind}, so {@code true} means the like was accepted. A like already stored is answered with {@code false},
+ * looked up only when {@link LikeFilter} cannot rule it out; a like given twice before it was stored is dropped when its batch is stored.
+ * Everything else is delegated to {@link BlogManager}.
+ */
+@Service
+@Primary
+@ConditionalOnProperty(name = "blog.likes.write-mode", havingValue = "async")
+public class WriteBehindBlogService extends DomainService implements BlogService {
+
+    private final BlogManager blogManager;
+
+    private final LikeWriteBehind likeWriteBehind;
+
+    private final LikeFilter likeFilter;
+
+    protected WriteBehindBlogService(UserRepository userRepository, BlogPostRepository blogPostRepository,
+            LikePostRepository likePostRepository, BlogDataMapper mapper, BlogManager blogManager, LikeWriteBehind likeWriteBehind,
+            LikeFilter likeFilter) {
+        super(userRepository, blogPostRepository, likePostRepository, mapper);
+        this.blogManager = blogManager;
+        this.likeWriteBehind = likeWriteBehind;
+        this.likeFilter = likeFilter;
+    }
+
+    @Override
+    public Long createUser(UserRequest userRequest) {
+        return blogManager.createUser(userRequest);
+    }
+
+    @Override
+    public Long createPost(Long userId, PostRequest postRequest) {
+        return blogManager.createPost(userId, postRequest);
+    }
+
+    @Override
+    public List<ItemResult> createUsers(List<UserRequest> userRequests) {
+        return blogManager.createUsers(userRequests);
+    }
+
+    @Override
+    public List<ItemResult> createPosts(Long userId, List<PostRequest> postRequests) {
+        return blogManager.createPosts(userId, postRequests);
+    }
+
+    @Override
+    public boolean followUser(Long followerId, Long followeeId) {
+        return blogManager.followUser(followerId, followeeId);
+    }
+
+    @Override
+    public boolean unfollowUser(Long followerId, Long followeeId) {
+        return blogManager.unfollowUser(followerId, followeeId);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public boolean addLikeToPost(Long userId, Long postId) {
+        AccountStatus status = userRepository.findAccountStatusById(userId)
+                                             .orElseThrow(domainError(DomainError.USER_NOT_FOUND));
+        Long authorId = blogPostRepository.findAuthorIdById(postId)
+                                          .orElseThrow(domainError(DomainError.POST_NOT_FOUND));
+        if (authorId.equals(userId)) {
+            throw new DomainError(DomainError.SELF_LIKE);
+        }
+        if (status != AccountStatus.CONFIRMED) {
+            throw new DomainError(DomainError.USER_NOT_CONFIRMED);
+        }
+        if (likeFilter.mightBeLiked(userId, postId) && likePostRepository.existsByUserIdAndPostId(userId, postId)) {
+            return false;
+        }
+        likeWriteBehind.enqueue(userId, postId);
+        return true;
+    }
+
+}
@@ -4,16 +4,22 @@ import java.util.List;
 
 import javax.persistence.Column;
 import javax.persistence.Entity;
+import javax.persistence.Index;
 import javax.persistence.JoinColumn;
 import javax.persistence.Lob;
 import javax.persistence.ManyToOne;
 import javax.persistence.OneToMany;
+import javax.persistence.Table;
 
 @Entity
+@Table(indexes = { @Index(name = "idx_blog_post_user_id", columnList = "userId, id"),
+        @Index(name = "idx_blog_post_user_fanned_out", columnList = "userId, fannedOut, id") })
 public class BlogPost extends BaseEntity {
 
     private static final long serialVersionUID = 1L;
 
+    public static final int PREVIEW_LENGTH = 200;
+
     @ManyToOne
     @JoinColumn(name = "userId", nullable = false)
     private User user;
@@ -22,10 +28,33 @@ public class BlogPost extends BaseEntity {
     @Lob
     private String entry;
 
+    /**
+     * Beginning of the entry, kept next to the entry so list queries never have to read the CLOB. Its {@link #PREVIEW_LENGTH}
+     * characters are code points, the column is twice as long for databases counting UTF-16 units.
+     */
+    @Column(length = 2 * PREVIEW_LENGTH, nullable = false)
+    private String preview;
+
+    /**
+     * Length of the entry in UTF-16 code units, the units H2 counts entry ranges in.
+     */
+    @Column(nullable = false)
+    private int entryLength;
+
     @OneToMany
     @JoinColumn(name = "postId")
     private List<LikePost> likes;
 
+    @Column(nullable = false)
+    private int likesCount;
+
+    /**
+     * Whether the post was copied to the timelines of its author's followers when created; set by {@code HomeTimelines} with a
+     * bulk update only, posts stored otherwise are read on demand.
+     */
+    @Column(nullable = false, updatable = false, columnDefinition = "boolean default false not null")
+    private boolean fannedOut;
+
     public BlogPost() {}
 
     public User getUser() {
@@ -42,6 +71,16 @@ public class BlogPost extends BaseEntity {
 
     public void setEntry(String entry) {
         this.entry = entry;
+        this.preview = preview(entry);
+        this.entryLength = entry == null ? 0 : entry.length();
+    }
+
+    public String getPreview() {
+        return preview;
+    }
+
+    public int getEntryLength() {
+        return entryLength;
     }
 
     public void setLikes(List<LikePost> likes) {
@@ -52,8 +91,27 @@ public class BlogPost extends BaseEntity {
         return likes;
     }
 
+    public int getLikesCount() {
+        return likesCount;
+    }
+
+    public void setLikesCount(int likesCount) {
+        this.likesCount = likesCount;
+    }
+
+    public boolean isFannedOut() {
+        return fannedOut;
+    }
+
     public static long getSerialversionuid() {
         return serialVersionUID;
     }
 
+    public static String preview(String entry) {
+        if (entry == null || entry.codePointCount(0, entry.length()) <= PREVIEW_LENGTH) {
+            return entry;
+        }
+        return entry.substring(0, entry.offsetByCodePoints(0, PREVIEW_LENGTH));
+    }
+
 }
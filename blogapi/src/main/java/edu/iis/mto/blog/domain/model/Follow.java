@@ -0,0 +1,58 @@
+package edu.iis.mto.blog.domain.model;
+
+import java.io.Serializable;
+
+import javax.persistence.Entity;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.JoinColumn;
+import javax.persistence.ManyToOne;
+import javax.persistence.Table;
+import javax.persistence.UniqueConstraint;
+
+@Entity
+@Table(uniqueConstraints = @UniqueConstraint(name = "uk_follow_follower_followee", columnNames = {"followerId", "followeeId"}),
+        indexes = @Index(name = "idx_follow_followee_id", columnList = "followeeId, followerId"))
+public class Follow implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne
+    @JoinColumn(name = "followerId", nullable = false)
+    private User follower;
+
+    @ManyToOne
+    @JoinColumn(name = "followeeId", nullable = false)
+    private User followee;
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public User getFollower() {
+        return follower;
+    }
+
+    public void setFollower(User follower) {
+        this.follower = follower;
+    }
+
+    public User getFollowee() {
+        return followee;
+    }
+
+    public void setFollowee(User followee) {
+        this.followee = followee;
+    }
+
+}
@@ -1,14 +1,30 @@
 package edu.iis.mto.blog.domain.model;
 
+import java.io.Serializable;
+
 import javax.persistence.Entity;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
 import javax.persistence.JoinColumn;
 import javax.persistence.ManyToOne;
+import javax.persistence.Table;
+import javax.persistence.UniqueConstraint;
 
 @Entity
-public class LikePost extends BaseEntity {
+@Table(uniqueConstraints = @UniqueConstraint(name = "uk_like_post_user_post", columnNames = {"userId", "postId"}))
+public class LikePost implements Serializable {
 
     private static final long serialVersionUID = 1L;
 
+    /**
+     * Likes are stored by set based {@code insert ... select} statements, see {@code LikePostRepositoryImpl}, which rely on the
+     * database to generate the id.
+     */
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
     @ManyToOne
     @JoinColumn(name = "userId", nullable = false)
     private User user;
@@ -17,6 +33,14 @@ public class LikePost extends BaseEntity {
     @JoinColumn(name = "postId", nullable = false)
     private BlogPost post;
 
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
     public User getUser() {
         return user;
     }
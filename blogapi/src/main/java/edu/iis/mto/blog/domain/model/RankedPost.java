@@ -0,0 +1,77 @@
+package edu.iis.mto.blog.domain.model;
+
+import java.io.Serializable;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.Table;
+import javax.persistence.Transient;
+
+import org.springframework.data.domain.Persistable;
+
+/**
+ * Post on the likes leaderboard with the likes count it was ranked by. The leaderboard is stored by deleting the rows of the
+ * changed authors and inserting them again, so rows are always new and are inserted without being looked up first.
+ */
+@Entity
+@Table(indexes = { @Index(name = "idx_ranked_post_author_id", columnList = "authorId"),
+        @Index(name = "idx_ranked_post_likes_count", columnList = "likesCount") })
+public class RankedPost implements Persistable<Long>, Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    private Long postId;
+
+    @Column(nullable = false)
+    private Long authorId;
+
+    @Column(nullable = false)
+    private int likesCount;
+
+    public RankedPost() {}
+
+    public RankedPost(Long postId, Long authorId, int likesCount) {
+        this.postId = postId;
+        this.authorId = authorId;
+        this.likesCount = likesCount;
+    }
+
+    @Override
+    public Long getId() {
+        return postId;
+    }
+
+    @Override
+    @Transient
+    public boolean isNew() {
+        return true;
+    }
+
+    public Long getPostId() {
+        return postId;
+    }
+
+    public void setPostId(Long postId) {
+        this.postId = postId;
+    }
+
+    public Long getAuthorId() {
+        return authorId;
+    }
+
+    public void setAuthorId(Long authorId) {
+        this.authorId = authorId;
+    }
+
+    public int getLikesCount() {
+        return likesCount;
+    }
+
+    public void setLikesCount(int likesCount) {
+        this.likesCount = likesCount;
+    }
+
+}
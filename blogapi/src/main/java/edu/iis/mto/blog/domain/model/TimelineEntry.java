@@ -0,0 +1,79 @@
+package edu.iis.mto.blog.domain.model;
+
+import java.io.Serializable;
+
+import javax.persistence.Entity;
+import javax.persistence.FetchType;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.JoinColumn;
+import javax.persistence.ManyToOne;
+import javax.persistence.Table;
+import javax.persistence.UniqueConstraint;
+
+/**
+ * Post materialized in the home timeline of a follower of its author. The author is kept in the row, so entries of an
+ * unfollowed author are removed without reading posts.
+ */
+@Entity
+@Table(uniqueConstraints = @UniqueConstraint(name = "uk_timeline_entry_owner_post", columnNames = {"ownerId", "postId"}),
+        indexes = @Index(name = "idx_timeline_entry_owner_author", columnList = "ownerId, authorId"))
+public class TimelineEntry implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Entries are stored by set based {@code insert ... select} statements, see {@code TimelineEntryRepository}, which rely on
+     * the database to generate the id.
+     */
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "ownerId", nullable = false)
+    private User owner;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "postId", nullable = false)
+    private BlogPost post;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "authorId", nullable = false)
+    private User author;
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public User getOwner() {
+        return owner;
+    }
+
+    public void setOwner(User owner) {
+        this.owner = owner;
+    }
+
+    public BlogPost getPost() {
+        return post;
+    }
+
+    public void setPost(BlogPost post) {
+        this.post = post;
+    }
+
+    public User getAuthor() {
+        return author;
+    }
+
+    public void setAuthor(User author) {
+        this.author = author;
+    }
+
+}
@@ -23,6 +23,9 @@ public class User extends BaseEntity {
     @Enumerated(EnumType.STRING)
     private AccountStatus accountStatus;
 
+    @Column(nullable = false)
+    private int followersCount;
+
     public String getFirstName() {
         return firstName;
     }
@@ -55,4 +58,12 @@ public class User extends BaseEntity {
         this.accountStatus = accountStatus;
     }
 
+    public int getFollowersCount() {
+        return followersCount;
+    }
+
+    public void setFollowersCount(int followersCount) {
+        this.followersCount = followersCount;
+    }
+
 }
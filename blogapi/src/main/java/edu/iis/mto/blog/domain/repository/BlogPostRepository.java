@@ -1,14 +1,135 @@
 package edu.iis.mto.blog.domain.repository;
 
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import javax.persistence.QueryHint;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
 import edu.iis.mto.blog.domain.model.BlogPost;
+import edu.iis.mto.blog.domain.model.RankedPost;
 import edu.iis.mto.blog.domain.model.User;
+import edu.iis.mto.blog.dto.PostData;
+import edu.iis.mto.blog.dto.PostEntry;
 
 public interface BlogPostRepository extends JpaRepository<BlogPost, Long> {
 
+    String EXPORT_FETCH_SIZE = "500";
+
     List<BlogPost> findByUser(User user);
 
+    /**
+     * Keyset page of user posts: posts with id greater than {@code afterId}, in id order, limited by {@code pageable} size.
+     * Posts carry the preview instead of the entry.
+     */
+    @Query("select new edu.iis.mto.blog.dto.PostData(p.id, p.preview, p.entryLength, p.likesCount) from BlogPost p "
+            + "where p.user.id = :userId and p.id > :afterId order by p.id")
+    List<PostData> findPostDataByUserIdAfter(@Param("userId") Long userId, @Param("afterId") Long afterId, Pageable pageable);
+
+    /**
+     * Forward-only read of all posts of the user, fetched from the database {@code EXPORT_FETCH_SIZE} rows at a time; has to be
+     * consumed and closed inside a transaction.
+     */
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = EXPORT_FETCH_SIZE))
+    @Query("select new edu.iis.mto.blog.dto.PostData(p.id, p.entry, p.likesCount) from BlogPost p where p.user.id = :userId "
+            + "order by p.id")
+    Stream<PostData> streamPostDataByUserId(@Param("userId") Long userId);
+
+    /**
+     * Reads {@code length} characters of the entry starting at 1-based position {@code start}; only the range leaves the database.
+     * The entry length is counted by the database as well, in the same units as the range.
+     */
+    @Query("select new edu.iis.mto.blog.dto.PostEntry(substring(p.entry, :start, :length), length(p.entry)) from BlogPost p "
+            + "where p.id = :postId")
+    Optional<PostEntry> findEntryRange(@Param("postId") Long postId, @Param("start") int start, @Param("length") int length);
+
+    /**
+     * Ids and versions of the posts {@link #findPostDataByUserIdAfter(Long, Long, Pageable)} returns for the same arguments.
+     */
+    @Query("select p.id as id, p.version as version from BlogPost p where p.user.id = :userId and p.id > :afterId order by p.id")
+    List<PostVersion> findPostVersionsByUserIdAfter(@Param("userId") Long userId, @Param("afterId") Long afterId, Pageable pageable);
+
+    /**
+     * Keyset page of posts of the users followed by {@code followerId} which were not fanned out to timelines: posts with id
+     * lower than {@code beforeId}, newest first.
+     */
+    @Query("select new edu.iis.mto.blog.dto.PostData(p.id, p.user.id, p.preview, p.entryLength, p.likesCount) from BlogPost p "
+            + "where p.user.id in (select f.followee.id from Follow f where f.follower.id = :followerId) "
+            + "and p.fannedOut = false and p.id < :beforeId order by p.id desc")
+    List<PostData> findPostDataOfFolloweesNotFannedOutBefore(@Param("followerId") Long followerId,
+            @Param("beforeId") Long beforeId, Pageable pageable);
+
+    /**
+     * Marks the posts of authors with at most {@code maxFollowers} followers as fanned out.
+     *
+     * @return number of marked posts
+     */
+    @Modifying
+    @Query("update BlogPost p set p.fannedOut = true where p.id in (:postIds) "
+            + "and p.user.id in (select u.id from User u where u.followersCount <= :maxFollowers)")
+    int markFannedOut(@Param("postIds") Collection<Long> postIds, @Param("maxFollowers") int maxFollowers);
+
+    @Query("select new edu.iis.mto.blog.domain.model.RankedPost(p.id, p.user.id, p.likesCount) from BlogPost p where p.id = :postId")
+    Optional<RankedPost> findRankById(@Param("postId") Long postId);
+
+    @Query("select new edu.iis.mto.blog.domain.model.RankedPost(p.id, p.user.id, p.likesCount) from BlogPost p "
+            + "where p.id in :postIds")
+    List<RankedPost> findRanksByIds(@Param("postIds") Collection<Long> postIds);
+
+    /**
+     * Forward-only read of all liked posts, ranked by the denormalized likes counter; has to be consumed and closed inside a
+     * transaction.
+     */
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = EXPORT_FETCH_SIZE))
+    @Query("select new edu.iis.mto.blog.domain.model.RankedPost(p.id, p.user.id, p.likesCount) from BlogPost p "
+            + "where p.likesCount > 0")
+    Stream<RankedPost> streamRanksOfLikedPosts();
+
+    /**
+     * Forward-only read of ids of all posts and their authors; has to be consumed and closed inside a transaction.
+     */
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = EXPORT_FETCH_SIZE))
+    @Query("select p.id as id, p.user.id as authorId from BlogPost p")
+    Stream<PostAuthor> streamPostAuthors();
+
+    /**
+     * As {@link #streamPostAuthors()}, only posts with ids above {@code id}.
+     */
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = EXPORT_FETCH_SIZE))
+    @Query("select p.id as id, p.user.id as authorId from BlogPost p where p.id > :id")
+    Stream<PostAuthor> streamPostAuthorsAfter(@Param("id") Long id);
+
+    @Query("select coalesce(max(p.id), 0) from BlogPost p")
+    long findMaxId();
+
+    long countByIdLessThanEqual(Long id);
+
+    @Query("select p.user.id from BlogPost p where p.id = :postId")
+    Optional<Long> findAuthorIdById(@Param("postId") Long postId);
+
+    @Modifying
+    @Query("update BlogPost p set p.likesCount = p.likesCount + 1, p.version = p.version + 1 where p.id = :postId")
+    int incrementLikesCount(@Param("postId") Long postId);
+
+    /**
+     * Repairs likes counters which drifted from the number of stored {@code LikePost} rows.
+     *
+     * @return number of corrected posts
+     */
+    @Modifying
+    @Query(value = "update blog_post set likes_count = (select count(*) from like_post l where l.post_id = blog_post.id), "
+            + "version = version + 1 "
+            + "where likes_count <> (select count(*) from like_post l where l.post_id = blog_post.id)", nativeQuery = true)
+    int reconcileLikesCounts();
+
 }
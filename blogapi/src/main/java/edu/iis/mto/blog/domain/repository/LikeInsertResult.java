@@ -0,0 +1,7 @@
+package edu.iis.mto.blog.domain.repository;
+
+public enum LikeInsertResult {
+    INSERTED,
+    DUPLICATE,
+    REJECTED
+}
@@ -1,15 +1,51 @@
 package edu.iis.mto.blog.domain.repository;
 
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+
 import java.util.Optional;
+import java.util.stream.Stream;
+
+import javax.persistence.QueryHint;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import edu.iis.mto.blog.domain.likes.PendingLike;
 import edu.iis.mto.blog.domain.model.BlogPost;
 import edu.iis.mto.blog.domain.model.LikePost;
 import edu.iis.mto.blog.domain.model.User;
 
-public interface LikePostRepository extends JpaRepository<LikePost, Long> {
+public interface LikePostRepository extends JpaRepository<LikePost, Long>, LikePostRepositoryCustom {
 
     Optional<LikePost> findByUserAndPost(User user, BlogPost post);
 
+    /**
+     * Probe of the unique (user, post) index; a derived query would join the user and post tables.
+     */
+    @Query("select case when count(l) > 0 then true else false end from LikePost l "
+            + "where l.user.id = :userId and l.post.id = :postId")
+    boolean existsByUserIdAndPostId(@Param("userId") Long userId, @Param("postId") Long postId);
+
+    /**
+     * Forward-only read of all likes, fetched from the database {@code BlogPostRepository.EXPORT_FETCH_SIZE} rows at a time; has
+     * to be consumed and closed inside a transaction.
+     */
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = BlogPostRepository.EXPORT_FETCH_SIZE))
+    @Query("select new edu.iis.mto.blog.domain.likes.PendingLike(l.user.id, l.post.id) from LikePost l")
+    Stream<PendingLike> streamAllLikes();
+
+    /**
+     * Forward-only read of likes stored with ids above {@code id}; has to be consumed and closed inside a transaction.
+     */
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = BlogPostRepository.EXPORT_FETCH_SIZE))
+    @Query("select new edu.iis.mto.blog.domain.likes.PendingLike(l.user.id, l.post.id) from LikePost l where l.id > :id")
+    Stream<PendingLike> streamLikesAfter(@Param("id") Long id);
+
+    @Query("select coalesce(max(l.id), 0) from LikePost l")
+    long findMaxId();
+
+    long countByIdLessThanEqual(Long id);
+
 }
@@ -0,0 +1,23 @@
+package edu.iis.mto.blog.domain.repository;
+
+import java.util.List;
+
+import edu.iis.mto.blog.domain.likes.PendingLike;
+
+public interface LikePostRepositoryCustom {
+
+    /**
+     * Stores a like in a single statement, only if the user is confirmed and is not the post author. A like which already exists
+     * is reported as {@link LikeInsertResult#DUPLICATE} by the unique (user, post) constraint instead of being looked up first.
+     */
+    LikeInsertResult insertLike(Long userId, Long postId);
+
+    /**
+     * Stores distinct likes with the same rules as {@link #insertLike(Long, Long)} in one JDBC batch, skipping likes which are
+     * already stored, then bumps the counters of the liked posts in a second batch.
+     *
+     * @return likes actually stored
+     */
+    List<PendingLike> insertLikeBatch(List<PendingLike> likes);
+
+}
@@ -0,0 +1,84 @@
+package edu.iis.mto.blog.domain.repository;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import edu.iis.mto.blog.domain.likes.PendingLike;
+
+/**
+ * Plain JDBC on purpose: a constraint violation raised through the entity manager marks the whole transaction rollback-only,
+ * here it just means the like is already there.
+ */
+public class LikePostRepositoryImpl implements LikePostRepositoryCustom {
+
+    private static final String INSERT_LIKE = "insert into like_post (user_id, post_id) "
+            + "select u.id, p.id from user u, blog_post p "
+            + "where u.id = ? and p.id = ? and u.account_status = 'CONFIRMED' and p.user_id <> u.id";
+
+    private static final String INSERT_LIKE_IF_ABSENT = INSERT_LIKE
+            + " and not exists (select 1 from like_post l where l.user_id = u.id and l.post_id = p.id)";
+
+    private static final String ADD_TO_LIKES_COUNT = "update blog_post set likes_count = likes_count + ?, version = version + 1 "
+            + "where id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public LikePostRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public LikeInsertResult insertLike(Long userId, Long postId) {
+        try {
+            int inserted = jdbcTemplate.update(INSERT_LIKE, userId, postId);
+            return inserted == 1 ? LikeInsertResult.INSERTED : LikeInsertResult.REJECTED;
+        } catch (DuplicateKeyException e) {
+            return LikeInsertResult.DUPLICATE;
+        }
+    }
+
+    @Override
+    public List<PendingLike> insertLikeBatch(List<PendingLike> likes) {
+        int[] inserted = jdbcTemplate.batchUpdate(INSERT_LIKE_IF_ABSENT, new BatchPreparedStatementSetter() {
+
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                ps.setLong(1, likes.get(i)
+                                   .getUserId());
+                ps.setLong(2, likes.get(i)
+                                   .getPostId());
+            }
+
+            @Override
+            public int getBatchSize() {
+                return likes.size();
+            }
+        });
+
+        List<PendingLike> stored = new ArrayList<>();
+        // sorted by post id, so concurrent batches lock the counters in the same order
+        Map<Long, Integer> likesPerPost = new TreeMap<>();
+        for (int i = 0; i < inserted.length; i++) {
+            if (inserted[i] > 0) {
+                PendingLike like = likes.get(i);
+                stored.add(like);
+                likesPerPost.merge(like.getPostId(), 1, Integer::sum);
+            }
+        }
+        List<Object[]> counters = new ArrayList<>();
+        likesPerPost.forEach((postId, count) -> counters.add(new Object[] {count, postId}));
+        if (!counters.isEmpty()) {
+            jdbcTemplate.batchUpdate(ADD_TO_LIKES_COUNT, counters);
+        }
+        return stored;
+    }
+
+}
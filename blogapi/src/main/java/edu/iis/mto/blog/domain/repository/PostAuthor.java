@@ -0,0 +1,12 @@
+package edu.iis.mto.blog.domain.repository;
+
+/**
+ * Id of a post and of its author.
+ */
+public interface PostAuthor {
+
+    Long getId();
+
+    Long getAuthorId();
+
+}
@@ -0,0 +1,12 @@
+package edu.iis.mto.blog.domain.repository;
+
+/**
+ * Id and version of a post, enough to tell whether a page of posts changed without reading the posts.
+ */
+public interface PostVersion {
+
+    Long getId();
+
+    long getVersion();
+
+}
@@ -0,0 +1,29 @@
+package edu.iis.mto.blog.domain.repository;
+
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import edu.iis.mto.blog.domain.model.RankedPost;
+
+public interface RankedPostRepository extends JpaRepository<RankedPost, Long> {
+
+    /**
+     * Ids of the stored posts with the most likes when stored.
+     */
+    @Query("select r.postId from RankedPost r order by r.likesCount desc, r.postId")
+    List<Long> findMostLikedPostIds(Pageable pageable);
+
+    @Query("select r.postId from RankedPost r where r.authorId = :authorId")
+    List<Long> findPostIdsByAuthorId(@Param("authorId") Long authorId);
+
+    @Modifying
+    @Query("delete from RankedPost r where r.authorId in (:authorIds)")
+    int deleteByAuthorIds(@Param("authorIds") Collection<Long> authorIds);
+
+}
@@ -0,0 +1,57 @@
+package edu.iis.mto.blog.domain.repository;
+
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import edu.iis.mto.blog.domain.model.TimelineEntry;
+import edu.iis.mto.blog.dto.PostData;
+
+public interface TimelineEntryRepository extends JpaRepository<TimelineEntry, Long> {
+
+    /**
+     * Adds the posts marked as fanned out to the timelines of all followers of their authors in one statement.
+     *
+     * @return number of stored entries
+     */
+    @Modifying
+    @Query(value = "insert into timeline_entry (owner_id, post_id, author_id) select f.follower_id, p.id, p.user_id "
+            + "from blog_post p join follow f on f.followee_id = p.user_id where p.id in (:postIds) and p.fanned_out = true",
+            nativeQuery = true)
+    int fanOut(@Param("postIds") Collection<Long> postIds);
+
+    /**
+     * Adds the latest {@code limit} fanned out posts of the author to the timeline of a new follower.
+     */
+    @Modifying
+    @Query(value = "insert into timeline_entry (owner_id, post_id, author_id) select :ownerId, p.id, p.user_id from blog_post p "
+            + "where p.user_id = :authorId and p.fanned_out = true order by p.id desc limit :limit", nativeQuery = true)
+    int backfill(@Param("ownerId") Long ownerId, @Param("authorId") Long authorId, @Param("limit") int limit);
+
+    @Modifying
+    @Query("delete from TimelineEntry t where t.owner.id = :ownerId and t.author.id = :authorId")
+    int deleteByOwnerIdAndAuthorId(@Param("ownerId") Long ownerId, @Param("authorId") Long authorId);
+
+    /**
+     * Keyset page of the timeline: posts with id lower than {@code beforeId}, newest first, limited by {@code pageable} size.
+     */
+    @Query("select new edu.iis.mto.blog.dto.PostData(p.id, p.user.id, p.preview, p.entryLength, p.likesCount) "
+            + "from TimelineEntry t join t.post p where t.owner.id = :ownerId and t.post.id < :beforeId order by t.post.id desc")
+    List<PostData> findPostDataByOwnerIdBefore(@Param("ownerId") Long ownerId, @Param("beforeId") Long beforeId, Pageable pageable);
+
+    @Query("select t.owner.id from TimelineEntry t group by t.owner.id having count(t) > :maxEntries")
+    List<Long> findOwnerIdsWithMoreEntriesThan(@Param("maxEntries") long maxEntries);
+
+    @Query("select t.post.id from TimelineEntry t where t.owner.id = :ownerId order by t.post.id desc")
+    List<Long> findPostIdsByOwnerId(@Param("ownerId") Long ownerId, Pageable pageable);
+
+    @Modifying
+    @Query("delete from TimelineEntry t where t.owner.id = :ownerId and t.post.id <= :postId")
+    int deleteByOwnerIdUpTo(@Param("ownerId") Long ownerId, @Param("postId") Long postId);
+
+}
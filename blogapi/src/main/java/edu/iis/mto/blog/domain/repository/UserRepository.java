@@ -1,14 +1,68 @@
 package edu.iis.mto.blog.domain.repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import edu.iis.mto.blog.domain.model.AccountStatus;
 import edu.iis.mto.blog.domain.model.User;
+import edu.iis.mto.blog.domain.search.SearchableUser;
+import edu.iis.mto.blog.dto.UserData;
 
 public interface UserRepository extends JpaRepository<User, Long> {
 
     List<User> findByFirstNameContainingOrLastNameContainingOrEmailContainingAllIgnoreCase(String firstName,
             String lastName, String email);
 
+    /**
+     * Case-insensitive search on first name, last name or email; {@code pattern} is an upper-cased LIKE pattern using '!' as the
+     * escape character.
+     */
+    @Query("select new edu.iis.mto.blog.dto.UserData(u.id, u.firstName, u.lastName, u.email) from User u "
+            + "where u.accountStatus <> :excludedStatus and (upper(u.firstName) like :pattern escape '!' "
+            + "or upper(u.lastName) like :pattern escape '!' or upper(u.email) like :pattern escape '!') order by u.id")
+    List<UserData> findUserDataByPattern(@Param("pattern") String pattern, @Param("excludedStatus") AccountStatus excludedStatus,
+            Pageable pageable);
+
+    @Query("select new edu.iis.mto.blog.dto.UserData(u.id, u.firstName, u.lastName, u.email) from User u "
+            + "where u.id in :ids and u.accountStatus <> :excludedStatus")
+    List<UserData> findUserDataByIds(@Param("ids") Collection<Long> ids, @Param("excludedStatus") AccountStatus excludedStatus);
+
+    /**
+     * @param emails lower case emails
+     * @return stored emails equal to any of them ignoring case
+     */
+    @Query("select u.email from User u where lower(u.email) in :emails")
+    List<String> findExistingEmails(@Param("emails") Collection<String> emails);
+
+    @Query("select u.version from User u where u.id = :userId")
+    Optional<Long> findVersionById(@Param("userId") Long userId);
+
+    @Query("select u.accountStatus from User u where u.id = :userId")
+    Optional<AccountStatus> findAccountStatusById(@Param("userId") Long userId);
+
+    @Modifying
+    @Query("update User u set u.followersCount = u.followersCount + :delta where u.id = :userId")
+    int addToFollowersCount(@Param("userId") Long userId, @Param("delta") int delta);
+
+    @Query("select new edu.iis.mto.blog.domain.search.SearchableUser(u.id, u.firstName, u.lastName, u.email) from User u "
+            + "where u.accountStatus <> edu.iis.mto.blog.domain.model.AccountStatus.REMOVED")
+    Stream<SearchableUser> streamSearchableUsers();
+
+    @Query("select new edu.iis.mto.blog.domain.search.SearchableUser(u.id, u.firstName, u.lastName, u.email) from User u "
+            + "where u.id > :id and u.accountStatus <> edu.iis.mto.blog.domain.model.AccountStatus.REMOVED")
+    Stream<SearchableUser> streamSearchableUsersAfter(@Param("id") Long id);
+
+    @Query("select coalesce(max(u.id), 0) from User u")
+    long findMaxId();
+
+    long countByIdLessThanEqual(Long id);
+
 }
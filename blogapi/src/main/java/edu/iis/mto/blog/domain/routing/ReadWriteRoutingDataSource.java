@@ -0,0 +1,115 @@
+package edu.iis.mto.blog.domain.routing;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Sends read-only transactions to the replicas, in turns, and everything else to the primary. The decision is taken when the
+ * connection is fetched, so the data source has to be used through {@link #lazy()} for the transaction to be marked read-only
+ * by then.
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource implements Closeable {
+
+    private static final String PRIMARY = "primary";
+
+    private static final String REPLICA = "replica-";
+
+    private static final ThreadLocal<Boolean> PRIMARY_REQUIRED = new ThreadLocal<>();
+
+    private final List<DataSource> replicas;
+
+    private final AtomicInteger nextReplica = new AtomicInteger();
+
+    private final DataSource primary;
+
+    public ReadWriteRoutingDataSource(DataSource primary, List<DataSource> replicas) {
+        this.primary = primary;
+        this.replicas = replicas;
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        for (int i = 0; i < replicas.size(); i++) {
+            targets.put(REPLICA + i, replicas.get(i));
+        }
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+    }
+
+    /**
+     * Keeps the current read-only transaction on the primary; has to be called before its first statement.
+     */
+    public static void requirePrimary() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive() || PRIMARY_REQUIRED.get() != null) {
+            return;
+        }
+        PRIMARY_REQUIRED.set(Boolean.TRUE);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+
+            @Override
+            public void afterCompletion(int status) {
+                PRIMARY_REQUIRED.remove();
+            }
+        });
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (replicas.isEmpty() || !TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+                || PRIMARY_REQUIRED.get() != null) {
+            return PRIMARY;
+        }
+        return REPLICA + Math.floorMod(nextReplica.getAndIncrement(), replicas.size());
+    }
+
+    @Override
+    public void close() throws IOException {
+        close(primary);
+        for (DataSource replica : replicas) {
+            close(replica);
+        }
+    }
+
+    /**
+     * @return this data source deferring the routing decision to the first statement of the transaction
+     */
+    public LazyRoutingDataSource lazy() {
+        return new LazyRoutingDataSource(this);
+    }
+
+    private static void close(DataSource dataSource) throws IOException {
+        if (dataSource instanceof Closeable) {
+            ((Closeable) dataSource).close();
+        }
+    }
+
+    /**
+     * Fetches the connection from {@link ReadWriteRoutingDataSource} when the first statement is created, rather than when the
+     * transaction begins, and closes the routed pools with the application context.
+     */
+    public static class LazyRoutingDataSource extends LazyConnectionDataSourceProxy implements Closeable {
+
+        private final ReadWriteRoutingDataSource routingDataSource;
+
+        LazyRoutingDataSource(ReadWriteRoutingDataSource routingDataSource) {
+            super(routingDataSource);
+            this.routingDataSource = routingDataSource;
+        }
+
+        @Override
+        public void close() throws IOException {
+            routingDataSource.close();
+        }
+
+    }
+
+}
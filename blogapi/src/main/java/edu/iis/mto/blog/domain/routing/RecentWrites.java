@@ -0,0 +1,96 @@
+package edu.iis.mto.blog.domain.routing;
+
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import edu.iis.mto.blog.domain.events.FollowChangedEvent;
+import edu.iis.mto.blog.domain.events.PostCreatedEvent;
+import edu.iis.mto.blog.domain.events.PostLikedEvent;
+import edu.iis.mto.blog.domain.events.UserChangedEvent;
+import edu.iis.mto.blog.domain.repository.BlogPostRepository;
+
+/**
+ * Users and posts written within the replica lag ({@code blog.datasource.replica.max-lag-ms}); reads of them stay on the
+ * primary, so a client reads its own writes.
+ */
+@Component
+public class RecentWrites {
+
+    private static final long MAX_TRACKED = 100_000;
+
+    private final Cache<Long, Boolean> users;
+
+    private final Cache<Long, Boolean> posts;
+
+    private final BlogPostRepository blogPostRepository;
+
+    public RecentWrites(BlogPostRepository blogPostRepository, @Value("${blog.datasource.replica.max-lag-ms}") long maxLagMs) {
+        this.blogPostRepository = blogPostRepository;
+        users = Caffeine.newBuilder()
+                        .expireAfterWrite(maxLagMs, TimeUnit.MILLISECONDS)
+                        .maximumSize(MAX_TRACKED)
+                        .build();
+        posts = Caffeine.newBuilder()
+                        .expireAfterWrite(maxLagMs, TimeUnit.MILLISECONDS)
+                        .maximumSize(MAX_TRACKED)
+                        .build();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        Long userId = event.getUser()
+                           .getId();
+        if (userId != null) {
+            users.put(userId, Boolean.TRUE);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPostCreated(PostCreatedEvent event) {
+        users.put(event.getAuthorId(), Boolean.TRUE);
+        posts.put(event.getPostId(), Boolean.TRUE);
+    }
+
+    /**
+     * Likes count and version of the post change, and with them the posts listing of its author.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPostLiked(PostLikedEvent event) {
+        posts.put(event.getPostId(), Boolean.TRUE);
+        blogPostRepository.findAuthorIdById(event.getPostId())
+                          .ifPresent(authorId -> users.put(authorId, Boolean.TRUE));
+    }
+
+    /**
+     * Timeline of the follower changed.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onFollowChanged(FollowChangedEvent event) {
+        users.put(event.getFollowerId(), Boolean.TRUE);
+    }
+
+    /**
+     * Declares the current read-only transaction reads data of the user.
+     */
+    public void readingUser(Long userId) {
+        if (users.getIfPresent(userId) != null) {
+            ReadWriteRoutingDataSource.requirePrimary();
+        }
+    }
+
+    /**
+     * Declares the current read-only transaction reads the post.
+     */
+    public void readingPost(Long postId) {
+        if (posts.getIfPresent(postId) != null) {
+            ReadWriteRoutingDataSource.requirePrimary();
+        }
+    }
+
+}
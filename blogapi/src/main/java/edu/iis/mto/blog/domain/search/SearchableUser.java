@@ -0,0 +1,39 @@
+package edu.iis.mto.blog.domain.search;
+
+/**
+ * Text fields of a user which take part in user search.
+ */
+public class SearchableUser {
+
+    private final Long id;
+
+    private final String firstName;
+
+    private final String lastName;
+
+    private final String email;
+
+    public SearchableUser(Long id, String firstName, String lastName, String email) {
+        this.id = id;
+        this.firstName = firstName;
+        this.lastName = lastName;
+        this.email = email;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getFirstName() {
+        return firstName;
+    }
+
+    public String getLastName() {
+        return lastName;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+}
@@ -0,0 +1,338 @@
+package edu.iis.mto.blog.domain.search;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import edu.iis.mto.blog.domain.events.UserChangedEvent;
+import edu.iis.mto.blog.domain.model.AccountStatus;
+import edu.iis.mto.blog.domain.model.User;
+import edu.iis.mto.blog.domain.repository.UserRepository;
+import edu.iis.mto.blog.domain.routing.ReadWriteRoutingDataSource;
+import edu.iis.mto.blog.domain.snapshot.ReadModelSnapshots;
+import edu.iis.mto.blog.domain.snapshot.SnapshotInput;
+import edu.iis.mto.blog.domain.snapshot.SnapshotOutput;
+
+/**
+ * In-memory inverted trigram index over first name, last name and email of users which are not removed.
+ * Matches have the same case-insensitive substring semantics as the LIKE based repository search, the trigram postings
+ * only narrow down the candidates which are then verified. Built from the database, or restored from a snapshot by
+ * {@link ReadModelSnapshots}, on startup. Users stored through this node are indexed on their events, those stored through
+ * other nodes are caught up with every {@code blog.user-search.catch-up-interval-ms}.
+ */
+@Component
+public class UserSearchIndex {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(UserSearchIndex.class);
+
+    public static final int GRAM_LENGTH = 3;
+
+    private static final int EXACT_MATCH_SCORE = 3;
+
+    private static final int PREFIX_MATCH_SCORE = 2;
+
+    private static final int INFIX_MATCH_SCORE = 1;
+
+    private final UserRepository userRepository;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<String, Set<Long>> postings = new HashMap<>();
+
+    private final Map<Long, String[]> documents = new HashMap<>();
+
+    private final long catchUpOverlap;
+
+    /**
+     * Highest id of the users read from the database, by loading or catching up.
+     */
+    private final AtomicLong highestReadId = new AtomicLong();
+
+    private volatile boolean ready;
+
+    public UserSearchIndex(UserRepository userRepository, @Value("${blog.user-search.catch-up-overlap}") long catchUpOverlap) {
+        this.userRepository = userRepository;
+        this.catchUpOverlap = catchUpOverlap;
+    }
+
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        try (Stream<SearchableUser> users = userRepository.streamSearchableUsers()) {
+            users.forEach(this::indexRead);
+        }
+        ready = true;
+        LOGGER.info("user search index built for {} users", size());
+    }
+
+    /**
+     * Indexes users written by {@link #writeTo} and users stored with ids above {@code afterId}.
+     */
+    @Transactional(readOnly = true)
+    public void restore(SnapshotInput in, long afterId) throws IOException {
+        int count = in.getInt();
+        for (int i = 0; i < count; i++) {
+            indexRead(new SearchableUser(in.getLong(), in.getString(), in.getString(), in.getString()));
+        }
+        catchUp(afterId);
+        ready = true;
+        LOGGER.info("user search index restored for {} users", size());
+    }
+
+    /**
+     * Indexes users stored with ids above {@code afterId}, including those stored through other nodes.
+     */
+    @Transactional(readOnly = true)
+    public void catchUp(long afterId) {
+        try (Stream<SearchableUser> users = userRepository.streamSearchableUsersAfter(afterId)) {
+            users.forEach(this::indexRead);
+        }
+    }
+
+    /**
+     * Catches up with users stored through other nodes, this node gets no events of them. Users are read again from
+     * {@code blog.user-search.catch-up-overlap} ids below the highest id read so far, to cover transactions committed out of
+     * id order and id blocks reserved by other nodes. Reads from the primary, a replica may lag behind it.
+     */
+    @Scheduled(initialDelayString = "${blog.user-search.catch-up-interval-ms}",
+            fixedDelayString = "${blog.user-search.catch-up-interval-ms}")
+    @Transactional(readOnly = true)
+    public void catchUpWithOtherNodes() {
+        if (!ready) {
+            return;
+        }
+        ReadWriteRoutingDataSource.requirePrimary();
+        catchUp(Math.max(0, highestReadId.get() - catchUpOverlap));
+    }
+
+    /**
+     * Writes indexed users with their normalized fields, the postings are rebuilt from them when restored.
+     */
+    public void writeTo(SnapshotOutput out) throws IOException {
+        long[] ids;
+        String[][] fields;
+        lock.readLock()
+            .lock();
+        try {
+            ids = new long[documents.size()];
+            fields = new String[documents.size()][];
+            int i = 0;
+            for (Map.Entry<Long, String[]> document : documents.entrySet()) {
+                ids[i] = document.getKey();
+                fields[i++] = document.getValue();
+            }
+        } finally {
+            lock.readLock()
+                .unlock();
+        }
+        out.putInt(ids.length);
+        for (int i = 0; i < ids.length; i++) {
+            out.putLong(ids[i]);
+            for (String field : fields[i]) {
+                out.putString(field);
+            }
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        update(event.getUser());
+    }
+
+    public void update(User user) {
+        if (user.getId() == null) {
+            return;
+        }
+        if (user.getAccountStatus() == AccountStatus.REMOVED) {
+            remove(user.getId());
+        } else {
+            index(new SearchableUser(user.getId(), user.getFirstName(), user.getLastName(), user.getEmail()));
+        }
+    }
+
+    /**
+     * Index answers only queries long enough to contain a trigram, shorter ones have to be served by the database.
+     */
+    public boolean canSearch(String query) {
+        return ready && query != null && query.length() >= GRAM_LENGTH;
+    }
+
+    /**
+     * @return ids of users whose first name, last name or email contains the query ignoring case, best matches first
+     */
+    public List<Long> search(String query, int limit) {
+        String normalized = normalize(query);
+        lock.readLock()
+            .lock();
+        try {
+            List<Set<Long>> candidateSets = new ArrayList<>();
+            for (String gram : grams(normalized)) {
+                Set<Long> ids = postings.get(gram);
+                if (ids == null) {
+                    return new ArrayList<>();
+                }
+                candidateSets.add(ids);
+            }
+            candidateSets.sort(Comparator.comparingInt(Set::size));
+            List<ScoredUser> matches = new ArrayList<>();
+            for (Long id : candidateSets.get(0)) {
+                if (containedInAll(id, candidateSets)) {
+                    int score = score(documents.get(id), normalized);
+                    if (score > 0) {
+                        matches.add(new ScoredUser(id, score));
+                    }
+                }
+            }
+            return matches.stream()
+                          .sorted(Comparator.comparingInt(ScoredUser::getScore)
+                                            .reversed()
+                                            .thenComparing(ScoredUser::getId))
+                          .limit(limit)
+                          .map(ScoredUser::getId)
+                          .collect(Collectors.toList());
+        } finally {
+            lock.readLock()
+                .unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock()
+            .lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock()
+                .unlock();
+        }
+    }
+
+    private void indexRead(SearchableUser user) {
+        index(user);
+        highestReadId.accumulateAndGet(user.getId(), Math::max);
+    }
+
+    void index(SearchableUser user) {
+        String[] fields = {normalize(user.getFirstName()), normalize(user.getLastName()), normalize(user.getEmail())};
+        lock.writeLock()
+            .lock();
+        try {
+            removeDocument(user.getId());
+            documents.put(user.getId(), fields);
+            for (String field : fields) {
+                for (String gram : grams(field)) {
+                    postings.computeIfAbsent(gram, key -> new HashSet<>())
+                            .add(user.getId());
+                }
+            }
+        } finally {
+            lock.writeLock()
+                .unlock();
+        }
+    }
+
+    void remove(Long userId) {
+        lock.writeLock()
+            .lock();
+        try {
+            removeDocument(userId);
+        } finally {
+            lock.writeLock()
+                .unlock();
+        }
+    }
+
+    private void removeDocument(Long userId) {
+        String[] fields = documents.remove(userId);
+        if (fields == null) {
+            return;
+        }
+        for (String field : fields) {
+            for (String gram : grams(field)) {
+                Set<Long> ids = postings.get(gram);
+                if (ids != null) {
+                    ids.remove(userId);
+                    if (ids.isEmpty()) {
+                        postings.remove(gram);
+                    }
+                }
+            }
+        }
+    }
+
+    private boolean containedInAll(Long id, List<Set<Long>> candidateSets) {
+        for (int i = 1; i < candidateSets.size(); i++) {
+            if (!candidateSets.get(i)
+                              .contains(id)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int score(String[] fields, String query) {
+        int score = 0;
+        for (String field : fields) {
+            if (field.equals(query)) {
+                score += EXACT_MATCH_SCORE;
+            } else if (field.startsWith(query)) {
+                score += PREFIX_MATCH_SCORE;
+            } else if (field.contains(query)) {
+                score += INFIX_MATCH_SCORE;
+            }
+        }
+        return score;
+    }
+
+    private static Set<String> grams(String text) {
+        Set<String> grams = new LinkedHashSet<>();
+        for (int i = 0; i + GRAM_LENGTH <= text.length(); i++) {
+            grams.add(text.substring(i, i + GRAM_LENGTH));
+        }
+        return grams;
+    }
+
+    private static String normalize(String text) {
+        return text == null ? "" : text.toLowerCase(Locale.ROOT);
+    }
+
+    private static class ScoredUser {
+
+        private final Long id;
+
+        private final int score;
+
+        private ScoredUser(Long id, int score) {
+            this.id = id;
+            this.score = score;
+        }
+
+        private Long getId() {
+            return id;
+        }
+
+        private int getScore() {
+            return score;
+        }
+    }
+
+}
@@ -0,0 +1,296 @@
+package edu.iis.mto.blog.domain.snapshot;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+import java.util.function.LongUnaryOperator;
+import java.util.function.Supplier;
+
+import javax.annotation.PreDestroy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import edu.iis.mto.blog.domain.graph.LikeGraph;
+import edu.iis.mto.blog.domain.likes.LikeFilter;
+import edu.iis.mto.blog.domain.repository.BlogPostRepository;
+import edu.iis.mto.blog.domain.repository.LikePostRepository;
+import edu.iis.mto.blog.domain.repository.UserRepository;
+import edu.iis.mto.blog.domain.routing.ReadWriteRoutingDataSource;
+import edu.iis.mto.blog.domain.search.UserSearchIndex;
+
+/**
+ * Startup of the in-memory read models ({@link UserSearchIndex}, {@link LikeFilter}, {@link LikeGraph}). With
+ * {@code blog.snapshot.path} set they are written to that file every {@code blog.snapshot.interval-ms} and on shutdown, and
+ * restored from it on startup instead of being built from full scans of the user, post and like tables.
+ * <p>
+ * Users, posts and likes are only ever inserted by the application, so rows with ids above those in the snapshot are its change
+ * log and are replayed on restore. Replay starts {@code blog.snapshot.replay-overlap} ids below the highest ids seen when the
+ * snapshot was taken, to cover transactions committed out of id order and id blocks reserved by other nodes; replaying rows
+ * already in the snapshot does no harm. A snapshot is ignored, and the read models are built from the database, when it is
+ * older than {@code blog.snapshot.max-age-ms} (changes made outside the application are not replayed), when a table has a lower
+ * highest id or a different number of rows up to the replay start than when it was taken, or when it is damaged.
+ * <p>
+ * The highest ids are taken from the database while the read models only see the rows stored through this node. So before
+ * each write the rows above the ids the read models were last loaded or caught up to are read again, rows stored through other
+ * nodes included, and the snapshot claims only what the read models then hold. Loading and catching up read from the primary,
+ * a replica may not have the rows up to those ids yet.
+ */
+@Component
+public class ReadModelSnapshots {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ReadModelSnapshots.class);
+
+    private static final long MAGIC = 0x424C4F47534E4150L;
+
+    private static final int FORMAT_VERSION = 1;
+
+    private final UserSearchIndex userSearchIndex;
+
+    private final LikeFilter likeFilter;
+
+    private final LikeGraph likeGraph;
+
+    private final UserRepository userRepository;
+
+    private final BlogPostRepository blogPostRepository;
+
+    private final LikePostRepository likePostRepository;
+
+    private final Path path;
+
+    private final long maxAgeMs;
+
+    private final long replayOverlap;
+
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * Marks taken before the read models were last loaded or caught up, all rows up to their replay start are in them.
+     */
+    private TableMarks loaded;
+
+    private volatile boolean ready;
+
+    public ReadModelSnapshots(UserSearchIndex userSearchIndex, LikeFilter likeFilter, LikeGraph likeGraph,
+            UserRepository userRepository, BlogPostRepository blogPostRepository, LikePostRepository likePostRepository,
+            PlatformTransactionManager transactionManager, @Value("${blog.snapshot.path}") String path,
+            @Value("${blog.snapshot.max-age-ms}") long maxAgeMs, @Value("${blog.snapshot.replay-overlap}") long replayOverlap) {
+        this.userSearchIndex = userSearchIndex;
+        this.likeFilter = likeFilter;
+        this.likeGraph = likeGraph;
+        this.userRepository = userRepository;
+        this.blogPostRepository = blogPostRepository;
+        this.likePostRepository = likePostRepository;
+        this.path = path.isEmpty() ? null : Paths.get(path);
+        this.maxAgeMs = maxAgeMs;
+        this.replayOverlap = replayOverlap;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void warmUp() {
+        long started = System.nanoTime();
+        boolean restored = path != null && Files.isRegularFile(path) && restore();
+        if (!restored) {
+            loaded = onPrimary(() -> {
+                TableMarks marks = takeMarks();
+                userSearchIndex.rebuild();
+                likeFilter.warm();
+                likeGraph.build();
+                return marks;
+            });
+        }
+        ready = true;
+        LOGGER.info("read models {} in {} ms", restored ? "restored from " + path : "built from database",
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+    }
+
+    /**
+     * Catches the read models up first, then writes them to a temporary file moved over the previous snapshot, so a failed
+     * write keeps the previous one.
+     */
+    @Scheduled(initialDelayString = "${blog.snapshot.interval-ms}", fixedDelayString = "${blog.snapshot.interval-ms}")
+    @PreDestroy
+    public synchronized void write() {
+        if (path == null || !ready) {
+            return;
+        }
+        long started = System.nanoTime();
+        Path written = path.resolveSibling(path.getFileName() + ".tmp");
+        try {
+            TableMarks previous = loaded;
+            TableMarks marks = onPrimary(() -> {
+                TableMarks taken = takeMarks();
+                catchUp(previous);
+                return taken;
+            });
+            loaded = marks;
+            try (SnapshotOutput out = new SnapshotOutput(written)) {
+                out.putLong(MAGIC);
+                out.putInt(FORMAT_VERSION);
+                out.putLong(System.currentTimeMillis());
+                marks.writeTo(out);
+                userSearchIndex.writeTo(out);
+                likeFilter.writeTo(out);
+                likeGraph.writeTo(out);
+            }
+            Files.move(written, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            LOGGER.info("read models written to {} in {} ms", path, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+        } catch (IOException | RuntimeException e) {
+            LOGGER.warn("could not write read models to {}", path, e);
+        }
+    }
+
+    private boolean restore() {
+        try (SnapshotInput in = new SnapshotInput(path)) {
+            if (in.getLong() != MAGIC || in.getInt() != FORMAT_VERSION) {
+                LOGGER.info("snapshot {} has an unknown format, ignored", path);
+                return false;
+            }
+            long ageMs = System.currentTimeMillis() - in.getLong();
+            if (ageMs > maxAgeMs) {
+                LOGGER.info("snapshot {} is {} ms old, ignored", path, ageMs);
+                return false;
+            }
+            TableMarks saved = TableMarks.readFrom(in);
+            TableMarks marks = onPrimary(() -> {
+                if (!matchDatabase(saved)) {
+                    return null;
+                }
+                TableMarks taken = takeMarks();
+                try {
+                    userSearchIndex.restore(in, saved.users.replayAfterId);
+                    likeFilter.restore(in, saved.likes.replayAfterId);
+                    likeGraph.restore(in, saved.likes.replayAfterId, saved.posts.replayAfterId);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                return taken;
+            });
+            if (marks == null) {
+                LOGGER.info("snapshot {} does not match the database, ignored", path);
+                return false;
+            }
+            loaded = marks;
+            return true;
+        } catch (IOException | RuntimeException e) {
+            LOGGER.warn("could not restore read models from {}", path, e);
+            return false;
+        }
+    }
+
+    /**
+     * Adds the rows stored after the replay start of the marks, through any node, to the read models.
+     */
+    private void catchUp(TableMarks marks) {
+        userSearchIndex.catchUp(marks.users.replayAfterId);
+        likeFilter.catchUp(marks.likes.replayAfterId);
+        likeGraph.catchUp(marks.likes.replayAfterId, marks.posts.replayAfterId);
+    }
+
+    private TableMarks takeMarks() {
+        return new TableMarks(
+                TableMark.take(userRepository::findMaxId, userRepository::countByIdLessThanEqual, replayOverlap),
+                TableMark.take(blogPostRepository::findMaxId, blogPostRepository::countByIdLessThanEqual, replayOverlap),
+                TableMark.take(likePostRepository::findMaxId, likePostRepository::countByIdLessThanEqual, replayOverlap));
+    }
+
+    private boolean matchDatabase(TableMarks marks) {
+        return marks.users.matches(userRepository::findMaxId, userRepository::countByIdLessThanEqual)
+                && marks.posts.matches(blogPostRepository::findMaxId, blogPostRepository::countByIdLessThanEqual)
+                && marks.likes.matches(likePostRepository::findMaxId, likePostRepository::countByIdLessThanEqual);
+    }
+
+    /**
+     * Runs in one read-only transaction kept on the primary.
+     */
+    private <T> T onPrimary(Supplier<T> work) {
+        return transactionTemplate.execute(status -> {
+            ReadWriteRoutingDataSource.requirePrimary();
+            return work.get();
+        });
+    }
+
+    /**
+     * Marks of the user, post and like tables.
+     */
+    private static final class TableMarks {
+
+        private final TableMark users;
+
+        private final TableMark posts;
+
+        private final TableMark likes;
+
+        private TableMarks(TableMark users, TableMark posts, TableMark likes) {
+            this.users = users;
+            this.posts = posts;
+            this.likes = likes;
+        }
+
+        static TableMarks readFrom(SnapshotInput in) throws IOException {
+            return new TableMarks(TableMark.readFrom(in), TableMark.readFrom(in), TableMark.readFrom(in));
+        }
+
+        void writeTo(SnapshotOutput out) throws IOException {
+            users.writeTo(out);
+            posts.writeTo(out);
+            likes.writeTo(out);
+        }
+
+    }
+
+    /**
+     * Highest id of a table and id after which its rows are replayed, with the number of rows up to it.
+     */
+    private static final class TableMark {
+
+        private final long maxId;
+
+        private final long replayAfterId;
+
+        private final long count;
+
+        private TableMark(long maxId, long replayAfterId, long count) {
+            this.maxId = maxId;
+            this.replayAfterId = replayAfterId;
+            this.count = count;
+        }
+
+        static TableMark take(LongSupplier maxId, LongUnaryOperator countUpTo, long overlap) {
+            long highest = maxId.getAsLong();
+            long replayAfterId = Math.max(0, highest - overlap);
+            return new TableMark(highest, replayAfterId, countUpTo.applyAsLong(replayAfterId));
+        }
+
+        static TableMark readFrom(SnapshotInput in) throws IOException {
+            return new TableMark(in.getLong(), in.getLong(), in.getLong());
+        }
+
+        void writeTo(SnapshotOutput out) throws IOException {
+            out.putLong(maxId);
+            out.putLong(replayAfterId);
+            out.putLong(count);
+        }
+
+        boolean matches(LongSupplier currentMaxId, LongUnaryOperator countUpTo) {
+            return currentMaxId.getAsLong() >= maxId && countUpTo.applyAsLong(replayAfterId) == count;
+        }
+
+    }
+
+}
@@ -0,0 +1,150 @@
+package edu.iis.mto.blog.domain.snapshot;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+
+/**
+ * Reads a snapshot file written by {@link SnapshotOutput} through read-only memory mapped windows. The checksum is verified
+ * when the file is opened, a damaged or truncated file is rejected before anything is read from it.
+ */
+public class SnapshotInput implements Closeable {
+
+    private final FileChannel channel;
+
+    private final long length;
+
+    private MappedByteBuffer window;
+
+    private long windowStart;
+
+    public SnapshotInput(Path path) throws IOException {
+        channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            length = channel.size() - Long.BYTES;
+            if (length < 0) {
+                throw new IOException("snapshot " + path + " is truncated");
+            }
+            verifyChecksum(path);
+            map(0);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    public int getInt() throws IOException {
+        return require(Integer.BYTES).getInt();
+    }
+
+    public long getLong() throws IOException {
+        return require(Long.BYTES).getLong();
+    }
+
+    public double getDouble() throws IOException {
+        return require(Double.BYTES).getDouble();
+    }
+
+    /**
+     * @return {@code null} when {@code null} was written
+     */
+    public String getString() throws IOException {
+        int size = getInt();
+        if (size < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[size];
+        int offset = 0;
+        while (offset < size) {
+            ByteBuffer buffer = require(1);
+            int count = Math.min(size - offset, buffer.remaining());
+            buffer.get(bytes, offset, count);
+            offset += count;
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    public int[] getInts() throws IOException {
+        int[] values = new int[getInt()];
+        int offset = 0;
+        while (offset < values.length) {
+            ByteBuffer buffer = require(Integer.BYTES);
+            int count = Math.min(values.length - offset, buffer.remaining() / Integer.BYTES);
+            buffer.asIntBuffer()
+                  .get(values, offset, count);
+            skip(buffer, count * Integer.BYTES);
+            offset += count;
+        }
+        return values;
+    }
+
+    public long[] getLongs() throws IOException {
+        long[] values = new long[getInt()];
+        int offset = 0;
+        while (offset < values.length) {
+            ByteBuffer buffer = require(Long.BYTES);
+            int count = Math.min(values.length - offset, buffer.remaining() / Long.BYTES);
+            buffer.asLongBuffer()
+                  .get(values, offset, count);
+            skip(buffer, count * Long.BYTES);
+            offset += count;
+        }
+        return values;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    /**
+     * Through {@link Buffer}, whose methods Java 8 has; a class built on a later JDK would link to the {@link ByteBuffer}
+     * overrides, missing on Java 8.
+     */
+    private static void skip(ByteBuffer buffer, int bytes) {
+        ((Buffer) buffer).position(buffer.position() + bytes);
+    }
+
+    private ByteBuffer require(int bytes) throws IOException {
+        if (window.remaining() < bytes) {
+            map(windowStart + window.position());
+            if (window.remaining() < bytes) {
+                throw new IOException("snapshot ends unexpectedly at byte " + (windowStart + window.position()));
+            }
+        }
+        return window;
+    }
+
+    private void verifyChecksum(Path path) throws IOException {
+        CRC32 checksum = new CRC32();
+        for (long position = 0; position < length; position += SnapshotOutput.WINDOW_SIZE) {
+            checksum.update(channel.map(FileChannel.MapMode.READ_ONLY, position,
+                    Math.min(SnapshotOutput.WINDOW_SIZE, length - position)));
+        }
+        ByteBuffer trailer = ByteBuffer.allocate(Long.BYTES)
+                                       .order(ByteOrder.LITTLE_ENDIAN);
+        while (trailer.hasRemaining()) {
+            if (channel.read(trailer, length + trailer.position()) < 0) {
+                throw new IOException("snapshot " + path + " is truncated");
+            }
+        }
+        if (trailer.getLong(0) != checksum.getValue()) {
+            throw new IOException("checksum of snapshot " + path + " does not match its content");
+        }
+    }
+
+    private void map(long position) throws IOException {
+        window = channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(SnapshotOutput.WINDOW_SIZE, length - position));
+        window.order(ByteOrder.LITTLE_ENDIAN);
+        windowStart = position;
+    }
+
+}
@@ -0,0 +1,151 @@
+package edu.iis.mto.blog.domain.snapshot;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+
+/**
+ * Writes a snapshot file through memory mapped windows of {@link #WINDOW_SIZE} bytes, extending the file as it goes. Values are
+ * little endian, arrays and strings are prefixed with their length. The file ends with a CRC32 of its content, checked by
+ * {@link SnapshotInput}.
+ */
+public class SnapshotOutput implements Closeable {
+
+    static final int WINDOW_SIZE = 64 * 1024 * 1024;
+
+    private final FileChannel channel;
+
+    private final CRC32 checksum = new CRC32();
+
+    private MappedByteBuffer window;
+
+    private long windowStart;
+
+    public SnapshotOutput(Path path) throws IOException {
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        map(0, WINDOW_SIZE);
+    }
+
+    public void putInt(int value) throws IOException {
+        reserve(Integer.BYTES).putInt(value);
+    }
+
+    public void putLong(long value) throws IOException {
+        reserve(Long.BYTES).putLong(value);
+    }
+
+    public void putDouble(double value) throws IOException {
+        reserve(Double.BYTES).putDouble(value);
+    }
+
+    /**
+     * @param value may be {@code null}
+     */
+    public void putString(String value) throws IOException {
+        if (value == null) {
+            putInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        putInt(bytes.length);
+        int offset = 0;
+        while (offset < bytes.length) {
+            ByteBuffer buffer = reserve(1);
+            int count = Math.min(bytes.length - offset, buffer.remaining());
+            buffer.put(bytes, offset, count);
+            offset += count;
+        }
+    }
+
+    /**
+     * Writes the first {@code length} values.
+     */
+    public void putInts(int[] values, int length) throws IOException {
+        putInt(length);
+        int offset = 0;
+        while (offset < length) {
+            ByteBuffer buffer = reserve(Integer.BYTES);
+            int count = Math.min(length - offset, buffer.remaining() / Integer.BYTES);
+            buffer.asIntBuffer()
+                  .put(values, offset, count);
+            skip(buffer, count * Integer.BYTES);
+            offset += count;
+        }
+    }
+
+    /**
+     * Writes the first {@code length} values.
+     */
+    public void putLongs(long[] values, int length) throws IOException {
+        putInt(length);
+        int offset = 0;
+        while (offset < length) {
+            ByteBuffer buffer = reserve(Long.BYTES);
+            int count = Math.min(length - offset, buffer.remaining() / Long.BYTES);
+            buffer.asLongBuffer()
+                  .put(values, offset, count);
+            skip(buffer, count * Long.BYTES);
+            offset += count;
+        }
+    }
+
+    /**
+     * Cuts the file to the written length, appends the checksum and forces the file to the storage device.
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            long length = flushWindow();
+            channel.truncate(length);
+            ByteBuffer trailer = ByteBuffer.allocate(Long.BYTES)
+                                           .order(ByteOrder.LITTLE_ENDIAN)
+                                           .putLong(0, checksum.getValue());
+            channel.write(trailer, length);
+            channel.force(true);
+        } finally {
+            channel.close();
+        }
+    }
+
+    /**
+     * Through {@link Buffer}, whose methods Java 8 has; a class built on a later JDK would link to the {@link ByteBuffer}
+     * overrides, missing on Java 8.
+     */
+    private static void skip(ByteBuffer buffer, int bytes) {
+        ((Buffer) buffer).position(buffer.position() + bytes);
+    }
+
+    private ByteBuffer reserve(int bytes) throws IOException {
+        if (window.remaining() < bytes) {
+            map(flushWindow(), WINDOW_SIZE);
+        }
+        return window;
+    }
+
+    /**
+     * @return file position following the written part of the window
+     */
+    private long flushWindow() {
+        ByteBuffer written = window.duplicate();
+        ((Buffer) written).flip();
+        checksum.update(written);
+        window.force();
+        return windowStart + window.position();
+    }
+
+    private void map(long position, int size) throws IOException {
+        window = channel.map(FileChannel.MapMode.READ_WRITE, position, size);
+        window.order(ByteOrder.LITTLE_ENDIAN);
+        windowStart = position;
+    }
+
+}
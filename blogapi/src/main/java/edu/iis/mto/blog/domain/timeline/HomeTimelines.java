@@ -0,0 +1,110 @@
+package edu.iis.mto.blog.domain.timeline;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.TreeMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import edu.iis.mto.blog.domain.repository.BlogPostRepository;
+import edu.iis.mto.blog.domain.repository.TimelineEntryRepository;
+import edu.iis.mto.blog.dto.PostData;
+import edu.iis.mto.blog.dto.PostPage;
+
+/**
+ * Home timelines: posts of followed users, newest first. Posts of authors with at most
+ * {@code blog.timeline.fan-out-max-followers} followers are copied to the timelines of their followers when created and marked
+ * as fanned out (fan-out on write), posts of authors with more followers are merged in when a timeline is read (fan-out on
+ * read), so a post never costs more than that many inserts. The mark, not the current followers count, decides how a post is
+ * read, so posts stay in timelines when their author crosses the limit. Stored timelines are trimmed to
+ * {@code blog.timeline.max-entries} newest posts every {@code blog.timeline.trim-interval-ms}.
+ */
+@Component
+public class HomeTimelines {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(HomeTimelines.class);
+
+    private final TimelineEntryRepository timelineEntryRepository;
+
+    private final BlogPostRepository blogPostRepository;
+
+    private final int fanOutMaxFollowers;
+
+    private final int maxEntries;
+
+    public HomeTimelines(TimelineEntryRepository timelineEntryRepository, BlogPostRepository blogPostRepository,
+            @Value("${blog.timeline.fan-out-max-followers}") int fanOutMaxFollowers,
+            @Value("${blog.timeline.max-entries}") int maxEntries) {
+        this.timelineEntryRepository = timelineEntryRepository;
+        this.blogPostRepository = blogPostRepository;
+        this.fanOutMaxFollowers = fanOutMaxFollowers;
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * Stores new posts in the timelines of followers of their authors, in the transaction creating the posts.
+     */
+    public void postsCreated(Collection<Long> postIds) {
+        if (!postIds.isEmpty() && blogPostRepository.markFannedOut(postIds, fanOutMaxFollowers) > 0) {
+            timelineEntryRepository.fanOut(postIds);
+        }
+    }
+
+    /**
+     * Fills the timeline of a new follower with the latest fanned out posts of the followee, the others are read on demand.
+     */
+    public void followed(Long followerId, Long followeeId) {
+        timelineEntryRepository.backfill(followerId, followeeId, maxEntries);
+    }
+
+    public void unfollowed(Long followerId, Long followeeId) {
+        timelineEntryRepository.deleteByOwnerIdAndAuthorId(followerId, followeeId);
+    }
+
+    /**
+     * Keyset page of the timeline, posts with id lower than {@code beforeId}.
+     */
+    public PostPage read(Long userId, Long beforeId, int limit) {
+        long before = beforeId == null ? Long.MAX_VALUE : beforeId;
+        PageRequest candidates = PageRequest.of(0, limit + 1);
+        TreeMap<Long, PostData> posts = new TreeMap<>(Comparator.reverseOrder());
+        for (PostData post : timelineEntryRepository.findPostDataByOwnerIdBefore(userId, before, candidates)) {
+            posts.put(post.getId(), post);
+        }
+        for (PostData post : blogPostRepository.findPostDataOfFolloweesNotFannedOutBefore(userId, before, candidates)) {
+            posts.putIfAbsent(post.getId(), post);
+        }
+        List<PostData> merged = new ArrayList<>(posts.values());
+        if (merged.size() <= limit) {
+            return new PostPage(merged, null);
+        }
+        List<PostData> page = merged.subList(0, limit);
+        return new PostPage(page, page.get(limit - 1)
+                                      .getId());
+    }
+
+    @Scheduled(initialDelayString = "${blog.timeline.trim-interval-ms}", fixedDelayString = "${blog.timeline.trim-interval-ms}")
+    @Transactional
+    public int trim() {
+        int removed = 0;
+        for (Long ownerId : timelineEntryRepository.findOwnerIdsWithMoreEntriesThan(maxEntries)) {
+            List<Long> firstDropped = timelineEntryRepository.findPostIdsByOwnerId(ownerId, PageRequest.of(maxEntries, 1));
+            if (!firstDropped.isEmpty()) {
+                removed += timelineEntryRepository.deleteByOwnerIdUpTo(ownerId, firstDropped.get(0));
+            }
+        }
+        if (removed > 0) {
+            LOGGER.debug("{} timeline entries above {} per user removed", removed, maxEntries);
+        }
+        return removed;
+    }
+
+}
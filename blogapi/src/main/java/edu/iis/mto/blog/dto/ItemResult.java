@@ -0,0 +1,46 @@
+package edu.iis.mto.blog.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Outcome of a single item of a batch request: the id of the created entity or the reason it was rejected.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ItemResult {
+
+    private Long id;
+
+    private String error;
+
+    public ItemResult() {}
+
+    public ItemResult(Long id, String error) {
+        this.id = id;
+        this.error = error;
+    }
+
+    public static ItemResult created(Long id) {
+        return new ItemResult(id, null);
+    }
+
+    public static ItemResult failed(String error) {
+        return new ItemResult(null, error);
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+
+}
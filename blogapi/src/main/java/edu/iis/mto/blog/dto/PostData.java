@@ -1,10 +1,62 @@
 package edu.iis.mto.blog.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Post as returned by the api. List endpoints fill in the preview and the entry length only, the whole entry is read through
+ * the post entry endpoint.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
 public class PostData {
 
+    private Long id;
+
+    private Long authorId;
+
     private String entry;
+
+    private String preview;
+
+    private Integer entryLength;
+
     private int likesCount;
 
+    public PostData() {}
+
+    public PostData(Long id, String entry, int likesCount) {
+        this.id = id;
+        this.entry = entry;
+        this.likesCount = likesCount;
+    }
+
+    public PostData(Long id, String preview, int entryLength, int likesCount) {
+        this.id = id;
+        this.preview = preview;
+        this.entryLength = entryLength;
+        this.likesCount = likesCount;
+    }
+
+    public PostData(Long id, Long authorId, String preview, int entryLength, int likesCount) {
+        this(id, preview, entryLength, likesCount);
+        this.authorId = authorId;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getAuthorId() {
+        return authorId;
+    }
+
+    public void setAuthorId(Long authorId) {
+        this.authorId = authorId;
+    }
+
     public String getEntry() {
         return entry;
     }
@@ -13,6 +65,22 @@ public class PostData {
         this.entry = entry;
     }
 
+    public String getPreview() {
+        return preview;
+    }
+
+    public void setPreview(String preview) {
+        this.preview = preview;
+    }
+
+    public Integer getEntryLength() {
+        return entryLength;
+    }
+
+    public void setEntryLength(Integer entryLength) {
+        this.entryLength = entryLength;
+    }
+
     public int getLikesCount() {
         return likesCount;
     }
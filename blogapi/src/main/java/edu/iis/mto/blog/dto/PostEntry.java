@@ -0,0 +1,35 @@
+package edu.iis.mto.blog.dto;
+
+/**
+ * Requested range of a post entry together with the length of the whole entry.
+ */
+public class PostEntry {
+
+    private String text;
+
+    private int entryLength;
+
+    public PostEntry() {}
+
+    public PostEntry(String text, int entryLength) {
+        this.text = text;
+        this.entryLength = entryLength;
+    }
+
+    public String getText() {
+        return text;
+    }
+
+    public void setText(String text) {
+        this.text = text;
+    }
+
+    public int getEntryLength() {
+        return entryLength;
+    }
+
+    public void setEntryLength(int entryLength) {
+        this.entryLength = entryLength;
+    }
+
+}
@@ -0,0 +1,52 @@
+package edu.iis.mto.blog.dto;
+
+import java.util.List;
+
+public class PostPage {
+
+    private List<PostData> posts;
+
+    private Long nextCursor;
+
+    private long version;
+
+    public PostPage() {}
+
+    public PostPage(List<PostData> posts, Long nextCursor) {
+        this(posts, nextCursor, 0);
+    }
+
+    /**
+     * @param version version of the page read before its posts, the ETag of the served page is derived from it
+     */
+    public PostPage(List<PostData> posts, Long nextCursor, long version) {
+        this.posts = posts;
+        this.nextCursor = nextCursor;
+        this.version = version;
+    }
+
+    public List<PostData> getPosts() {
+        return posts;
+    }
+
+    public void setPosts(List<PostData> posts) {
+        this.posts = posts;
+    }
+
+    public Long getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(Long nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
+}
@@ -0,0 +1,35 @@
+package edu.iis.mto.blog.dto;
+
+/**
+ * User found through likes, with the number of likes relating it to the queried user.
+ */
+public class RelatedUser {
+
+    private Long userId;
+
+    private int likes;
+
+    public RelatedUser() {}
+
+    public RelatedUser(Long userId, int likes) {
+        this.userId = userId;
+        this.likes = likes;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public int getLikes() {
+        return likes;
+    }
+
+    public void setLikes(int likes) {
+        this.likes = likes;
+    }
+
+}
@@ -1,5 +1,7 @@
 package edu.iis.mto.blog.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
 public class UserData {
 
     private Long id;
@@ -10,6 +12,21 @@ public class UserData {
 
     private String email;
 
+    /**
+     * Version of the user read along with the data, the ETag of the served data is derived from it.
+     */
+    @JsonIgnore
+    private long version;
+
+    public UserData() {}
+
+    public UserData(Long id, String firstName, String lastName, String email) {
+        this.id = id;
+        this.firstName = firstName;
+        this.lastName = lastName;
+        this.email = email;
+    }
+
     public Long getId() {
         return id;
     }
@@ -42,4 +59,12 @@ public class UserData {
         this.email = email;
     }
 
+    public long getVersion() {
+        return version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
 }
@@ -2,6 +2,7 @@ package edu.iis.mto.blog.mapper;
 
 import org.modelmapper.ModelMapper;
 import org.modelmapper.PropertyMap;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Component;
 
 import edu.iis.mto.blog.api.request.PostRequest;
@@ -12,6 +13,7 @@ import edu.iis.mto.blog.dto.PostData;
 import edu.iis.mto.blog.dto.UserData;
 
 @Component
+@ConditionalOnProperty(name = "blog.mapper", havingValue = "modelmapper")
 public class BlogDataMapperImpl implements BlogDataMapper {
 
     private final ModelMapper mapper = new ModelMapper();
@@ -45,8 +47,7 @@ public class BlogDataMapperImpl implements BlogDataMapper {
 
             @Override
             protected void configure() {
-                map().setLikesCount(source.getLikes()
-                                          .size());
+                map().setLikesCount(source.getLikesCount());
 
             }
         };
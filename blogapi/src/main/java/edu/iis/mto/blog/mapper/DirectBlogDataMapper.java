@@ -0,0 +1,62 @@
+package edu.iis.mto.blog.mapper;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import edu.iis.mto.blog.api.request.PostRequest;
+import edu.iis.mto.blog.api.request.UserRequest;
+import edu.iis.mto.blog.domain.model.BlogPost;
+import edu.iis.mto.blog.domain.model.User;
+import edu.iis.mto.blog.dto.PostData;
+import edu.iis.mto.blog.dto.UserData;
+
+/**
+ * Hand written mapper with the same results as {@link BlogDataMapperImpl}, without reflection or intermediate objects.
+ * Enabled unless {@code blog.mapper} is set to {@code modelmapper}.
+ */
+@Component
+@ConditionalOnProperty(name = "blog.mapper", havingValue = "direct", matchIfMissing = true)
+public class DirectBlogDataMapper implements BlogDataMapper {
+
+    @Override
+    public User mapToEntity(UserRequest userRequest) {
+        requireSource(userRequest);
+        User user = new User();
+        user.setFirstName(userRequest.getFirstName());
+        user.setLastName(userRequest.getLastName());
+        user.setEmail(userRequest.getEmail());
+        return user;
+    }
+
+    @Override
+    public BlogPost mapToEntity(PostRequest postRequest) {
+        requireSource(postRequest);
+        BlogPost blogPost = new BlogPost();
+        blogPost.setEntry(postRequest.getEntry());
+        return blogPost;
+    }
+
+    @Override
+    public UserData mapToDto(User user) {
+        requireSource(user);
+        UserData userData = new UserData(user.getId(), user.getFirstName(), user.getLastName(), user.getEmail());
+        userData.setVersion(user.getVersion());
+        return userData;
+    }
+
+    @Override
+    public PostData mapToDto(BlogPost blogPost) {
+        requireSource(blogPost);
+        PostData postData = new PostData(blogPost.getId(), blogPost.getEntry(), blogPost.getLikesCount());
+        postData.setPreview(blogPost.getPreview());
+        postData.setEntryLength(blogPost.getEntryLength());
+        return postData;
+    }
+
+    private void requireSource(Object source) {
+        if (source == null) {
+            throw new IllegalArgumentException("source cannot be null");
+        }
+    }
+
+}
@@ -0,0 +1,101 @@
+package edu.iis.mto.blog.metrics;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.aop.framework.AopProxyUtils;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+
+import edu.iis.mto.blog.domain.errors.DomainError;
+import edu.iis.mto.blog.domain.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Times calls of {@code BlogService}/{@code DataFinder} implementations and of the repositories and counts domain errors by
+ * their code. Runs outside of the transaction and cache advice, so timings include commit and cache hits. Only the outermost
+ * service call of a thread is timed, services delegating to other services ({@code WriteBehindBlogService}) are counted once.
+ */
+@Aspect
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class CallMetricsAspect {
+
+    public static final String SERVICE_CALLS = "blog.service.calls";
+
+    public static final String REPOSITORY_CALLS = "blog.repository.calls";
+
+    public static final String DOMAIN_ERRORS = "blog.domain.errors";
+
+    private static final String NO_EXCEPTION = "none";
+
+    private final MeterRegistry registry;
+
+    private final Map<Class<?>, String> repositoryNames = new ConcurrentHashMap<>();
+
+    private final ThreadLocal<Boolean> inServiceCall = ThreadLocal.withInitial(() -> Boolean.FALSE);
+
+    public CallMetricsAspect(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Around("execution(* edu.iis.mto.blog.services.*.*(..))")
+    public Object timeServiceCall(ProceedingJoinPoint call) throws Throwable {
+        if (inServiceCall.get()) {
+            return call.proceed();
+        }
+        inServiceCall.set(Boolean.TRUE);
+        try {
+            return time(call, SERVICE_CALLS, "service", AopUtils.getTargetClass(call.getTarget())
+                                                                .getSimpleName());
+        } finally {
+            inServiceCall.remove();
+        }
+    }
+
+    @Around("execution(* edu.iis.mto.blog.domain.repository.*Repository+.*(..))")
+    public Object timeRepositoryCall(ProceedingJoinPoint call) throws Throwable {
+        return time(call, REPOSITORY_CALLS, "repository", repositoryNames.computeIfAbsent(call.getThis()
+                                                                                            .getClass(),
+                proxy -> repositoryName(call.getThis())));
+    }
+
+    private Object time(ProceedingJoinPoint call, String metric, String typeTag, String type) throws Throwable {
+        String method = call.getSignature()
+                            .getName();
+        String exception = NO_EXCEPTION;
+        Timer.Sample sample = Timer.start(registry);
+        try {
+            return call.proceed();
+        } catch (Throwable e) {
+            exception = e.getClass()
+                         .getSimpleName();
+            if (e instanceof DomainError) {
+                registry.counter(DOMAIN_ERRORS, "error", ((DomainError) e).getCode(), typeTag, type)
+                        .increment();
+            }
+            throw e;
+        } finally {
+            sample.stop(registry.timer(metric, typeTag, type, "method", method, "exception", exception));
+        }
+    }
+
+    /**
+     * Repositories are proxies of {@code SimpleJpaRepository}; they are named after the repository interface of this application.
+     */
+    private static String repositoryName(Object repository) {
+        for (Class<?> proxied : AopProxyUtils.proxiedUserInterfaces(repository)) {
+            if (proxied.getPackage()
+                       .equals(UserRepository.class.getPackage())) {
+                return proxied.getSimpleName();
+            }
+        }
+        return AopUtils.getTargetClass(repository)
+                       .getSimpleName();
+    }
+
+}
@@ -0,0 +1,53 @@
+package edu.iis.mto.blog.metrics;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Counts SQL statements executed between {@link #start()} and {@link #clear()} by the current thread and by tasks it handed
+ * over with {@link #carry(Runnable)}; statements executed outside of such a section, e.g. by background jobs, are not counted.
+ */
+public final class SqlStatementCounter {
+
+    private static final ThreadLocal<AtomicInteger> COUNT = new ThreadLocal<>();
+
+    private SqlStatementCounter() {}
+
+    /**
+     * @return count of the started section, still growing while tasks carrying it run
+     */
+    public static AtomicInteger start() {
+        AtomicInteger count = new AtomicInteger();
+        COUNT.set(count);
+        return count;
+    }
+
+    public static void increment() {
+        AtomicInteger count = COUNT.get();
+        if (count != null) {
+            count.incrementAndGet();
+        }
+    }
+
+    public static void clear() {
+        COUNT.remove();
+    }
+
+    /**
+     * Makes the statements {@code task} executes on another thread count towards the section of the calling thread.
+     */
+    public static Runnable carry(Runnable task) {
+        AtomicInteger count = COUNT.get();
+        if (count == null) {
+            return task;
+        }
+        return () -> {
+            COUNT.set(count);
+            try {
+                task.run();
+            } finally {
+                COUNT.remove();
+            }
+        };
+    }
+
+}
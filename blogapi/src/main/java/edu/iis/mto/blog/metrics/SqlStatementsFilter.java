@@ -0,0 +1,88 @@
+package edu.iis.mto.blog.metrics;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Records the number of SQL statements each request executed, tagged like {@code http.server.requests}. Requests processed
+ * asynchronously are recorded once the asynchronous processing completes.
+ */
+public class SqlStatementsFilter extends OncePerRequestFilter {
+
+    public static final String REQUEST_STATEMENTS = "blog.request.sql.statements";
+
+    private static final String UNKNOWN_URI = "UNKNOWN";
+
+    private final MeterRegistry registry;
+
+    public SqlStatementsFilter(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        AtomicInteger statements = SqlStatementCounter.start();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            SqlStatementCounter.clear();
+            if (isAsyncStarted(request)) {
+                request.getAsyncContext()
+                       .addListener(new RecordingListener(request, statements));
+            } else {
+                record(request, statements.get());
+            }
+        }
+    }
+
+    private void record(HttpServletRequest request, int statements) {
+        Object uri = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        DistributionSummary.builder(REQUEST_STATEMENTS)
+                           .baseUnit("statements")
+                           .tags("method", request.getMethod(), "uri", uri == null ? UNKNOWN_URI : uri.toString())
+                           .register(registry)
+                           .record(statements);
+    }
+
+    private class RecordingListener implements AsyncListener {
+
+        private final HttpServletRequest request;
+
+        private final AtomicInteger statements;
+
+        RecordingListener(HttpServletRequest request, AtomicInteger statements) {
+            this.request = request;
+            this.statements = statements;
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            record(request, statements.get());
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {}
+
+        @Override
+        public void onError(AsyncEvent event) {}
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {}
+
+    }
+
+}
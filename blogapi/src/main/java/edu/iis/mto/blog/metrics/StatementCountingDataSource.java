@@ -0,0 +1,91 @@
+package edu.iis.mto.blog.metrics;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+/**
+ * Reports every statement execution, a JDBC batch counting once, to {@link SqlStatementCounter}. Covers JPA as well as plain
+ * JDBC access.
+ */
+public class StatementCountingDataSource extends DelegatingDataSource implements Closeable {
+
+    public StatementCountingDataSource(DataSource targetDataSource) {
+        super(targetDataSource);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return countingConnection(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return countingConnection(super.getConnection(username, password));
+    }
+
+    /**
+     * Closes the pool behind, as the context sees only this data source.
+     */
+    @Override
+    public void close() throws IOException {
+        if (getTargetDataSource() instanceof Closeable) {
+            ((Closeable) getTargetDataSource()).close();
+        }
+    }
+
+    private static Connection countingConnection(Connection connection) {
+        return proxy(Connection.class, connection, (method, result) -> {
+            if (result instanceof CallableStatement) {
+                return proxy(CallableStatement.class, result, StatementCountingDataSource::countExecution);
+            }
+            if (result instanceof PreparedStatement) {
+                return proxy(PreparedStatement.class, result, StatementCountingDataSource::countExecution);
+            }
+            if (result instanceof Statement) {
+                return proxy(Statement.class, result, StatementCountingDataSource::countExecution);
+            }
+            return result;
+        });
+    }
+
+    private static Object countExecution(Method method, Object result) {
+        if (method.getName()
+                  .startsWith("execute")) {
+            SqlStatementCounter.increment();
+        }
+        return result;
+    }
+
+    private static <T> T proxy(Class<T> type, Object target, ResultHandler handler) {
+        InvocationHandler invocationHandler = (proxy, method, args) -> {
+            try {
+                return handler.handle(method, method.invoke(target, args));
+            } catch (InvocationTargetException e) {
+                throw e.getTargetException();
+            }
+        };
+        return type.cast(Proxy.newProxyInstance(StatementCountingDataSource.class.getClassLoader(), new Class<?>[] { type },
+                invocationHandler));
+    }
+
+    @FunctionalInterface
+    private interface ResultHandler {
+
+        Object handle(Method method, Object result);
+
+    }
+
+}
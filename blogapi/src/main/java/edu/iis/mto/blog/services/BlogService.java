@@ -1,7 +1,10 @@
 package edu.iis.mto.blog.services;
 
+import java.util.List;
+
 import edu.iis.mto.blog.api.request.PostRequest;
 import edu.iis.mto.blog.api.request.UserRequest;
+import edu.iis.mto.blog.dto.ItemResult;
 
 public interface BlogService {
 
@@ -9,6 +12,26 @@ public interface BlogService {
 
     Long createPost(Long userId, PostRequest postRequest);
 
+    /**
+     * Creates all valid users in one transaction; results are in request order.
+     */
+    List<ItemResult> createUsers(List<UserRequest> userRequests);
+
+    /**
+     * Creates all valid posts of the user in one transaction; results are in request order.
+     */
+    List<ItemResult> createPosts(Long userId, List<PostRequest> postRequests);
+
     boolean addLikeToPost(Long userId, Long postId);
 
+    /**
+     * @return {@code false} when the user already follows the followee
+     */
+    boolean followUser(Long followerId, Long followeeId);
+
+    /**
+     * @return {@code false} when the user does not follow the followee
+     */
+    boolean unfollowUser(Long followerId, Long followeeId);
+
 }
@@ -1,18 +1,71 @@
 package edu.iis.mto.blog.services;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 import edu.iis.mto.blog.dto.PostData;
+import edu.iis.mto.blog.dto.PostEntry;
+import edu.iis.mto.blog.dto.PostPage;
+import edu.iis.mto.blog.dto.RelatedUser;
 import edu.iis.mto.blog.dto.UserData;
 
 public interface DataFinder {
 
+    /**
+     * Possibly cached; carries the version it was read with.
+     */
     UserData getUserData(Long userId);
 
-    List<UserData> findUsers(String searchString);
+    /**
+     * Changes whenever the data returned by {@link #getUserData(Long)} changes.
+     */
+    long getUserVersion(Long userId);
+
+    List<UserData> findUsers(String searchString, int page, int size);
 
     PostData getPost(Long userId);
 
-    List<PostData> getUserPosts(Long userId);
+    /**
+     * Reads at most {@code length} characters of the post entry starting at {@code offset}, or the rest of the entry when
+     * {@code length} is {@code null}. Offset, length and the returned entry length are in the character units of the database,
+     * UTF-16 code units on H2, so a range may end inside a surrogate pair.
+     */
+    PostEntry getPostEntry(Long postId, int offset, Integer length);
+
+    /**
+     * Possibly cached; carries the version of {@link #getUserPostsVersion(Long, Long, int)} read before its posts.
+     */
+    PostPage getUserPosts(Long userId, Long afterId, int limit);
+
+    /**
+     * Changes whenever the page returned by {@link #getUserPosts(Long, Long, int)} for the same arguments changes.
+     */
+    long getUserPostsVersion(Long userId, Long afterId, int limit);
+
+    /**
+     * Home timeline of the user: posts of followed users with id lower than {@code beforeId}, newest first.
+     */
+    PostPage getTimeline(Long userId, Long beforeId, int limit);
+
+    /**
+     * Most liked posts of the author, or of all authors when {@code authorId} is {@code null}, most liked first; posts carry
+     * their id, author and likes count only.
+     */
+    List<PostData> getTopLikedPosts(Long authorId, int limit);
+
+    /**
+     * Users who liked posts of the user, with the number of liked posts, most likes first.
+     */
+    List<RelatedUser> getLikersOfUserPosts(Long userId, int limit);
+
+    /**
+     * Other users who liked the same posts as the user, with the number of such posts, most first.
+     */
+    List<RelatedUser> getUsersWithCommonLikes(Long userId, int limit);
+
+    /**
+     * Passes all posts of the user to {@code consumer} one by one, in id order, without collecting them.
+     */
+    void exportUserPosts(Long userId, Consumer<PostData> consumer);
 
 }
@@ -0,0 +1,4 @@
+-- One-off migration of an existing MySQL database (prod profile) for the preview and entry_length columns of blog_post.
+-- ddl-auto=update adds both columns filled with '' and 0, run this right after the first start of the new version so
+-- list queries, which read these columns instead of the entry, return previews of older posts too.
+update blog_post set preview = left(entry, 200), entry_length = char_length(entry) where entry_length = 0;
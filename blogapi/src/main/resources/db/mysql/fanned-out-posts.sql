@@ -0,0 +1,4 @@
+-- One-off migration of an existing MySQL database (prod profile) for the fanned_out column of blog_post.
+-- ddl-auto=update adds the column filled with false, so all older posts are read on demand; run this right after the first
+-- start of the new version so posts already stored in timelines are read from there only.
+update blog_post set fanned_out = true where id in (select post_id from timeline_entry);
@@ -0,0 +1,8 @@
+-- One-off migration of an existing MySQL database (prod profile) to pooled id generation of users and posts.
+-- MySQL has no sequences, so Hibernate keeps the next value of each sequence in a single row table and reserves
+-- ids (next_val - 49 .. next_val] per read. Run before the first start of the new version, the tables must start
+-- 50 above the highest id in use. The auto_increment columns can stay as they are, ids are now always supplied.
+create table if not exists user_seq (next_val bigint);
+insert into user_seq (next_val) select coalesce(max(id), 0) + 50 from user;
+create table if not exists blog_post_seq (next_val bigint);
+insert into blog_post_seq (next_val) select coalesce(max(id), 0) + 50 from blog_post;
@@ -1,11 +1,14 @@
 --this script initiates db for h2 db (used in test profile)
-insert into user (account_status, email, first_name, last_name) values ('CONFIRMED', 'john@domain.com', 'John', 'Steward')
-insert into user (account_status, email, first_name) values ('NEW', 'brian@domain.com', 'Brian')
-insert into user (account_status, email, first_name, last_name) values ('REMOVED', 'jan@domain.com', 'jan', 'kowalski')
-insert into user (account_status, email, first_name, last_name) values ('CONFIRMED', 'owner@domain.com', 'postOwner', 'lastname')
-insert into user (account_status, email, first_name, last_name) values ('CONFIRMED', 'owner2@domain.com', 'postOwner', 'otherlastname')
-insert into blog_post values (null, 'Test post by confirmed user', 4)
-insert into blog_post values (null, 'Secodn test post by confirmed user', 4)
-insert into blog_post values (null, 'post with no likes', 5)
-insert into blog_post values (null, ' test post by confirmed user with id 1', 1)
-insert into blog_post values (null, 'Removed user post', 3)
\ No newline at end of file
+insert into user (id, version, account_status, email, first_name, last_name, followers_count) values (1, 0, 'CONFIRMED', 'john@domain.com', 'John', 'Steward', 0)
+insert into user (id, version, account_status, email, first_name, followers_count) values (2, 0, 'NEW', 'brian@domain.com', 'Brian', 0)
+insert into user (id, version, account_status, email, first_name, last_name, followers_count) values (3, 0, 'REMOVED', 'jan@domain.com', 'jan', 'kowalski', 0)
+insert into user (id, version, account_status, email, first_name, last_name, followers_count) values (4, 0, 'CONFIRMED', 'owner@domain.com', 'postOwner', 'lastname', 0)
+insert into user (id, version, account_status, email, first_name, last_name, followers_count) values (5, 0, 'CONFIRMED', 'owner2@domain.com', 'postOwner', 'otherlastname', 0)
+insert into blog_post (id, version, entry, preview, entry_length, likes_count, user_id) values (1, 0, 'Test post by confirmed user', 'Test post by confirmed user', 27, 0, 4)
+insert into blog_post (id, version, entry, preview, entry_length, likes_count, user_id) values (2, 0, 'Secodn test post by confirmed user', 'Secodn test post by confirmed user', 34, 0, 4)
+insert into blog_post (id, version, entry, preview, entry_length, likes_count, user_id) values (3, 0, 'post with no likes', 'post with no likes', 18, 0, 5)
+insert into blog_post (id, version, entry, preview, entry_length, likes_count, user_id) values (4, 0, ' test post by confirmed user with id 1', ' test post by confirmed user with id 1', 38, 0, 1)
+insert into blog_post (id, version, entry, preview, entry_length, likes_count, user_id) values (5, 0, 'Removed user post', 'Removed user post', 17, 0, 3)
+--ids are reserved by the pooled optimizer as (sequence value - 49 .. sequence value], so next ids follow the rows above
+alter sequence user_seq restart with 55
+alter sequence blog_post_seq restart with 55
\ No newline at end of file
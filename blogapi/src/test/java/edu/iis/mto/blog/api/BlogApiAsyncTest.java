@@ -0,0 +1,103 @@
+package edu.iis.mto.blog.api;
+
+import static org.hamcrest.Matchers.startsWith;
+import static org.junit.Assert.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import edu.iis.mto.blog.domain.errors.DomainError;
+import edu.iis.mto.blog.dto.PostEntry;
+import edu.iis.mto.blog.services.BlogService;
+import edu.iis.mto.blog.services.DataFinder;
+
+@RunWith(SpringRunner.class)
+@WebMvcTest(BlogApi.class)
+@TestPropertySource(properties = { "blog.api.execution=async", "blog.api.executor.core-size=1", "blog.api.executor.max-size=1",
+        "blog.api.executor.queue-capacity=0" })
+public class BlogApiAsyncTest {
+
+    @Autowired
+    private MockMvc mvc;
+
+    @MockBean
+    private BlogService blogService;
+
+    @MockBean
+    private DataFinder finder;
+
+    @Test
+    public void shouldCallServiceOnApiExecutorThread() throws Exception {
+        AtomicReference<String> thread = new AtomicReference<>();
+        Mockito.when(finder.getPostEntry(1L, 0, null))
+               .thenAnswer(invocation -> {
+                   thread.set(Thread.currentThread()
+                                    .getName());
+                   return new PostEntry("entry", 5);
+               });
+
+        MvcResult result = mvc.perform(get("/blog/post/{id}/entry", 1))
+                              .andExpect(request().asyncStarted())
+                              .andReturn();
+        mvc.perform(asyncDispatch(result))
+           .andExpect(status().isOk());
+
+        assertThat(thread.get(), startsWith("blog-api-"));
+    }
+
+    @Test
+    public void shouldHandleErrorOfServiceCallAfterDispatch() throws Exception {
+        Mockito.when(finder.getPostEntry(1L, 0, null))
+               .thenThrow(new DomainError(DomainError.POST_NOT_FOUND));
+
+        MvcResult result = mvc.perform(get("/blog/post/{id}/entry", 1))
+                              .andExpect(request().asyncStarted())
+                              .andReturn();
+        mvc.perform(asyncDispatch(result))
+           .andExpect(status().isNotFound());
+    }
+
+    @Test
+    public void shouldAnswerServiceUnavailableWhenExecutorIsSaturated() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Mockito.when(finder.getPostEntry(1L, 0, null))
+               .thenAnswer(invocation -> {
+                   started.countDown();
+                   release.await(5, TimeUnit.SECONDS);
+                   return new PostEntry("entry", 5);
+               });
+
+        MvcResult blocked = mvc.perform(get("/blog/post/{id}/entry", 1))
+                               .andReturn();
+        started.await(5, TimeUnit.SECONDS);
+        try {
+            mvc.perform(get("/blog/post/{id}/entry", 1))
+               .andExpect(status().isServiceUnavailable())
+               .andExpect(header().string(HttpHeaders.RETRY_AFTER, "1"));
+        } finally {
+            release.countDown();
+        }
+        mvc.perform(asyncDispatch(blocked))
+           .andExpect(status().isOk());
+    }
+
+}
@@ -2,15 +2,25 @@ package edu.iis.mto.blog.api;
 
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Consumer;
+
+import org.hamcrest.Matchers;
+import org.junit.Assert;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.junit4.SpringRunner;
 import org.springframework.test.web.servlet.MockMvc;
@@ -18,9 +28,17 @@ import org.springframework.dao.DataIntegrityViolationException;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
 
+import edu.iis.mto.blog.api.request.PostRequest;
 import edu.iis.mto.blog.api.request.UserRequest;
 import edu.iis.mto.blog.dto.Id;
+import edu.iis.mto.blog.dto.ItemResult;
+import edu.iis.mto.blog.dto.PostData;
+import edu.iis.mto.blog.dto.PostEntry;
+import edu.iis.mto.blog.dto.PostPage;
+import edu.iis.mto.blog.dto.RelatedUser;
+import edu.iis.mto.blog.dto.UserData;
 import edu.iis.mto.blog.services.BlogService;
 import edu.iis.mto.blog.services.DataFinder;
 import edu.iis.mto.blog.domain.errors.DomainError;
@@ -74,7 +92,205 @@ public class BlogApiTest {
                 .content(content)).andExpect(status().isConflict());
     }
 
+    @Test
+    public void getUserPostsShouldReturnNextCursorInHeaderWhenMorePostsAreAvailable() throws Exception {
+        PostPage page = new PostPage(Collections.singletonList(new PostData(7L, "entry", 0)), 7L);
+        Mockito.when(finder.getUserPosts(1L, 3L, 1))
+               .thenReturn(page);
+
+        mvc.perform(get("/blog/user/{id}/post", 1).param("after", "3")
+                                                  .param("limit", "1"))
+           .andExpect(status().isOk())
+           .andExpect(header().string(BlogApi.NEXT_CURSOR_HEADER, "7"))
+           .andExpect(content().string(writeJson(page.getPosts())));
+    }
+
+    @Test
+    public void getTimelineShouldReturnNextCursorInHeaderWhenMorePostsAreAvailable() throws Exception {
+        PostPage page = new PostPage(Collections.singletonList(new PostData(9L, 2L, "preview", 7, 0)), 9L);
+        Mockito.when(finder.getTimeline(1L, 12L, 1))
+               .thenReturn(page);
+
+        mvc.perform(get("/blog/user/{id}/timeline", 1).param("before", "12")
+                                                      .param("limit", "1"))
+           .andExpect(status().isOk())
+           .andExpect(header().string(BlogApi.NEXT_CURSOR_HEADER, "9"))
+           .andExpect(content().json("[{\"id\":9,\"authorId\":2,\"preview\":\"preview\"}]"));
+    }
+
+    @Test
+    public void getTopLikedPostsShouldReturnRankingOfAuthor() throws Exception {
+        PostData post = new PostData();
+        post.setId(3L);
+        post.setAuthorId(5L);
+        post.setLikesCount(12);
+        Mockito.when(finder.getTopLikedPosts(5L, 10))
+               .thenReturn(Collections.singletonList(post));
+
+        mvc.perform(get("/blog/post/top").param("author", "5"))
+           .andExpect(status().isOk())
+           .andExpect(content().json("[{\"id\":3,\"authorId\":5,\"likesCount\":12}]", true));
+    }
+
+    @Test
+    public void getUsersWithCommonLikesShouldReturnCountsOfCommonLikes() throws Exception {
+        Mockito.when(finder.getUsersWithCommonLikes(1L, 50))
+               .thenReturn(Collections.singletonList(new RelatedUser(4L, 7)));
+
+        mvc.perform(get("/blog/user/{id}/common-likes", 1))
+           .andExpect(status().isOk())
+           .andExpect(content().json("[{\"userId\":4,\"likes\":7}]", true));
+    }
+
+    @Test
+    public void getUserPostsShouldCapRequestedPageSize() throws Exception {
+        Mockito.when(finder.getUserPosts(1L, null, 500))
+               .thenReturn(new PostPage(Collections.emptyList(), null));
+
+        mvc.perform(get("/blog/user/{id}/post", 1).param("limit", "100000"))
+           .andExpect(status().isOk())
+           .andExpect(header().doesNotExist(BlogApi.NEXT_CURSOR_HEADER));
+    }
+
+    @Test
+    public void findUserShouldCapRequestedPageSizeToMaxSearchResults() throws Exception {
+        Mockito.when(finder.findUsers("john", 1, 100))
+               .thenReturn(Collections.emptyList());
+
+        mvc.perform(get("/blog/user/find").param("searchString", "john")
+                                          .param("page", "1")
+                                          .param("size", "5000"))
+           .andExpect(status().isOk())
+           .andExpect(content().string("[]"));
+    }
+
+    @Test
+    public void postBlogUsersInBatchShouldReturnResultOfEachItem() throws Exception {
+        List<UserRequest> users = Arrays.asList(new UserRequest("John", "Steward", "john@domain.com"),
+                new UserRequest("John", "Steward", "john@domain.com"));
+        List<ItemResult> results = Arrays.asList(ItemResult.created(1L), ItemResult.failed(DomainError.EMAIL_TAKEN));
+        Mockito.when(blogService.createUsers(users))
+               .thenReturn(results);
+
+        mvc.perform(post("/blog/user/batch").contentType(MediaType.APPLICATION_JSON_UTF8)
+                                            .content(writeJson(users)))
+           .andExpect(status().isOk())
+           .andExpect(content().json("[{\"id\":1},{\"error\":\"" + DomainError.EMAIL_TAKEN + "\"}]", true));
+    }
+
+    @Test
+    public void postBlogPostsInBatchShouldRejectTooManyItems() throws Exception {
+        List<PostRequest> posts = Collections.nCopies(1001, new PostRequest());
+
+        mvc.perform(post("/blog/user/{id}/post/batch", 1).contentType(MediaType.APPLICATION_JSON_UTF8)
+                                                        .content(writeJson(posts)))
+           .andExpect(status().isPayloadTooLarge());
+        Mockito.verifyZeroInteractions(blogService);
+    }
+
+    @Test
+    public void exportUserPostsShouldWriteOnePostPerLine() throws Exception {
+        Mockito.doAnswer(invocation -> {
+            Consumer<PostData> consumer = invocation.getArgument(1);
+            consumer.accept(new PostData(1L, "first", 0));
+            consumer.accept(new PostData(2L, "second", 3));
+            return null;
+        })
+               .when(finder)
+               .exportUserPosts(Mockito.eq(1L), Mockito.any());
+
+        mvc.perform(get("/blog/user/{id}/post/export", 1))
+           .andExpect(status().isOk())
+           .andExpect(content().contentTypeCompatibleWith(BlogApi.NDJSON_VALUE))
+           .andExpect(content().string(writeJson(new PostData(1L, "first", 0)) + "\n" + writeJson(new PostData(2L, "second", 3)) + "\n"));
+    }
+
+    @Test
+    public void getPostEntryShouldReturnRequestedRangeAndWholeEntryLength() throws Exception {
+        Mockito.when(finder.getPostEntry(1L, 10, 5))
+               .thenReturn(new PostEntry("range", 1000));
+
+        mvc.perform(get("/blog/post/{id}/entry", 1).param("offset", "10")
+                                                   .param("length", "5"))
+           .andExpect(status().isOk())
+           .andExpect(header().string(BlogApi.ENTRY_LENGTH_HEADER, "1000"))
+           .andExpect(content().string("range"));
+    }
+
+    @Test
+    public void shouldAnswerWithoutAsyncDispatchInSyncExecution() throws Exception {
+        Mockito.when(finder.getPostEntry(1L, 0, null))
+               .thenReturn(new PostEntry("entry", 5));
+
+        mvc.perform(get("/blog/post/{id}/entry", 1))
+           .andExpect(request().asyncNotStarted())
+           .andExpect(status().isOk())
+           .andExpect(content().string("entry"));
+    }
+
+    @Test
+    public void getUserShouldAnswerNotModifiedWithoutReadingUserWhenETagMatches() throws Exception {
+        Mockito.when(finder.getUserVersion(1L))
+               .thenReturn(26L);
+
+        mvc.perform(get("/blog/user/{id}", 1).header(HttpHeaders.IF_NONE_MATCH, "\"1a\""))
+           .andExpect(status().isNotModified())
+           .andExpect(header().string(HttpHeaders.ETAG, "W/\"1a\""))
+           .andExpect(content().string(""));
+        Mockito.verify(finder, Mockito.never())
+               .getUserData(1L);
+    }
+
+    @Test
+    public void getUserPostsShouldReturnPostsWithETagWhenETagDoesNotMatch() throws Exception {
+        Mockito.when(finder.getUserPostsVersion(1L, null, 50))
+               .thenReturn(27L);
+        Mockito.when(finder.getUserPosts(1L, null, 50))
+               .thenReturn(new PostPage(Collections.emptyList(), null, 27L));
+
+        mvc.perform(get("/blog/user/{id}/post", 1).header(HttpHeaders.IF_NONE_MATCH, "\"1a\""))
+           .andExpect(status().isOk())
+           .andExpect(header().string(HttpHeaders.ETAG, "W/\"1b\""))
+           .andExpect(content().string("[]"));
+    }
+
+    @Test
+    public void getUserShouldTagCachedUserWithVersionItWasReadWith() throws Exception {
+        Mockito.when(finder.getUserVersion(1L))
+               .thenReturn(27L);
+        UserData cached = new UserData(1L, "John", "Steward", "john@domain.com");
+        cached.setVersion(26L);
+        Mockito.when(finder.getUserData(1L))
+               .thenReturn(cached);
+
+        mvc.perform(get("/blog/user/{id}", 1).header(HttpHeaders.IF_NONE_MATCH, "\"19\""))
+           .andExpect(status().isOk())
+           .andExpect(header().string(HttpHeaders.ETAG, "W/\"1a\""))
+           .andExpect(content().string(writeJson(cached)));
+    }
+
+    @Test
+    public void getUserPostsShouldAnswerInCborWhenAcceptedByClient() throws Exception {
+        List<PostData> posts = Collections.singletonList(new PostData(5L, "preview", 300, 2));
+        Mockito.when(finder.getUserPosts(1L, null, 50))
+               .thenReturn(new PostPage(posts, null));
+
+        byte[] body = mvc.perform(get("/blog/user/{id}/post", 1).accept(BlogApi.CBOR_VALUE))
+                         .andExpect(status().isOk())
+                         .andExpect(content().contentTypeCompatibleWith(BlogApi.CBOR_VALUE))
+                         .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT))
+                         .andReturn()
+                         .getResponse()
+                         .getContentAsByteArray();
+
+        PostData[] decoded = new ObjectMapper(new CBORFactory()).readValue(body, PostData[].class);
+        Assert.assertThat(decoded[0].getPreview(), Matchers.equalTo("preview"));
+        Assert.assertThat(decoded[0].getEntryLength(), Matchers.equalTo(300));
+    }
 
+    /**
+     * Performs a request to an endpoint answering asynchronously, followed by the dispatch writing its response.
+     */
     private String writeJson(Object obj) throws JsonProcessingException {
         return new ObjectMapper().writer().writeValueAsString(obj);
     }
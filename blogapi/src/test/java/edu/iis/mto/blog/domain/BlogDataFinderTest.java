@@ -0,0 +1,263 @@
+package edu.iis.mto.blog.domain;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import edu.iis.mto.blog.domain.errors.DomainError;
+import edu.iis.mto.blog.domain.graph.LikeGraph;
+import edu.iis.mto.blog.domain.leaderboard.LikesLeaderboard;
+import edu.iis.mto.blog.domain.model.AccountStatus;
+import edu.iis.mto.blog.domain.model.BlogPost;
+import edu.iis.mto.blog.domain.model.LikePost;
+import edu.iis.mto.blog.domain.model.User;
+import edu.iis.mto.blog.domain.repository.BlogPostRepository;
+import edu.iis.mto.blog.domain.routing.RecentWrites;
+import edu.iis.mto.blog.domain.search.UserSearchIndex;
+import edu.iis.mto.blog.domain.timeline.HomeTimelines;
+import edu.iis.mto.blog.dto.PostData;
+import edu.iis.mto.blog.dto.PostPage;
+import edu.iis.mto.blog.dto.UserData;
+import edu.iis.mto.blog.mapper.DirectBlogDataMapper;
+import edu.iis.mto.blog.services.DataFinder;
+
+@RunWith(SpringRunner.class)
+@DataJpaTest
+@Import({BlogDataFinder.class, DirectBlogDataMapper.class, UserSearchIndex.class, RecentWrites.class, HomeTimelines.class,
+        LikesLeaderboard.class, LikeGraph.class})
+@TestPropertySource(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+public class BlogDataFinderTest {
+
+    private static final int PAGE_SIZE = 100;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private DataFinder finder;
+
+    @Autowired
+    private UserSearchIndex userSearchIndex;
+
+    @Autowired
+    private BlogPostRepository blogPostRepository;
+
+    private Statistics statistics;
+
+    private User owner;
+
+    private User liker;
+
+    @Before
+    public void setUp() {
+        statistics = entityManager.getEntityManager()
+                                  .getEntityManagerFactory()
+                                  .unwrap(SessionFactory.class)
+                                  .getStatistics();
+        owner = persistUser("owner@domain.com");
+        liker = persistUser("liker@domain.com");
+    }
+
+    @Test
+    public void shouldReturnUserPostsWithLikesCount() {
+        BlogPost post = persistPost("liked post");
+        persistLike(post);
+        persistPost("post with no likes");
+        flushAndClear();
+
+        List<PostData> posts = finder.getUserPosts(owner.getId(), null, PAGE_SIZE)
+                                     .getPosts();
+
+        assertThat(posts, hasSize(2));
+        assertThat(posts.get(0)
+                        .getPreview(),
+                is(equalTo("liked post")));
+        assertThat(posts.get(0)
+                        .getLikesCount(),
+                is(equalTo(1)));
+        assertThat(posts.get(1)
+                        .getLikesCount(),
+                is(equalTo(0)));
+    }
+
+    @Test
+    public void statementCountOfGetUserPostsShouldNotDependOnNumberOfPosts() {
+        persistLike(persistPost("first post"));
+        flushAndClear();
+        long statementsForOnePost = countStatementsOfGetUserPosts();
+
+        for (int i = 0; i < 20; i++) {
+            persistLike(persistPost("post " + i));
+        }
+        flushAndClear();
+        long statementsForManyPosts = countStatementsOfGetUserPosts();
+
+        assertThat(statementsForManyPosts, is(equalTo(statementsForOnePost)));
+    }
+
+    @Test
+    public void userPostsVersionShouldChangeWhenPostIsLikedOrAdded() {
+        BlogPost post = persistPost("first post");
+        flushAndClear();
+        long initialVersion = finder.getUserPostsVersion(owner.getId(), null, PAGE_SIZE);
+        long unchangedVersion = finder.getUserPostsVersion(owner.getId(), null, PAGE_SIZE);
+
+        blogPostRepository.incrementLikesCount(post.getId());
+        long likedVersion = finder.getUserPostsVersion(owner.getId(), null, PAGE_SIZE);
+        persistPost("second post");
+        flushAndClear();
+        long addedVersion = finder.getUserPostsVersion(owner.getId(), null, PAGE_SIZE);
+
+        assertThat(unchangedVersion, is(equalTo(initialVersion)));
+        assertThat(likedVersion, is(not(equalTo(initialVersion))));
+        assertThat(addedVersion, is(not(equalTo(likedVersion))));
+    }
+
+    @Test
+    public void userPostsPageShouldCarryVersionOfItsPosts() {
+        persistLike(persistPost("first post"));
+        persistPost("second post");
+        flushAndClear();
+
+        PostPage page = finder.getUserPosts(owner.getId(), null, 1);
+
+        assertThat(page.getVersion(), is(equalTo(finder.getUserPostsVersion(owner.getId(), null, 1))));
+    }
+
+    @Test
+    public void shouldPageUserPostsAfterGivenCursor() {
+        BlogPost first = persistPost("first post");
+        BlogPost second = persistPost("second post");
+        BlogPost third = persistPost("third post");
+        flushAndClear();
+
+        PostPage firstPage = finder.getUserPosts(owner.getId(), null, 2);
+        PostPage secondPage = finder.getUserPosts(owner.getId(), firstPage.getNextCursor(), 2);
+
+        assertThat(firstPage.getPosts(), hasSize(2));
+        assertThat(firstPage.getPosts()
+                            .get(0)
+                            .getId(),
+                is(equalTo(first.getId())));
+        assertThat(firstPage.getNextCursor(), is(equalTo(second.getId())));
+        assertThat(secondPage.getPosts(), hasSize(1));
+        assertThat(secondPage.getPosts()
+                             .get(0)
+                             .getId(),
+                is(equalTo(third.getId())));
+        assertThat(secondPage.getNextCursor(), is(nullValue()));
+    }
+
+    @Test
+    public void shouldExportAllUserPostsInIdOrderWithoutLoadingEntities() {
+        for (int i = 0; i < 20; i++) {
+            persistPost("post " + i);
+        }
+        flushAndClear();
+        statistics.clear();
+        List<PostData> exported = new ArrayList<>();
+
+        finder.exportUserPosts(owner.getId(), exported::add);
+
+        assertThat(exported, hasSize(20));
+        assertThat(exported.get(19)
+                           .getEntry(),
+                is(equalTo("post 19")));
+        assertThat(statistics.getEntityLoadCount(), is(equalTo(0L)));
+    }
+
+    @Test
+    public void shouldFindUsersThroughSearchIndexSkippingRemovedUsers() {
+        User removed = persistUser("removed.owner@domain.com");
+        removed.setAccountStatus(AccountStatus.REMOVED);
+        flushAndClear();
+        userSearchIndex.rebuild();
+
+        List<UserData> users = finder.findUsers("OWNER@", 0, 20);
+
+        assertThat(users, hasSize(1));
+        assertThat(users.get(0)
+                        .getId(),
+                is(equalTo(owner.getId())));
+    }
+
+    @Test
+    public void shouldPageUsersFoundInDatabaseWhenSearchStringIsTooShortForIndex() {
+        persistUser("ow1@domain.com");
+        User removed = persistUser("ow2@domain.com");
+        removed.setAccountStatus(AccountStatus.REMOVED);
+        flushAndClear();
+
+        List<UserData> firstPage = finder.findUsers("ow", 0, 2);
+        List<UserData> secondPage = finder.findUsers("ow", 1, 2);
+
+        assertThat(firstPage, hasSize(2));
+        assertThat(secondPage, hasSize(0));
+    }
+
+    @Test
+    public void shouldReturnEmptyPageWhenPageOffsetExceedsIntRange() {
+        List<UserData> users = finder.findUsers("owner@", Integer.MAX_VALUE, 20);
+
+        assertThat(users, hasSize(0));
+    }
+
+    @Test(expected = DomainError.class)
+    public void shouldRejectEntryOffsetWithoutNextCharacterIndex() {
+        BlogPost post = persistPost("short entry");
+
+        finder.getPostEntry(post.getId(), Integer.MAX_VALUE, null);
+    }
+
+    private long countStatementsOfGetUserPosts() {
+        statistics.clear();
+        finder.getUserPosts(owner.getId(), null, PAGE_SIZE);
+        return statistics.getPrepareStatementCount();
+    }
+
+    private User persistUser(String email) {
+        User user = new User();
+        user.setEmail(email);
+        user.setAccountStatus(AccountStatus.CONFIRMED);
+        return entityManager.persist(user);
+    }
+
+    private BlogPost persistPost(String entry) {
+        BlogPost post = new BlogPost();
+        post.setEntry(entry);
+        post.setUser(owner);
+        return entityManager.persist(post);
+    }
+
+    private void persistLike(BlogPost post) {
+        LikePost likePost = new LikePost();
+        likePost.setUser(liker);
+        likePost.setPost(post);
+        entityManager.persist(likePost);
+        post.setLikesCount(post.getLikesCount() + 1);
+    }
+
+    private void flushAndClear() {
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+}
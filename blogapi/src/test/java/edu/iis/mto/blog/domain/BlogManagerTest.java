@@ -1,28 +1,42 @@
 package edu.iis.mto.blog.domain;
 
 import edu.iis.mto.blog.domain.repository.BlogPostRepository;
+import edu.iis.mto.blog.domain.repository.LikeInsertResult;
 import edu.iis.mto.blog.domain.repository.LikePostRepository;
 import org.hamcrest.Matchers;
 import org.junit.Assert;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
 import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.test.context.junit4.SpringRunner;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import edu.iis.mto.blog.domain.model.BlogPost;
-import edu.iis.mto.blog.domain.model.LikePost;
 import edu.iis.mto.blog.domain.errors.DomainError;
+import edu.iis.mto.blog.domain.likes.LikeFilter;
+import edu.iis.mto.blog.domain.likes.PendingLike;
+import edu.iis.mto.blog.domain.repository.FollowRepository;
+import edu.iis.mto.blog.domain.timeline.HomeTimelines;
 
+import edu.iis.mto.blog.api.request.PostRequest;
 import edu.iis.mto.blog.api.request.UserRequest;
 import edu.iis.mto.blog.domain.model.AccountStatus;
+import edu.iis.mto.blog.domain.model.RankedPost;
 import edu.iis.mto.blog.domain.model.User;
 import edu.iis.mto.blog.domain.repository.UserRepository;
+import edu.iis.mto.blog.dto.ItemResult;
 import edu.iis.mto.blog.mapper.BlogDataMapper;
 import edu.iis.mto.blog.services.BlogService;
 
@@ -43,6 +57,18 @@ public class BlogManagerTest {
     @Autowired
     BlogService blogService;
 
+    @Autowired
+    FollowRepository followRepository;
+
+    @Autowired
+    HomeTimelines homeTimelines;
+
+    @Autowired
+    ApplicationEventPublisher eventPublisher;
+
+    @Captor
+    ArgumentCaptor<List<User>> usersParam;
+
     @Test
     public void creatingNewUserShouldSetAccountStatusToNEW() {
         blogService.createUser(new UserRequest("John", "Steward", "john@domain.com"));
@@ -52,6 +78,56 @@ public class BlogManagerTest {
         Assert.assertThat(user.getAccountStatus(), Matchers.equalTo(AccountStatus.NEW));
     }
 
+    @Test
+    public void creatingUsersInBatchShouldReportRejectedItemsInRequestOrder() {
+        when(userRepository.findExistingEmails(Mockito.anyCollection())).thenReturn(Collections.singletonList("taken@domain.com"));
+
+        List<ItemResult> results = blogService.createUsers(Arrays.asList(new UserRequest("John", "Steward", "john@domain.com"),
+                new UserRequest("Jan", "Taken", "taken@domain.com"), new UserRequest("John", "Twice", "john@domain.com"),
+                new UserRequest("No", "Email", null), new UserRequest("Adam", "Nowak", "adam@domain.com")));
+
+        Assert.assertThat(results.stream()
+                                 .map(ItemResult::getError)
+                                 .collect(Collectors.toList()),
+                Matchers.contains(null, DomainError.EMAIL_TAKEN, DomainError.EMAIL_TAKEN, DomainError.EMAIL_REQUIRED, null));
+        verify(userRepository).saveAll(usersParam.capture());
+        Assert.assertThat(usersParam.getValue()
+                                    .stream()
+                                    .map(User::getEmail)
+                                    .collect(Collectors.toList()),
+                Matchers.contains("john@domain.com", "adam@domain.com"));
+    }
+
+    @Test
+    public void creatingUsersInBatchShouldCompareEmailsIgnoringCase() {
+        when(userRepository.findExistingEmails(Mockito.anyCollection())).thenReturn(Collections.singletonList("Taken@domain.com"));
+
+        List<ItemResult> results = blogService.createUsers(Arrays.asList(new UserRequest("John", "Steward", "John@domain.com"),
+                new UserRequest("John", "Lower", "john@DOMAIN.com"), new UserRequest("Jan", "Taken", "taken@domain.com")));
+
+        Assert.assertThat(results.stream()
+                                 .map(ItemResult::getError)
+                                 .collect(Collectors.toList()),
+                Matchers.contains(null, DomainError.EMAIL_TAKEN, DomainError.EMAIL_TAKEN));
+        verify(userRepository).saveAll(usersParam.capture());
+        Assert.assertThat(usersParam.getValue()
+                                    .stream()
+                                    .map(User::getEmail)
+                                    .collect(Collectors.toList()),
+                Matchers.contains("John@domain.com"));
+        verify(userRepository).findExistingEmails(Mockito.argThat(emails -> emails.size() == 2 && emails.contains("john@domain.com")));
+    }
+
+    @Test(expected = DomainError.class)
+    public void creatingPostsInBatchByNewUserShouldThrowDomainError() {
+        User user = new User();
+        user.setId(1L);
+        user.setAccountStatus(AccountStatus.NEW);
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+
+        blogService.createPosts(1L, Collections.singletonList(new PostRequest()));
+    }
+
     @Test
     public void shouldSaveAddedLikeByConfirmedAccountTest() {
         User owner = new User();
@@ -70,14 +146,75 @@ public class BlogManagerTest {
         blogPost.setUser(owner);
         when(blogPostRepository.findById(1L)).thenReturn(Optional.of(blogPost));
 
-        when(likedPostRepository.findByUserAndPost(liker, blogPost)).thenReturn(Optional.empty());
+        when(likedPostRepository.insertLike(2L, 1L)).thenReturn(LikeInsertResult.INSERTED);
+        when(blogPostRepository.findRankById(1L)).thenReturn(Optional.of(new RankedPost(1L, 1L, 1)));
+        boolean liked = blogService.addLikeToPost(liker.getId(), blogPost.getId());
+
+        verify(likedPostRepository).insertLike(liker.getId(), blogPost.getId());
+        Assert.assertThat(liked, Matchers.is(true));
+    }
+
+    @Test
+    public void shouldIncrementLikesCountOfLikedPostTest() {
+        User owner = new User();
+        owner.setEmail("owner@test.com");
+        owner.setId(1L);
+        when(userRepository.findById(1L)).thenReturn(Optional.of(owner));
+
+        User liker = new User();
+        liker.setEmail("liker@test.com");
+        liker.setId(2L);
+        liker.setAccountStatus(AccountStatus.CONFIRMED);
+        when(userRepository.findById(2L)).thenReturn(Optional.of(liker));
+
+        BlogPost blogPost = new BlogPost();
+        blogPost.setId(1L);
+        blogPost.setUser(owner);
+        when(blogPostRepository.findById(1L)).thenReturn(Optional.of(blogPost));
+
+        when(likedPostRepository.insertLike(2L, 1L)).thenReturn(LikeInsertResult.INSERTED);
+        when(blogPostRepository.findRankById(1L)).thenReturn(Optional.of(new RankedPost(1L, 1L, 1)));
         blogService.addLikeToPost(liker.getId(), blogPost.getId());
 
-        ArgumentCaptor<LikePost> likePostParam = ArgumentCaptor.forClass(LikePost.class);
-        verify(likedPostRepository).save(likePostParam.capture());
-        LikePost likePost = likePostParam.getValue();
-        Assert.assertThat(likePost.getPost(), Matchers.is(blogPost));
-        Assert.assertThat(likePost.getUser(), Matchers.is(liker));
+        verify(blogPostRepository).incrementLikesCount(blogPost.getId());
+    }
+
+    @Test(expected = DomainError.class)
+    public void shouldThrowDomainErrorWhenUserFollowsHimselfTest() {
+        blogService.followUser(1L, 1L);
+    }
+
+    @Test
+    public void shouldAnswerRepeatedLikeByLookupWithoutInsertTest() {
+        BlogService service = withWarmedLikeFilter(new PendingLike(7L, 8L));
+        when(likedPostRepository.existsByUserIdAndPostId(7L, 8L)).thenReturn(true);
+
+        boolean liked = service.addLikeToPost(7L, 8L);
+
+        Assert.assertThat(liked, Matchers.is(false));
+        verify(likedPostRepository, Mockito.never()).insertLike(7L, 8L);
+    }
+
+    @Test
+    public void shouldNotLookUpLikeUnseenByWarmedFilterTest() {
+        BlogService service = withWarmedLikeFilter(new PendingLike(7L, 8L));
+        when(likedPostRepository.insertLike(2L, 1L)).thenReturn(LikeInsertResult.INSERTED);
+        when(blogPostRepository.findRankById(1L)).thenReturn(Optional.of(new RankedPost(1L, 1L, 1)));
+
+        boolean liked = service.addLikeToPost(2L, 1L);
+
+        Assert.assertThat(liked, Matchers.is(true));
+        verify(likedPostRepository, Mockito.never()).existsByUserIdAndPostId(Mockito.anyLong(), Mockito.anyLong());
+    }
+
+    @Test
+    public void shouldNotCountLikeAgainWhenPostIsAlreadyLikedTest() {
+        when(likedPostRepository.insertLike(2L, 1L)).thenReturn(LikeInsertResult.DUPLICATE);
+        boolean liked = blogService.addLikeToPost(2L, 1L);
+
+        Assert.assertThat(liked, Matchers.is(false));
+        verify(blogPostRepository, Mockito.never()).incrementLikesCount(1L);
+        verify(userRepository, Mockito.never()).findById(2L);
     }
 
     @Test(expected = DomainError.class)
@@ -117,6 +254,17 @@ public class BlogManagerTest {
         blogService.addLikeToPost(userLike.getId(), blogPost.getId());
     }
 
+    /**
+     * Blog service with its own like filter warmed with the given stored likes, the filter of the shared context is left alone.
+     */
+    private BlogService withWarmedLikeFilter(PendingLike... storedLikes) {
+        when(likedPostRepository.streamAllLikes()).thenReturn(Stream.of(storedLikes));
+        LikeFilter likeFilter = new LikeFilter(likedPostRepository, 1000, 0.01);
+        likeFilter.warm();
+        return new BlogManager(userRepository, blogPostRepository, likedPostRepository, dataMapper, followRepository, homeTimelines,
+                likeFilter, eventPublisher, 50);
+    }
+
     @Test(expected = DomainError.class)
     public void shouldThrownDomainErrorWhenRemovedUserAddLikeToPostTest() {
         User owner = new User();
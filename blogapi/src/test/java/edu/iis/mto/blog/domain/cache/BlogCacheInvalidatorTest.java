@@ -0,0 +1,119 @@
+package edu.iis.mto.blog.domain.cache;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Collections;
+import java.util.Optional;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.cache.CacheManager;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import edu.iis.mto.blog.domain.events.LikesCountsReconciledEvent;
+import edu.iis.mto.blog.domain.events.PostCreatedEvent;
+import edu.iis.mto.blog.domain.events.PostLikedEvent;
+import edu.iis.mto.blog.domain.events.UserChangedEvent;
+import edu.iis.mto.blog.domain.model.AccountStatus;
+import edu.iis.mto.blog.domain.model.RankedPost;
+import edu.iis.mto.blog.domain.model.User;
+import edu.iis.mto.blog.domain.repository.BlogPostRepository;
+import edu.iis.mto.blog.domain.repository.LikePostRepository;
+import edu.iis.mto.blog.domain.repository.UserRepository;
+import edu.iis.mto.blog.services.DataFinder;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest
+public class BlogCacheInvalidatorTest {
+
+    @MockBean
+    private UserRepository userRepository;
+
+    @MockBean
+    private BlogPostRepository blogPostRepository;
+
+    @MockBean
+    private LikePostRepository likePostRepository;
+
+    @Autowired
+    private DataFinder finder;
+
+    @Autowired
+    private BlogCacheInvalidator invalidator;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    private User user;
+
+    @Before
+    public void setUp() {
+        cacheManager.getCacheNames()
+                    .forEach(name -> cacheManager.getCache(name)
+                                                 .clear());
+        user = new User();
+        user.setId(1L);
+        user.setEmail("john@domain.com");
+        user.setAccountStatus(AccountStatus.CONFIRMED);
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+        when(userRepository.findAccountStatusById(1L)).thenReturn(Optional.of(AccountStatus.CONFIRMED));
+        when(blogPostRepository.findPostDataByUserIdAfter(eq(1L), eq(0L), any())).thenReturn(Collections.emptyList());
+        when(blogPostRepository.findAuthorIdById(5L)).thenReturn(Optional.of(1L));
+    }
+
+    @Test
+    public void shouldServeRepeatedUserReadFromCache() {
+        finder.getUserData(1L);
+        finder.getUserData(1L);
+
+        verify(userRepository, times(1)).findById(1L);
+    }
+
+    @Test
+    public void shouldReloadUserAfterUserChanged() {
+        finder.getUserData(1L);
+        invalidator.onUserChanged(new UserChangedEvent(user));
+        finder.getUserData(1L);
+
+        verify(userRepository, times(2)).findById(1L);
+    }
+
+    @Test
+    public void shouldReloadUserPostsAfterPostCreatedOrLiked() {
+        finder.getUserPosts(1L, null, 10);
+        finder.getUserPosts(1L, null, 10);
+        invalidator.onPostCreated(new PostCreatedEvent(1L, 5L));
+        finder.getUserPosts(1L, null, 10);
+        invalidator.onPostLiked(new PostLikedEvent(2L, new RankedPost(5L, 1L, 1)));
+        finder.getUserPosts(1L, null, 10);
+
+        verify(blogPostRepository, times(3)).findPostDataByUserIdAfter(eq(1L), eq(0L), any());
+    }
+
+    @Test
+    public void shouldReloadUserPostsAfterLikesCountsReconciled() {
+        finder.getUserPosts(1L, null, 10);
+        invalidator.onLikesCountsReconciled(new LikesCountsReconciledEvent(1));
+        finder.getUserPosts(1L, null, 10);
+
+        verify(blogPostRepository, times(2)).findPostDataByUserIdAfter(eq(1L), eq(0L), any());
+    }
+
+    @Test
+    public void shouldKeepCachedPostsOfOtherAuthors() {
+        finder.getUserPosts(1L, null, 10);
+        invalidator.onPostCreated(new PostCreatedEvent(2L, 5L));
+        finder.getUserPosts(1L, null, 10);
+
+        verify(blogPostRepository, times(1)).findPostDataByUserIdAfter(eq(1L), eq(0L), any());
+    }
+
+}
@@ -0,0 +1,209 @@
+package edu.iis.mto.blog.domain.graph;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.mockito.Mockito;
+
+import edu.iis.mto.blog.domain.events.PostCreatedEvent;
+import edu.iis.mto.blog.domain.events.PostLikedEvent;
+import edu.iis.mto.blog.domain.likes.PendingLike;
+import edu.iis.mto.blog.domain.model.RankedPost;
+import edu.iis.mto.blog.domain.repository.BlogPostRepository;
+import edu.iis.mto.blog.domain.repository.LikePostRepository;
+import edu.iis.mto.blog.domain.repository.PostAuthor;
+import edu.iis.mto.blog.domain.snapshot.SnapshotInput;
+import edu.iis.mto.blog.domain.snapshot.SnapshotOutput;
+import edu.iis.mto.blog.dto.RelatedUser;
+
+public class LikeGraphTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private LikePostRepository likePostRepository;
+
+    private BlogPostRepository blogPostRepository;
+
+    private final List<Runnable> compactions = new ArrayList<>();
+
+    @Before
+    public void setUp() {
+        likePostRepository = Mockito.mock(LikePostRepository.class);
+        blogPostRepository = Mockito.mock(BlogPostRepository.class);
+        Mockito.when(blogPostRepository.streamPostAuthors())
+               .thenAnswer(invocation -> Stream.of(postAuthor(10L, 1L), postAuthor(11L, 1L), postAuthor(20L, 2L)));
+        Mockito.when(likePostRepository.streamAllLikes())
+               .thenAnswer(invocation -> Stream.of(new PendingLike(3L, 10L), new PendingLike(3L, 11L), new PendingLike(4L, 10L),
+                       new PendingLike(5L, 20L), new PendingLike(4L, 20L)));
+    }
+
+    @Test
+    public void shouldCountLikersOfPostsOfAuthor() {
+        LikeGraph graph = builtGraph(100);
+
+        assertThat(describe(graph.likersOfPostsBy(1L, 10)), contains("3:2", "4:1"));
+        assertThat(describe(graph.likersOfPostsBy(3L, 10)), is(empty()));
+    }
+
+    @Test
+    public void shouldCountOtherUsersLikingSamePosts() {
+        LikeGraph graph = builtGraph(100);
+
+        assertThat(describe(graph.usersWithCommonLikes(4L, 10)), contains("3:1", "5:1"));
+        assertThat(describe(graph.usersWithCommonLikes(4L, 1)), contains("3:1"));
+    }
+
+    @Test
+    public void shouldIncludePostsAndLikesAddedAfterBuild() {
+        LikeGraph graph = builtGraph(100);
+
+        addPostLikedTwiceByUser5(graph);
+
+        assertThat(describe(graph.likersOfPostsBy(1L, 10)), contains("3:3", "5:2", "4:1"));
+        assertThat(describe(graph.usersWithCommonLikes(3L, 10)), contains("5:2", "4:1"));
+    }
+
+    @Test
+    public void shouldAnswerTheSameWhileAndAfterCompaction() {
+        LikeGraph graph = builtGraph(2);
+
+        addPostLikedTwiceByUser5(graph);
+
+        assertThat(compactions.size(), is(1));
+        assertThat(describe(graph.likersOfPostsBy(1L, 10)), contains("3:3", "5:2", "4:1"));
+        assertThat(describe(graph.usersWithCommonLikes(3L, 10)), contains("5:2", "4:1"));
+
+        runCompactions();
+
+        assertThat(describe(graph.likersOfPostsBy(1L, 10)), contains("3:3", "5:2", "4:1"));
+        assertThat(describe(graph.usersWithCommonLikes(3L, 10)), contains("5:2", "4:1"));
+    }
+
+    @Test
+    public void shouldKeepLikesAddedWhileCompacting() {
+        LikeGraph graph = builtGraph(2);
+        graph.onPostCreated(new PostCreatedEvent(1L, 12L));
+        graph.onPostLiked(new PostLikedEvent(5L, new RankedPost(12L, 1L, 1)));
+
+        graph.onPostLiked(new PostLikedEvent(5L, new RankedPost(10L, 1L, 1)));
+        graph.onPostLiked(new PostLikedEvent(3L, new RankedPost(12L, 1L, 1)));
+        assertThat(compactions.size(), is(1));
+        runCompactions();
+
+        assertThat(describe(graph.likersOfPostsBy(1L, 10)), contains("3:3", "5:2", "4:1"));
+        assertThat(describe(graph.usersWithCommonLikes(3L, 10)), contains("5:2", "4:1"));
+    }
+
+    @Test
+    public void shouldFindNothingForIdsOutsideGraph() {
+        LikeGraph graph = builtGraph(100);
+
+        assertThat(graph.likersOfPostsBy(-1L, 10), is(empty()));
+        assertThat(graph.usersWithCommonLikes(-1L, 10), is(empty()));
+        assertThat(graph.likersOfPostsBy(Integer.MAX_VALUE + 1L, 10), is(empty()));
+        assertThat(graph.usersWithCommonLikes(Long.MAX_VALUE, 10), is(empty()));
+    }
+
+    @Test
+    public void shouldRestoreGraphAndAddReplayedLikesNotInSnapshot() throws IOException {
+        LikeGraph graph = builtGraph(100);
+        addPostLikedTwiceByUser5(graph);
+        Path path = folder.newFile()
+                          .toPath();
+        try (SnapshotOutput out = new SnapshotOutput(path)) {
+            graph.writeTo(out);
+        }
+        Mockito.when(likePostRepository.streamLikesAfter(3L))
+               .thenAnswer(invocation -> Stream.of(new PendingLike(3L, 12L), new PendingLike(4L, 11L)));
+        Mockito.when(blogPostRepository.streamPostAuthorsAfter(11L))
+               .thenAnswer(invocation -> Stream.of(postAuthor(12L, 1L), postAuthor(21L, 2L)));
+
+        LikeGraph restored = new LikeGraph(likePostRepository, blogPostRepository, 100, compactions::add);
+        try (SnapshotInput in = new SnapshotInput(path)) {
+            restored.restore(in, 3L, 11L);
+        }
+
+        assertThat(describe(restored.likersOfPostsBy(1L, 10)), contains("3:3", "4:2", "5:2"));
+        assertThat(describe(restored.usersWithCommonLikes(3L, 10)), contains("4:2", "5:2"));
+    }
+
+    @Test
+    public void shouldAnswerTheSameAfterRestoreWithoutReplayedRows() throws IOException {
+        LikeGraph graph = builtGraph(100);
+        Path path = folder.newFile()
+                          .toPath();
+        try (SnapshotOutput out = new SnapshotOutput(path)) {
+            graph.writeTo(out);
+        }
+        Mockito.when(likePostRepository.streamLikesAfter(5L))
+               .thenAnswer(invocation -> Stream.empty());
+        Mockito.when(blogPostRepository.streamPostAuthorsAfter(20L))
+               .thenAnswer(invocation -> Stream.empty());
+
+        LikeGraph restored = new LikeGraph(likePostRepository, blogPostRepository, 100, compactions::add);
+        try (SnapshotInput in = new SnapshotInput(path)) {
+            restored.restore(in, 5L, 20L);
+        }
+
+        for (long id = 1; id <= 5; id++) {
+            assertThat(describe(restored.likersOfPostsBy(id, 10)), is(describe(graph.likersOfPostsBy(id, 10))));
+            assertThat(describe(restored.usersWithCommonLikes(id, 10)), is(describe(graph.usersWithCommonLikes(id, 10))));
+        }
+    }
+
+    private LikeGraph builtGraph(int compactionThreshold) {
+        LikeGraph graph = new LikeGraph(likePostRepository, blogPostRepository, compactionThreshold, compactions::add);
+        graph.build();
+        return graph;
+    }
+
+    private void runCompactions() {
+        while (!compactions.isEmpty()) {
+            compactions.remove(0)
+                       .run();
+        }
+    }
+
+    private static void addPostLikedTwiceByUser5(LikeGraph graph) {
+        graph.onPostCreated(new PostCreatedEvent(1L, 12L));
+        graph.onPostLiked(new PostLikedEvent(5L, new RankedPost(12L, 1L, 1)));
+        graph.onPostLiked(new PostLikedEvent(5L, new RankedPost(10L, 1L, 1)));
+        graph.onPostLiked(new PostLikedEvent(3L, new RankedPost(12L, 1L, 1)));
+    }
+
+    private static List<String> describe(List<RelatedUser> users) {
+        return users.stream()
+                    .map(user -> user.getUserId() + ":" + user.getLikes())
+                    .collect(Collectors.toList());
+    }
+
+    private static PostAuthor postAuthor(Long id, Long authorId) {
+        return new PostAuthor() {
+
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public Long getAuthorId() {
+                return authorId;
+            }
+        };
+    }
+
+}
@@ -0,0 +1,198 @@
+package edu.iis.mto.blog.domain.leaderboard;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import edu.iis.mto.blog.domain.events.LikesCountsReconciledEvent;
+import edu.iis.mto.blog.domain.events.PostLikedEvent;
+import edu.iis.mto.blog.domain.model.AccountStatus;
+import edu.iis.mto.blog.domain.model.BlogPost;
+import edu.iis.mto.blog.domain.model.RankedPost;
+import edu.iis.mto.blog.domain.model.User;
+import edu.iis.mto.blog.domain.repository.BlogPostRepository;
+import edu.iis.mto.blog.domain.repository.RankedPostRepository;
+
+@RunWith(SpringRunner.class)
+@DataJpaTest
+public class LikesLeaderboardTest {
+
+    private static final int SIZE = 2;
+
+    private static final int AUTHOR_SIZE = 1;
+
+    private static final int CACHED_AUTHORS = 10;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private RankedPostRepository rankedPostRepository;
+
+    @Autowired
+    private BlogPostRepository blogPostRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private LikesLeaderboard leaderboard;
+
+    private User author;
+
+    private User otherAuthor;
+
+    @Before
+    public void setUp() {
+        leaderboard = newLeaderboard();
+        author = persistUser("author@domain.com");
+        otherAuthor = persistUser("other@domain.com");
+    }
+
+    @Test
+    public void shouldKeepMostLikedPostsOverallAndPerAuthor() {
+        BlogPost mostLiked = liked(persistPost(author, 5));
+        liked(persistPost(author, 3));
+        BlogPost ofOtherAuthor = liked(persistPost(otherAuthor, 4));
+
+        assertThat(ids(leaderboard.top(null, 10)), contains(mostLiked.getId(), ofOtherAuthor.getId()));
+        assertThat(ids(leaderboard.top(author.getId(), 10)), contains(mostLiked.getId()));
+        assertThat(ids(leaderboard.top(otherAuthor.getId(), 10)), contains(ofOtherAuthor.getId()));
+    }
+
+    @Test
+    public void shouldRankPostAgainWhenLikedAgain() {
+        BlogPost first = liked(persistPost(author, 5));
+        BlogPost second = liked(persistPost(otherAuthor, 4));
+
+        setLikesCount(second, 6);
+        liked(second);
+
+        List<RankedPost> top = leaderboard.top(null, 10);
+        assertThat(ids(top), contains(second.getId(), first.getId()));
+        assertThat(top.get(0)
+                      .getLikesCount(),
+                equalTo(6));
+    }
+
+    @Test
+    public void shouldRankStoredPostsByCurrentCountsWhenLoaded() {
+        BlogPost first = liked(persistPost(author, 5));
+        BlogPost second = liked(persistPost(otherAuthor, 4));
+        leaderboard.persist();
+        setLikesCount(second, 9);
+        persistPost(author, 10);
+
+        LikesLeaderboard restored = newLeaderboard();
+        restored.load();
+
+        assertThat(ids(restored.top(null, 10)), contains(second.getId(), first.getId()));
+    }
+
+    @Test
+    public void shouldIgnoreLowerCountReadForEarlierLike() {
+        BlogPost post = liked(persistPost(author, 5));
+
+        setLikesCount(post, 3);
+        liked(post);
+
+        assertThat(leaderboard.top(null, 10)
+                              .get(0)
+                              .getLikesCount(),
+                equalTo(5));
+    }
+
+    @Test
+    public void shouldRankByLowerCountAfterLikesCountsReconciled() {
+        BlogPost post = liked(persistPost(author, 5));
+
+        setLikesCount(post, 3);
+        leaderboard.onLikesCountsReconciled(new LikesCountsReconciledEvent(1));
+
+        assertThat(leaderboard.top(null, 10)
+                              .get(0)
+                              .getLikesCount(),
+                equalTo(3));
+        assertThat(leaderboard.top(author.getId(), 10)
+                              .get(0)
+                              .getLikesCount(),
+                equalTo(3));
+    }
+
+    @Test
+    public void shouldLoadRankingOfAuthorFromStoredLeaderboardOnDemand() {
+        BlogPost post = liked(persistPost(author, 5));
+        leaderboard.persist();
+
+        LikesLeaderboard restored = newLeaderboard();
+
+        assertThat(ids(restored.top(author.getId(), 10)), contains(post.getId()));
+        assertThat(restored.top(otherAuthor.getId(), 10), is(empty()));
+    }
+
+    @Test
+    public void shouldStoreOnlyRankingsChangedSinceLastStored() {
+        liked(persistPost(author, 5));
+        leaderboard.persist();
+        rankedPostRepository.deleteByAuthorIds(Collections.singletonList(author.getId()));
+        BlogPost ofOtherAuthor = liked(persistPost(otherAuthor, 4));
+
+        leaderboard.persist();
+
+        assertThat(rankedPostRepository.findPostIdsByAuthorId(author.getId()), is(empty()));
+        assertThat(rankedPostRepository.findPostIdsByAuthorId(otherAuthor.getId()), contains(ofOtherAuthor.getId()));
+    }
+
+    private LikesLeaderboard newLeaderboard() {
+        return new LikesLeaderboard(rankedPostRepository, blogPostRepository, transactionManager, SIZE, AUTHOR_SIZE,
+                CACHED_AUTHORS);
+    }
+
+    private BlogPost liked(BlogPost post) {
+        RankedPost likedPost = new RankedPost(post.getId(), post.getUser()
+                                                            .getId(), post.getLikesCount());
+        leaderboard.onPostLiked(new PostLikedEvent(null, likedPost));
+        return post;
+    }
+
+    private User persistUser(String email) {
+        User user = new User();
+        user.setEmail(email);
+        user.setAccountStatus(AccountStatus.CONFIRMED);
+        return entityManager.persist(user);
+    }
+
+    private BlogPost persistPost(User user, int likesCount) {
+        BlogPost post = new BlogPost();
+        post.setUser(user);
+        post.setEntry("post of " + user.getEmail());
+        post.setLikesCount(likesCount);
+        return entityManager.persistFlushFind(post);
+    }
+
+    private void setLikesCount(BlogPost post, int likesCount) {
+        post.setLikesCount(likesCount);
+        entityManager.flush();
+    }
+
+    private static List<Long> ids(List<RankedPost> posts) {
+        return posts.stream()
+                    .map(RankedPost::getPostId)
+                    .collect(Collectors.toList());
+    }
+
+}
@@ -0,0 +1,159 @@
+package edu.iis.mto.blog.domain.likes;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import edu.iis.mto.blog.domain.errors.LikesBacklogFullError;
+import edu.iis.mto.blog.domain.events.PostLikedEvent;
+import edu.iis.mto.blog.domain.model.AccountStatus;
+import edu.iis.mto.blog.domain.model.BlogPost;
+import edu.iis.mto.blog.domain.model.User;
+import edu.iis.mto.blog.domain.repository.BlogPostRepository;
+import edu.iis.mto.blog.domain.repository.LikePostRepository;
+
+@RunWith(SpringRunner.class)
+@DataJpaTest
+public class LikeWriteBehindTest {
+
+    private static final int QUEUE_CAPACITY = 10;
+
+    private static final int BATCH_SIZE = 5;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private LikePostRepository likePostRepository;
+
+    @Autowired
+    private BlogPostRepository blogPostRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private ApplicationEventPublisher eventPublisher;
+
+    private LikeWriteBehind likeWriteBehind;
+
+    private User liker;
+
+    private BlogPost post;
+
+    @Before
+    public void setUp() {
+        eventPublisher = mock(ApplicationEventPublisher.class);
+        likeWriteBehind = new LikeWriteBehind(likePostRepository, blogPostRepository, transactionManager, eventPublisher,
+                QUEUE_CAPACITY, BATCH_SIZE, 0, 1000);
+        User author = persistUser("author@domain.com");
+        liker = persistUser("liker@domain.com");
+        post = new BlogPost();
+        post.setEntry("viral post");
+        post.setUser(author);
+        entityManager.persistAndFlush(post);
+    }
+
+    @Test
+    public void shouldStoreRepeatedLikeOfBatchOnce() {
+        likeWriteBehind.enqueue(liker.getId(), post.getId());
+        likeWriteBehind.enqueue(liker.getId(), post.getId());
+        likeWriteBehind.enqueue(liker.getId(), post.getId());
+
+        assertThat(likeWriteBehind.flushPending(), is(1));
+        assertThat(likePostRepository.count(), is(1L));
+        assertThat(likesCount(), is(1));
+        verify(eventPublisher, times(1)).publishEvent(any(PostLikedEvent.class));
+    }
+
+    @Test
+    public void shouldPublishLikesCounterReadWithBatch() {
+        for (int i = 0; i < 3; i++) {
+            likeWriteBehind.enqueue(persistUser("liker" + i + "@domain.com").getId(), post.getId());
+        }
+
+        likeWriteBehind.flushPending();
+
+        ArgumentCaptor<PostLikedEvent> events = ArgumentCaptor.forClass(PostLikedEvent.class);
+        verify(eventPublisher, times(3)).publishEvent(events.capture());
+        for (PostLikedEvent event : events.getAllValues()) {
+            assertThat(event.getLikedPost()
+                            .getLikesCount(), is(3));
+            assertThat(event.getLikedPost()
+                            .getAuthorId(), is(equalTo(post.getUser()
+                                                           .getId())));
+        }
+    }
+
+    @Test
+    public void shouldSkipLikeAlreadyStored() {
+        likePostRepository.insertLike(liker.getId(), post.getId());
+        likeWriteBehind.enqueue(liker.getId(), post.getId());
+
+        assertThat(likeWriteBehind.flushPending(), is(0));
+        assertThat(likePostRepository.count(), is(1L));
+    }
+
+    @Test
+    public void shouldFlushAtMostOneBatchAtOnce() {
+        for (int i = 0; i < BATCH_SIZE + 2; i++) {
+            likeWriteBehind.enqueue(persistUser("liker" + i + "@domain.com").getId(), post.getId());
+        }
+
+        assertThat(likeWriteBehind.flushPending(), is(BATCH_SIZE));
+        assertThat(likeWriteBehind.pending(), is(2));
+        assertThat(likesCount(), is(BATCH_SIZE));
+    }
+
+    @Test(expected = LikesBacklogFullError.class)
+    public void shouldRejectLikeWhenQueueIsFull() {
+        for (int i = 0; i <= QUEUE_CAPACITY; i++) {
+            likeWriteBehind.enqueue(liker.getId(), post.getId());
+        }
+    }
+
+    @Test
+    public void shouldDrainQueueOnStop() throws InterruptedException {
+        likeWriteBehind.enqueue(liker.getId(), post.getId());
+        likeWriteBehind.stop();
+
+        assertThat(likeWriteBehind.pending(), is(0));
+        assertThat(likesCount(), is(equalTo(1)));
+    }
+
+    @Test(expected = LikesBacklogFullError.class)
+    public void shouldRejectLikeAfterStop() throws InterruptedException {
+        likeWriteBehind.stop();
+        likeWriteBehind.enqueue(liker.getId(), post.getId());
+    }
+
+    private int likesCount() {
+        entityManager.clear();
+        return entityManager.find(BlogPost.class, post.getId())
+                            .getLikesCount();
+    }
+
+    private User persistUser(String email) {
+        User user = new User();
+        user.setFirstName("Jan");
+        user.setLastName("Kowalski");
+        user.setEmail(email);
+        user.setAccountStatus(AccountStatus.CONFIRMED);
+        return entityManager.persistAndFlush(user);
+    }
+
+}
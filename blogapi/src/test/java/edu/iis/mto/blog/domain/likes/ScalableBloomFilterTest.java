@@ -0,0 +1,92 @@
+package edu.iis.mto.blog.domain.likes;
+
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
+import static org.junit.Assert.assertThat;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import edu.iis.mto.blog.domain.snapshot.SnapshotInput;
+import edu.iis.mto.blog.domain.snapshot.SnapshotOutput;
+
+public class ScalableBloomFilterTest {
+
+    private static final double FALSE_POSITIVE_RATE = 0.01;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void shouldContainEveryAddedPairAfterGrowingBeyondExpectedSize() {
+        ScalableBloomFilter filter = new ScalableBloomFilter(100, FALSE_POSITIVE_RATE);
+        for (long user = 0; user < 100; user++) {
+            for (long post = 0; post < 50; post++) {
+                filter.add(user, post);
+            }
+        }
+
+        for (long user = 0; user < 100; user++) {
+            for (long post = 0; post < 50; post++) {
+                assertThat(filter.mightContain(user, post), is(true));
+            }
+        }
+    }
+
+    @Test
+    public void shouldKeepFalsePositiveRateBelowTwiceConfiguredRateWhenGrown() {
+        ScalableBloomFilter filter = new ScalableBloomFilter(1_000, FALSE_POSITIVE_RATE);
+        for (long like = 0; like < 20_000; like++) {
+            filter.add(like % 200, like);
+        }
+
+        int falsePositives = 0;
+        int probes = 100_000;
+        for (long like = 0; like < probes; like++) {
+            if (filter.mightContain(1_000 + like % 200, like)) {
+                falsePositives++;
+            }
+        }
+
+        assertThat((double) falsePositives / probes, lessThan(2 * FALSE_POSITIVE_RATE));
+    }
+
+    @Test
+    public void shouldContainEveryPairAfterRestoringGrownFilter() throws IOException {
+        ScalableBloomFilter filter = new ScalableBloomFilter(100, FALSE_POSITIVE_RATE);
+        for (long like = 0; like < 1_000; like++) {
+            filter.add(like % 50, like);
+        }
+        Path path = folder.newFile()
+                          .toPath();
+        try (SnapshotOutput out = new SnapshotOutput(path)) {
+            filter.writeTo(out);
+        }
+
+        ScalableBloomFilter restored;
+        try (SnapshotInput in = new SnapshotInput(path)) {
+            restored = ScalableBloomFilter.readFrom(in);
+        }
+        for (long like = 1_000; like < 2_000; like++) {
+            restored.add(like % 50, like);
+        }
+
+        for (long like = 0; like < 2_000; like++) {
+            assertThat(restored.mightContain(like % 50, like), is(true));
+        }
+        assertThat(restored.sizeInBytes() > filter.sizeInBytes(), is(true));
+    }
+
+    @Test
+    public void shouldNotContainPairWithSwappedIds() {
+        ScalableBloomFilter filter = new ScalableBloomFilter(1_000, FALSE_POSITIVE_RATE);
+        filter.add(1, 2);
+
+        assertThat(filter.mightContain(2, 1), is(false));
+    }
+
+}
@@ -0,0 +1,157 @@
+package edu.iis.mto.blog.domain.repository;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import edu.iis.mto.blog.domain.model.AccountStatus;
+import edu.iis.mto.blog.domain.model.BlogPost;
+import edu.iis.mto.blog.domain.model.LikePost;
+import edu.iis.mto.blog.domain.model.User;
+import edu.iis.mto.blog.dto.PostData;
+import edu.iis.mto.blog.dto.PostEntry;
+
+@RunWith(SpringRunner.class)
+@DataJpaTest
+public class BlogPostRepositoryTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private BlogPostRepository repository;
+
+    private User user;
+
+    private BlogPost blogPost;
+
+    @Before
+    public void setUp() {
+        user = new User();
+        user.setFirstName("Jan");
+        user.setLastName("Kowalski");
+        user.setEmail("john@domain.com");
+        user.setAccountStatus(AccountStatus.CONFIRMED);
+        entityManager.persist(user);
+
+        blogPost = new BlogPost();
+        blogPost.setEntry("test post");
+        blogPost.setUser(user);
+        entityManager.persist(blogPost);
+    }
+
+    @Test
+    public void shouldIncrementLikesCountOfPost() {
+        repository.incrementLikesCount(blogPost.getId());
+        repository.incrementLikesCount(blogPost.getId());
+        entityManager.clear();
+
+        assertThat(repository.getOne(blogPost.getId())
+                             .getLikesCount(),
+                is(equalTo(2)));
+    }
+
+    @Test
+    public void shouldReconcileLikesCountWithStoredLikes() {
+        LikePost likePost = new LikePost();
+        likePost.setUser(user);
+        likePost.setPost(blogPost);
+        entityManager.persist(likePost);
+        blogPost.setLikesCount(5);
+        entityManager.flush();
+
+        int repaired = repository.reconcileLikesCounts();
+        entityManager.clear();
+
+        assertThat(repaired, is(equalTo(1)));
+        assertThat(repository.getOne(blogPost.getId())
+                             .getLikesCount(),
+                is(equalTo(1)));
+    }
+
+    @Test
+    public void shouldListPreviewOfLongEntryInsteadOfEntry() {
+        BlogPost longPost = new BlogPost();
+        longPost.setEntry(longEntry());
+        longPost.setUser(user);
+        entityManager.persistAndFlush(longPost);
+
+        PostData postData = repository.findPostDataByUserIdAfter(user.getId(), blogPost.getId(), PageRequest.of(0, 10))
+                                      .get(0);
+
+        assertThat(postData.getEntry(), is(nullValue()));
+        assertThat(postData.getPreview(), is(equalTo(longEntry().substring(0, BlogPost.PREVIEW_LENGTH))));
+        assertThat(postData.getEntryLength(), is(equalTo(longEntry().length())));
+    }
+
+    @Test
+    public void shouldCutPreviewInCodePointsAndCountEntryLengthInUtf16Units() {
+        String entry = longEntry().substring(0, BlogPost.PREVIEW_LENGTH - 1) + "\uD83D\uDE00 tail";
+        BlogPost post = new BlogPost();
+        post.setEntry(entry);
+        post.setUser(user);
+        entityManager.persistAndFlush(post);
+        entityManager.clear();
+
+        BlogPost stored = repository.getOne(post.getId());
+
+        assertThat(stored.getPreview(), is(equalTo(entry.substring(0, BlogPost.PREVIEW_LENGTH + 1))));
+        assertThat(stored.getEntryLength(), is(equalTo(BlogPost.PREVIEW_LENGTH + 6)));
+    }
+
+    @Test
+    public void shouldCountEntryLengthInUnitsOfRange() {
+        String entry = "\uD83D\uDE00 smile";
+        BlogPost post = new BlogPost();
+        post.setEntry(entry);
+        post.setUser(user);
+        entityManager.persistAndFlush(post);
+
+        PostEntry range = repository.findEntryRange(post.getId(), 4, 5)
+                                    .get();
+
+        assertThat(range.getText(), is(equalTo("smile")));
+        assertThat(range.getEntryLength(), is(equalTo(post.getEntryLength())));
+    }
+
+    @Test
+    public void shouldReadRequestedRangeOfEntry() {
+        BlogPost longPost = new BlogPost();
+        longPost.setEntry(longEntry());
+        longPost.setUser(user);
+        entityManager.persistAndFlush(longPost);
+
+        PostEntry range = repository.findEntryRange(longPost.getId(), 1001, 10)
+                                    .get();
+
+        assertThat(range.getText(), is(equalTo(longEntry().substring(1000, 1010))));
+        assertThat(range.getEntryLength(), is(equalTo(longEntry().length())));
+    }
+
+    @Test
+    public void shouldNotTouchPostsWithConsistentLikesCount() {
+        entityManager.flush();
+
+        assertThat(repository.reconcileLikesCounts(), is(equalTo(0)));
+    }
+
+    private static String longEntry() {
+        StringBuilder entry = new StringBuilder();
+        for (int i = 0; i < 1000; i++) {
+            entry.append(i % 10);
+            entry.append(' ');
+        }
+        return entry.toString();
+    }
+
+}
@@ -105,4 +105,35 @@ public class LikePostRepositoryTest {
                 is(equalTo("new entry")));
 
     }
+
+    @Test
+    public void shouldInsertLikeOnlyOnceForTheSameUserAndPost() {
+        User liker = persistConfirmedUser("liker@domain.com");
+
+        assertThat(likePostRepository.insertLike(liker.getId(), blogPost.getId()), is(LikeInsertResult.INSERTED));
+        assertThat(likePostRepository.insertLike(liker.getId(), blogPost.getId()), is(LikeInsertResult.DUPLICATE));
+        assertThat(likePostRepository.findAll(), hasSize(1));
+    }
+
+    @Test
+    public void shouldRejectLikeOfOwnPostOrByNotConfirmedUser() {
+        User author = persistConfirmedUser("author@domain.com");
+        BlogPost ownPost = new BlogPost();
+        ownPost.setEntry("own post");
+        ownPost.setUser(author);
+        entityManager.persistAndFlush(ownPost);
+
+        assertThat(likePostRepository.insertLike(author.getId(), ownPost.getId()), is(LikeInsertResult.REJECTED));
+        assertThat(likePostRepository.insertLike(user.getId(), ownPost.getId()), is(LikeInsertResult.REJECTED));
+        assertThat(likePostRepository.findAll(), hasSize(0));
+    }
+
+    private User persistConfirmedUser(String email) {
+        User confirmed = new User();
+        confirmed.setFirstName("Adam");
+        confirmed.setLastName("Nowak");
+        confirmed.setEmail(email);
+        confirmed.setAccountStatus(AccountStatus.CONFIRMED);
+        return entityManager.persistAndFlush(confirmed);
+    }
 }
@@ -1,5 +1,6 @@
 package edu.iis.mto.blog.domain.repository;
 
+import java.util.Arrays;
 import java.util.List;
 
 import org.hamcrest.Matchers;
@@ -10,10 +11,12 @@ import org.junit.runner.RunWith;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.test.context.junit4.SpringRunner;
 
 import edu.iis.mto.blog.domain.model.AccountStatus;
 import edu.iis.mto.blog.domain.model.User;
+import edu.iis.mto.blog.dto.UserData;
 
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.is;
@@ -119,6 +122,54 @@ public class UserRepositoryTest {
         assertThat(users.contains(user), is(equalTo(false)));
     }
 
+    @Test
+    public void shouldFindUserDataByPatternIgnoringCase() {
+        repository.save(user);
+        List<UserData> users = repository.findUserDataByPattern("%OWAL%", AccountStatus.REMOVED, PageRequest.of(0, 10));
+        assertThat(users, Matchers.hasSize(1));
+        assertThat(users.get(0)
+                        .getEmail(),
+                is(equalTo(user.getEmail())));
+    }
+
+    @Test
+    public void shouldNotFindUserDataOfRemovedUserByPattern() {
+        user.setAccountStatus(AccountStatus.REMOVED);
+        repository.save(user);
+        List<UserData> users = repository.findUserDataByPattern("%JAN%", AccountStatus.REMOVED, PageRequest.of(0, 10));
+        assertThat(users, Matchers.hasSize(0));
+    }
+
+    @Test
+    public void shouldTreatEscapedWildcardLiterallyInPattern() {
+        repository.save(user);
+        List<UserData> users = repository.findUserDataByPattern("%!_%", AccountStatus.REMOVED, PageRequest.of(0, 10));
+        assertThat(users, Matchers.hasSize(0));
+    }
+
+    @Test
+    public void shouldFindUserDataByIdsSkippingRemovedUsers() {
+        repository.save(user);
+        User removed = new User();
+        removed.setEmail("removed@domain.com");
+        removed.setAccountStatus(AccountStatus.REMOVED);
+        repository.save(removed);
+        List<UserData> users = repository.findUserDataByIds(Arrays.asList(user.getId(), removed.getId()),
+                AccountStatus.REMOVED);
+        assertThat(users, Matchers.hasSize(1));
+        assertThat(users.get(0)
+                        .getId(),
+                is(equalTo(user.getId())));
+    }
+
+    @Test
+    public void shouldFindExistingEmailsIgnoringTheirCase() {
+        user.setEmail("John@Domain.com");
+        repository.save(user);
+        List<String> emails = repository.findExistingEmails(Arrays.asList("john@domain.com", "other@domain.com"));
+        assertThat(emails, Matchers.contains("John@Domain.com"));
+    }
+
     @Test
     public void shouldNotFindUserWithGivenWrongLastName() {
         repository.save(user);
@@ -0,0 +1,136 @@
+package edu.iis.mto.blog.domain.routing;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import edu.iis.mto.blog.api.request.PostRequest;
+import edu.iis.mto.blog.domain.model.AccountStatus;
+import edu.iis.mto.blog.domain.model.User;
+import edu.iis.mto.blog.domain.repository.UserRepository;
+import edu.iis.mto.blog.dto.PostData;
+import edu.iis.mto.blog.services.BlogService;
+import edu.iis.mto.blog.services.DataFinder;
+
+/**
+ * Two H2 databases stand for the primary and its replica; the replica receives a copy of the primary when {@link #replicate()}
+ * is called, first once the schema is created.
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest(properties = { "spring.datasource.url=" + ReadWriteRoutingTest.PRIMARY_URL,
+        "blog.datasource.replica.urls=" + ReadWriteRoutingTest.REPLICA_URL,
+        "blog.datasource.replica.max-lag-ms=" + ReadWriteRoutingTest.MAX_LAG_MS })
+public class ReadWriteRoutingTest {
+
+    static final String PRIMARY_URL = "jdbc:h2:mem:routing-primary;DB_CLOSE_DELAY=-1";
+
+    static final String REPLICA_URL = "jdbc:h2:mem:routing-replica;DB_CLOSE_DELAY=-1";
+
+    static final long MAX_LAG_MS = 300;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private BlogService blogService;
+
+    @Autowired
+    private DataFinder finder;
+
+    private User user;
+
+    @Before
+    public void setUp() {
+        user = confirmedUser("john");
+        blogService.createPost(user.getId(), post("replicated post"));
+        replicate();
+    }
+
+    @Test
+    public void shouldReadOwnWriteFromPrimaryWithinReplicaLag() {
+        blogService.createPost(user.getId(), post("not replicated post"));
+
+        assertThat(exportPosts(), hasSize(2));
+    }
+
+    @Test
+    public void shouldReadFromReplicaAfterReplicaLag() throws InterruptedException {
+        blogService.createPost(user.getId(), post("not replicated post"));
+        Thread.sleep(MAX_LAG_MS + 200);
+
+        assertThat(exportPosts(), hasSize(1));
+    }
+
+    @Test
+    public void shouldReadPostsOfLikedAuthorFromPrimaryWithinReplicaLag() throws InterruptedException {
+        Thread.sleep(MAX_LAG_MS + 200);
+        User liker = confirmedUser("liker");
+        blogService.addLikeToPost(liker.getId(), exportPosts().get(0)
+                                                              .getId());
+
+        assertThat(finder.getUserPosts(user.getId(), null, 10)
+                         .getPosts()
+                         .get(0)
+                         .getLikesCount(),
+                is(equalTo(1)));
+    }
+
+    private User confirmedUser(String name) {
+        User confirmed = new User();
+        confirmed.setFirstName("John");
+        confirmed.setLastName("Steward");
+        confirmed.setEmail(name + System.nanoTime() + "@domain.com");
+        confirmed.setAccountStatus(AccountStatus.CONFIRMED);
+        return userRepository.save(confirmed);
+    }
+
+    private List<PostData> exportPosts() {
+        List<PostData> posts = new ArrayList<>();
+        finder.exportUserPosts(user.getId(), posts::add);
+        return posts;
+    }
+
+    private static PostRequest post(String entry) {
+        PostRequest post = new PostRequest();
+        post.setEntry(entry);
+        return post;
+    }
+
+    @TestConfiguration
+    static class ReplicaSchema {
+
+        @EventListener(ApplicationReadyEvent.class)
+        @Order(Ordered.HIGHEST_PRECEDENCE)
+        public void replicateSchema() {
+            replicate();
+        }
+
+    }
+
+    private static void replicate() {
+        JdbcTemplate primary = new JdbcTemplate(new DriverManagerDataSource(PRIMARY_URL, "sa", ""));
+        JdbcTemplate replica = new JdbcTemplate(new DriverManagerDataSource(REPLICA_URL, "sa", ""));
+        List<String> script = primary.queryForList("script", String.class);
+        replica.execute("drop all objects");
+        script.forEach(replica::execute);
+    }
+
+}
@@ -0,0 +1,151 @@
+package edu.iis.mto.blog.domain.search;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.mockito.Mockito;
+
+import edu.iis.mto.blog.domain.model.AccountStatus;
+import edu.iis.mto.blog.domain.model.User;
+import edu.iis.mto.blog.domain.repository.UserRepository;
+import edu.iis.mto.blog.domain.snapshot.SnapshotInput;
+import edu.iis.mto.blog.domain.snapshot.SnapshotOutput;
+
+public class UserSearchIndexTest {
+
+    private static final long CATCH_UP_OVERLAP = 10;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private UserSearchIndex index;
+
+    @Before
+    public void setUp() {
+        index = new UserSearchIndex(Mockito.mock(UserRepository.class), CATCH_UP_OVERLAP);
+        index.index(new SearchableUser(1L, "John", "Steward", "john@domain.com"));
+        index.index(new SearchableUser(2L, "Brian", null, "brian@domain.com"));
+        index.index(new SearchableUser(3L, "Johnny", "Walker", "walker@domain.com"));
+    }
+
+    @Test
+    public void shouldFindUserByPartOfFieldIgnoringCase() {
+        assertThat(index.search("EWAR", 10), contains(1L));
+        assertThat(index.search("ian@dom", 10), contains(2L));
+    }
+
+    @Test
+    public void shouldNotReturnCandidatesSharingOnlyTrigrams() {
+        assertThat(index.search("ohnwal", 10), is(empty()));
+    }
+
+    @Test
+    public void shouldRankExactMatchesBeforePrefixAndInfixMatches() {
+        index.index(new SearchableUser(4L, "Ann", "Pejohn", "ann@domain.com"));
+
+        assertThat(index.search("john", 10), contains(1L, 3L, 4L));
+    }
+
+    @Test
+    public void shouldLimitNumberOfResults() {
+        assertThat(index.search("domain", 2), contains(1L, 2L));
+    }
+
+    @Test
+    public void shouldDropUserFromIndexWhenStatusChangesToRemoved() {
+        User user = new User();
+        user.setId(1L);
+        user.setFirstName("John");
+        user.setEmail("john@domain.com");
+        user.setAccountStatus(AccountStatus.REMOVED);
+
+        index.update(user);
+
+        assertThat(index.search("john@", 10), is(empty()));
+        assertThat(index.size(), is(equalTo(2)));
+    }
+
+    @Test
+    public void shouldReindexChangedUserData() {
+        User user = new User();
+        user.setId(2L);
+        user.setFirstName("Bryan");
+        user.setEmail("bryan@domain.com");
+        user.setAccountStatus(AccountStatus.CONFIRMED);
+
+        index.update(user);
+
+        assertThat(index.search("brian", 10), is(empty()));
+        assertThat(index.search("bryan", 10), contains(2L));
+    }
+
+    @Test
+    public void shouldNotSearchQueriesShorterThanTrigramBeforeBeingBuilt() {
+        assertThat(index.canSearch("john"), is(false));
+    }
+
+    @Test
+    public void shouldRestoreWrittenUsersAndIndexReplayedOnes() throws IOException {
+        Path path = folder.newFile()
+                          .toPath();
+        try (SnapshotOutput out = new SnapshotOutput(path)) {
+            index.writeTo(out);
+        }
+        UserRepository userRepository = Mockito.mock(UserRepository.class);
+        Mockito.when(userRepository.streamSearchableUsersAfter(2L))
+               .thenReturn(Stream.of(new SearchableUser(3L, "Johnny", "Walker", "walker@domain.com"),
+                       new SearchableUser(4L, "Ann", "Pejohn", "ann@domain.com")));
+
+        UserSearchIndex restored = new UserSearchIndex(userRepository, CATCH_UP_OVERLAP);
+        try (SnapshotInput in = new SnapshotInput(path)) {
+            restored.restore(in, 2L);
+        }
+
+        assertThat(restored.size(), is(equalTo(4)));
+        assertThat(restored.canSearch("john"), is(true));
+        assertThat(restored.search("john", 10), contains(1L, 3L, 4L));
+        assertThat(restored.search("ian@dom", 10), contains(2L));
+    }
+
+    @Test
+    public void shouldCatchUpWithUsersStoredThroughOtherNodesFromBelowHighestReadId() {
+        UserRepository userRepository = Mockito.mock(UserRepository.class);
+        Mockito.when(userRepository.streamSearchableUsers())
+               .thenReturn(Stream.of(new SearchableUser(25L, "John", "Steward", "john@domain.com")));
+        Mockito.when(userRepository.streamSearchableUsersAfter(15L))
+               .thenReturn(Stream.of(new SearchableUser(20L, "Ann", "Pejohn", "ann@domain.com"),
+                       new SearchableUser(40L, "Johnny", "Walker", "walker@domain.com")));
+        Mockito.when(userRepository.streamSearchableUsersAfter(30L))
+               .thenReturn(Stream.empty());
+        UserSearchIndex caughtUp = new UserSearchIndex(userRepository, CATCH_UP_OVERLAP);
+        caughtUp.rebuild();
+
+        caughtUp.catchUpWithOtherNodes();
+        caughtUp.catchUpWithOtherNodes();
+
+        assertThat(caughtUp.search("john", 10), contains(25L, 40L, 20L));
+        Mockito.verify(userRepository)
+               .streamSearchableUsersAfter(30L);
+    }
+
+    @Test
+    public void shouldNotCatchUpBeforeBeingBuilt() {
+        UserRepository userRepository = Mockito.mock(UserRepository.class);
+
+        new UserSearchIndex(userRepository, CATCH_UP_OVERLAP).catchUpWithOtherNodes();
+
+        Mockito.verifyZeroInteractions(userRepository);
+    }
+
+}
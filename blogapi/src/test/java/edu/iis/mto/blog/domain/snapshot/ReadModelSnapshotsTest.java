@@ -0,0 +1,165 @@
+package edu.iis.mto.blog.domain.snapshot;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import edu.iis.mto.blog.domain.graph.LikeGraph;
+import edu.iis.mto.blog.domain.likes.LikeFilter;
+import edu.iis.mto.blog.domain.repository.BlogPostRepository;
+import edu.iis.mto.blog.domain.repository.LikePostRepository;
+import edu.iis.mto.blog.domain.repository.UserRepository;
+import edu.iis.mto.blog.domain.search.UserSearchIndex;
+
+public class ReadModelSnapshotsTest {
+
+    private static final long REPLAY_OVERLAP = 10;
+
+    private static final long DAY_MS = 24 * 60 * 60 * 1000;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private UserSearchIndex userSearchIndex;
+
+    private LikeFilter likeFilter;
+
+    private LikeGraph likeGraph;
+
+    private UserRepository userRepository;
+
+    private BlogPostRepository blogPostRepository;
+
+    private LikePostRepository likePostRepository;
+
+    private String path;
+
+    @Before
+    public void setUp() throws IOException {
+        userSearchIndex = mock(UserSearchIndex.class);
+        likeFilter = mock(LikeFilter.class);
+        likeGraph = mock(LikeGraph.class);
+        userRepository = mock(UserRepository.class);
+        blogPostRepository = mock(BlogPostRepository.class);
+        likePostRepository = mock(LikePostRepository.class);
+        path = folder.getRoot()
+                     .toPath()
+                     .resolve("read-models.snapshot")
+                     .toString();
+        setTables(100, 50);
+    }
+
+    @Test
+    public void shouldBuildReadModelsWithoutSnapshot() throws IOException {
+        snapshots(DAY_MS).warmUp();
+
+        verifyBuilt(1);
+        verify(userSearchIndex, never()).restore(any(), anyLong());
+    }
+
+    @Test
+    public void shouldRestoreSnapshotMatchingDatabase() throws IOException {
+        writeSnapshot();
+        setTables(120, 50);
+
+        snapshots(DAY_MS).warmUp();
+
+        verifyBuilt(1);
+        verify(userSearchIndex).restore(any(), eq(90L));
+        verify(likeFilter).restore(any(), eq(90L));
+        verify(likeGraph).restore(any(), eq(90L), eq(90L));
+    }
+
+    @Test
+    public void shouldBuildWhenTableHasLowerHighestIdThanSnapshot() throws IOException {
+        writeSnapshot();
+        when(likePostRepository.findMaxId()).thenReturn(99L);
+
+        snapshots(DAY_MS).warmUp();
+
+        verifyBuilt(2);
+        verify(likeGraph, never()).restore(any(), anyLong(), anyLong());
+    }
+
+    @Test
+    public void shouldBuildWhenRowsUpToReplayStartChanged() throws IOException {
+        writeSnapshot();
+        when(blogPostRepository.countByIdLessThanEqual(90L)).thenReturn(49L);
+
+        snapshots(DAY_MS).warmUp();
+
+        verifyBuilt(2);
+        verify(likeGraph, never()).restore(any(), anyLong(), anyLong());
+    }
+
+    @Test
+    public void shouldBuildWhenSnapshotIsTooOld() throws IOException, InterruptedException {
+        writeSnapshot();
+        Thread.sleep(10);
+
+        snapshots(1).warmUp();
+
+        verifyBuilt(2);
+        verify(likeGraph, never()).restore(any(), anyLong(), anyLong());
+    }
+
+    @Test
+    public void shouldCatchUpFromLastMarksBeforeWriting() throws IOException {
+        ReadModelSnapshots snapshots = snapshots(DAY_MS);
+        snapshots.warmUp();
+
+        setTables(150, 70);
+        snapshots.write();
+        setTables(200, 90);
+        snapshots.write();
+
+        verify(userSearchIndex).catchUp(90L);
+        verify(likeFilter).catchUp(90L);
+        verify(likeGraph).catchUp(90L, 90L);
+        verify(userSearchIndex).catchUp(140L);
+        verify(likeGraph).catchUp(140L, 140L);
+    }
+
+    private void writeSnapshot() {
+        ReadModelSnapshots snapshots = snapshots(DAY_MS);
+        snapshots.warmUp();
+        snapshots.write();
+    }
+
+    private ReadModelSnapshots snapshots(long maxAgeMs) {
+        return new ReadModelSnapshots(userSearchIndex, likeFilter, likeGraph, userRepository, blogPostRepository,
+                likePostRepository, mock(PlatformTransactionManager.class), path, maxAgeMs, REPLAY_OVERLAP);
+    }
+
+    private void verifyBuilt(int times) {
+        verify(userSearchIndex, times(times)).rebuild();
+        verify(likeFilter, times(times)).warm();
+        verify(likeGraph, times(times)).build();
+    }
+
+    /**
+     * Every table gets the same highest id and number of rows up to any id.
+     */
+    private void setTables(long maxId, long count) {
+        when(userRepository.findMaxId()).thenReturn(maxId);
+        when(blogPostRepository.findMaxId()).thenReturn(maxId);
+        when(likePostRepository.findMaxId()).thenReturn(maxId);
+        when(userRepository.countByIdLessThanEqual(anyLong())).thenReturn(count);
+        when(blogPostRepository.countByIdLessThanEqual(anyLong())).thenReturn(count);
+        when(likePostRepository.countByIdLessThanEqual(anyLong())).thenReturn(count);
+    }
+
+}
@@ -0,0 +1,95 @@
+package edu.iis.mto.blog.domain.snapshot;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Path;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class SnapshotFileTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private Path path;
+
+    @Before
+    public void setUp() throws IOException {
+        path = folder.newFile("read-models.snapshot")
+                     .toPath();
+        try (SnapshotOutput out = new SnapshotOutput(path)) {
+            out.putInt(7);
+            out.putString("zażółć");
+            out.putString(null);
+            out.putInts(new int[] {1, 2, 3, 4}, 3);
+            out.putLongs(new long[] {Long.MIN_VALUE, Long.MAX_VALUE}, 2);
+            out.putDouble(0.25);
+        }
+    }
+
+    @Test
+    public void shouldReadWrittenValuesInOrder() throws IOException {
+        try (SnapshotInput in = new SnapshotInput(path)) {
+            assertThat(in.getInt(), is(equalTo(7)));
+            assertThat(in.getString(), is(equalTo("zażółć")));
+            assertThat(in.getString(), is(nullValue()));
+            assertThat(in.getInts(), is(equalTo(new int[] {1, 2, 3})));
+            assertThat(in.getLongs(), is(equalTo(new long[] {Long.MIN_VALUE, Long.MAX_VALUE})));
+            assertThat(in.getDouble(), is(equalTo(0.25)));
+        }
+    }
+
+    @Test
+    public void shouldReadValuesCrossingMappedWindows() throws IOException {
+        Path large = folder.newFile()
+                           .toPath();
+        // 14 bytes before the array leave 2 bytes of the first window after its last whole value
+        long[] values = new long[SnapshotOutput.WINDOW_SIZE / Long.BYTES];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = i * 31L;
+        }
+        try (SnapshotOutput out = new SnapshotOutput(large)) {
+            out.putInt(7);
+            out.putString("ab");
+            out.putLongs(values, values.length);
+            out.putLong(Long.MAX_VALUE);
+        }
+
+        try (SnapshotInput in = new SnapshotInput(large)) {
+            assertThat(in.getInt(), is(equalTo(7)));
+            assertThat(in.getString(), is(equalTo("ab")));
+            assertThat(in.getLongs(), is(equalTo(values)));
+            assertThat(in.getLong(), is(equalTo(Long.MAX_VALUE)));
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void shouldRejectDamagedFile() throws IOException {
+        try (RandomAccessFile file = new RandomAccessFile(path.toFile(), "rw")) {
+            file.seek(5);
+            int damaged = file.read() ^ 1;
+            file.seek(5);
+            file.write(damaged);
+        }
+
+        new SnapshotInput(path).close();
+    }
+
+    @Test(expected = IOException.class)
+    public void shouldRejectTruncatedFile() throws IOException {
+        try (RandomAccessFile file = new RandomAccessFile(path.toFile(), "rw")) {
+            file.setLength(file.length() - 1);
+        }
+
+        new SnapshotInput(path).close();
+    }
+
+}
@@ -0,0 +1,188 @@
+package edu.iis.mto.blog.domain.timeline;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import edu.iis.mto.blog.domain.model.AccountStatus;
+import edu.iis.mto.blog.domain.model.BlogPost;
+import edu.iis.mto.blog.domain.model.Follow;
+import edu.iis.mto.blog.domain.model.User;
+import edu.iis.mto.blog.domain.repository.TimelineEntryRepository;
+import edu.iis.mto.blog.dto.PostData;
+import edu.iis.mto.blog.dto.PostPage;
+
+@RunWith(SpringRunner.class)
+@DataJpaTest
+@Import(HomeTimelines.class)
+@TestPropertySource(properties = {"blog.timeline.fan-out-max-followers=1", "blog.timeline.max-entries=2"})
+public class HomeTimelinesTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private HomeTimelines homeTimelines;
+
+    @Autowired
+    private TimelineEntryRepository timelineEntryRepository;
+
+    private User reader;
+
+    private User author;
+
+    private User prolificAuthor;
+
+    @Before
+    public void setUp() {
+        reader = persistUser("reader@domain.com");
+        author = persistUser("author@domain.com");
+        prolificAuthor = persistUser("prolific@domain.com");
+        persistFollow(reader, author);
+        persistFollow(reader, prolificAuthor);
+        persistFollow(author, prolificAuthor);
+    }
+
+    @Test
+    public void shouldStorePostsInTimelinesOnlyForAuthorsWithFewFollowers() {
+        BlogPost post = persistPost(author);
+        BlogPost prolificPost = persistPost(prolificAuthor);
+
+        homeTimelines.postsCreated(Arrays.asList(post.getId(), prolificPost.getId()));
+
+        assertThat(timelineEntryRepository.count(), is(1L));
+    }
+
+    @Test
+    public void shouldMergeStoredAndReadOnDemandPostsNewestFirst() {
+        BlogPost first = persistPost(author);
+        BlogPost second = persistPost(prolificAuthor);
+        BlogPost third = persistPost(author);
+        homeTimelines.postsCreated(Arrays.asList(first.getId(), second.getId(), third.getId()));
+
+        PostPage page = homeTimelines.read(reader.getId(), null, 2);
+        PostPage nextPage = homeTimelines.read(reader.getId(), page.getNextCursor(), 2);
+
+        assertThat(ids(page.getPosts()), contains(third.getId(), second.getId()));
+        assertThat(page.getPosts()
+                       .get(1)
+                       .getAuthorId(),
+                equalTo(prolificAuthor.getId()));
+        assertThat(page.getNextCursor(), equalTo(second.getId()));
+        assertThat(ids(nextPage.getPosts()), contains(first.getId()));
+        assertThat(nextPage.getNextCursor(), is(nullValue()));
+    }
+
+    @Test
+    public void shouldKeepNewestEntriesWhenTrimmed() {
+        List<Long> postIds = Arrays.asList(persistPost(author).getId(), persistPost(author).getId(), persistPost(author).getId());
+        homeTimelines.postsCreated(postIds);
+
+        int removed = homeTimelines.trim();
+
+        assertThat(removed, is(1));
+        assertThat(ids(timelineEntryRepository.findPostDataByOwnerIdBefore(reader.getId(), Long.MAX_VALUE,
+                PageRequest.of(0, 10))), contains(postIds.get(2), postIds.get(1)));
+    }
+
+    @Test
+    public void shouldBackfillFannedOutPostsOfFolloweeOnFollow() {
+        BlogPost post = persistPost(author);
+        homeTimelines.postsCreated(Arrays.asList(post.getId()));
+        User follower = persistUser("follower@domain.com");
+        persistFollow(follower, author);
+
+        homeTimelines.followed(follower.getId(), author.getId());
+
+        assertThat(ids(homeTimelines.read(follower.getId(), null, 10)
+                                    .getPosts()),
+                contains(post.getId()));
+    }
+
+    @Test
+    public void shouldRemovePostsOfUnfollowedAuthor() {
+        BlogPost post = persistPost(author);
+        homeTimelines.postsCreated(Arrays.asList(post.getId()));
+
+        homeTimelines.unfollowed(reader.getId(), author.getId());
+
+        assertThat(timelineEntryRepository.count(), is(0L));
+        assertThat(homeTimelines.read(reader.getId(), null, 10)
+                                .getPosts(),
+                is(empty()));
+    }
+
+    @Test
+    public void shouldKeepPostsInTimelinesWhenAuthorCrossesFanOutLimit() {
+        BlogPost prolificPost = persistPost(prolificAuthor);
+        BlogPost post = persistPost(author);
+        homeTimelines.postsCreated(Arrays.asList(prolificPost.getId(), post.getId()));
+        setFollowersCount(prolificAuthor, 1);
+        setFollowersCount(author, 2);
+        User follower = persistUser("follower@domain.com");
+        persistFollow(follower, author);
+        homeTimelines.followed(follower.getId(), author.getId());
+
+        assertThat(ids(homeTimelines.read(reader.getId(), null, 10)
+                                    .getPosts()),
+                contains(post.getId(), prolificPost.getId()));
+        assertThat(ids(homeTimelines.read(follower.getId(), null, 10)
+                                    .getPosts()),
+                contains(post.getId()));
+    }
+
+    private void setFollowersCount(User user, int followersCount) {
+        user.setFollowersCount(followersCount);
+        entityManager.flush();
+    }
+
+    private User persistUser(String email) {
+        User user = new User();
+        user.setEmail(email);
+        user.setAccountStatus(AccountStatus.CONFIRMED);
+        return entityManager.persist(user);
+    }
+
+    private void persistFollow(User follower, User followee) {
+        Follow follow = new Follow();
+        follow.setFollower(follower);
+        follow.setFollowee(followee);
+        entityManager.persist(follow);
+        followee.setFollowersCount(followee.getFollowersCount() + 1);
+        entityManager.flush();
+    }
+
+    private BlogPost persistPost(User user) {
+        BlogPost post = new BlogPost();
+        post.setUser(user);
+        post.setEntry("post of " + user.getEmail());
+        entityManager.persist(post);
+        entityManager.flush();
+        return post;
+    }
+
+    private static List<Long> ids(List<PostData> posts) {
+        return posts.stream()
+                    .map(PostData::getId)
+                    .collect(Collectors.toList());
+    }
+
+}
@@ -0,0 +1,88 @@
+package edu.iis.mto.blog.mapper;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import edu.iis.mto.blog.api.request.PostRequest;
+import edu.iis.mto.blog.api.request.UserRequest;
+import edu.iis.mto.blog.domain.model.AccountStatus;
+import edu.iis.mto.blog.domain.model.BlogPost;
+import edu.iis.mto.blog.domain.model.User;
+import edu.iis.mto.blog.dto.PostData;
+import edu.iis.mto.blog.dto.UserData;
+
+public class DirectBlogDataMapperTest {
+
+    private final BlogDataMapper reference = new BlogDataMapperImpl();
+
+    private final BlogDataMapper mapper = new DirectBlogDataMapper();
+
+    private User user;
+
+    @Before
+    public void setUp() {
+        user = new User();
+        user.setId(1L);
+        user.setFirstName("John");
+        user.setLastName("Steward");
+        user.setEmail("john@domain.com");
+        user.setAccountStatus(AccountStatus.CONFIRMED);
+    }
+
+    @Test
+    public void shouldMapUserToSameDtoAsModelMapper() {
+        UserData expected = reference.mapToDto(user);
+        UserData actual = mapper.mapToDto(user);
+
+        assertThat(actual.getId(), is(equalTo(expected.getId())));
+        assertThat(actual.getFirstName(), is(equalTo(expected.getFirstName())));
+        assertThat(actual.getLastName(), is(equalTo(expected.getLastName())));
+        assertThat(actual.getEmail(), is(equalTo(expected.getEmail())));
+        assertThat(actual.getVersion(), is(equalTo(expected.getVersion())));
+    }
+
+    @Test
+    public void shouldMapPostToSameDtoAsModelMapper() {
+        BlogPost blogPost = new BlogPost();
+        blogPost.setId(2L);
+        blogPost.setEntry("entry");
+        blogPost.setUser(user);
+        blogPost.setLikesCount(3);
+
+        PostData expected = reference.mapToDto(blogPost);
+        PostData actual = mapper.mapToDto(blogPost);
+
+        assertThat(actual.getId(), is(equalTo(expected.getId())));
+        assertThat(actual.getEntry(), is(equalTo(expected.getEntry())));
+        assertThat(actual.getLikesCount(), is(equalTo(expected.getLikesCount())));
+    }
+
+    @Test
+    public void shouldMapRequestsToSameEntitiesAsModelMapper() {
+        UserRequest userRequest = new UserRequest("John", null, "john@domain.com");
+        PostRequest postRequest = new PostRequest();
+        postRequest.setEntry("entry");
+
+        User expectedUser = reference.mapToEntity(userRequest);
+        User actualUser = mapper.mapToEntity(userRequest);
+
+        assertThat(actualUser.getFirstName(), is(equalTo(expectedUser.getFirstName())));
+        assertThat(actualUser.getLastName(), is(equalTo(expectedUser.getLastName())));
+        assertThat(actualUser.getEmail(), is(equalTo(expectedUser.getEmail())));
+        assertThat(actualUser.getAccountStatus(), is(equalTo(expectedUser.getAccountStatus())));
+        assertThat(mapper.mapToEntity(postRequest)
+                         .getEntry(),
+                is(equalTo(reference.mapToEntity(postRequest)
+                                    .getEntry())));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectNullSourceLikeModelMapper() {
+        mapper.mapToDto((User) null);
+    }
+
+}
@@ -0,0 +1,152 @@
+package edu.iis.mto.blog.metrics;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mockito;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+
+import edu.iis.mto.blog.domain.errors.DomainError;
+import edu.iis.mto.blog.domain.model.AccountStatus;
+import edu.iis.mto.blog.domain.model.User;
+import edu.iis.mto.blog.domain.repository.UserRepository;
+import io.micrometer.core.instrument.DistributionSummary;
+import edu.iis.mto.blog.services.DataFinder;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest
+@AutoConfigureMockMvc
+public class CallMetricsTest {
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private MeterRegistry registry;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private User user;
+
+    @Before
+    public void setUp() {
+        user = new User();
+        user.setFirstName("John");
+        user.setLastName("Steward");
+        user.setEmail("john" + System.nanoTime() + "@domain.com");
+        user.setAccountStatus(AccountStatus.CONFIRMED);
+        userRepository.save(user);
+    }
+
+    @After
+    public void tearDown() {
+        userRepository.delete(user);
+    }
+
+    @Test
+    public void shouldTimeServiceAndRepositoryCallsAndCountStatementsOfRequest() throws Exception {
+        mvc.perform(get("/blog/user/{id}/post", user.getId()))
+           .andExpect(status().isOk());
+
+        assertThat(registry.get(CallMetricsAspect.SERVICE_CALLS)
+                           .tags("service", "BlogDataFinder", "method", "getUserPosts", "exception", "none")
+                           .timer()
+                           .count(),
+                is(greaterThan(0L)));
+        assertThat(registry.get(CallMetricsAspect.REPOSITORY_CALLS)
+                           .tags("repository", "BlogPostRepository", "method", "findPostVersionsByUserIdAfter")
+                           .timer()
+                           .count(),
+                is(greaterThan(0L)));
+        DistributionSummary statements = registry.get(SqlStatementsFilter.REQUEST_STATEMENTS)
+                                                 .tags("method", "GET", "uri", "/blog/user/{id}/post")
+                                                 .summary();
+        assertThat(statements.totalAmount(), is(greaterThan(0.0)));
+    }
+
+    @Test
+    public void shouldTimeRepositoryMethodsInheritedFromSpringData() throws Exception {
+        mvc.perform(get("/blog/user/{id}", user.getId()))
+           .andExpect(status().isOk());
+
+        assertThat(registry.get(CallMetricsAspect.REPOSITORY_CALLS)
+                           .tags("repository", "UserRepository", "method", "findById")
+                           .timer()
+                           .count(),
+                is(greaterThan(0L)));
+    }
+
+    @Test
+    public void shouldCountDomainErrorsByCode() throws Exception {
+        double before = registry.counter(CallMetricsAspect.DOMAIN_ERRORS, "error", DomainError.USER_NOT_FOUND, "service",
+                "BlogDataFinder")
+                                .count();
+
+        mvc.perform(get("/blog/user/{id}", user.getId() + 1000))
+           .andExpect(status().isNotFound());
+
+        assertThat(registry.counter(CallMetricsAspect.DOMAIN_ERRORS, "error", DomainError.USER_NOT_FOUND, "service", "BlogDataFinder")
+                           .count(),
+                is(equalTo(before + 1)));
+    }
+
+    @Test
+    public void shouldCountDomainErrorWithUnknownMessageAsOther() {
+        SimpleMeterRegistry meters = new SimpleMeterRegistry();
+        DataFinder finder = Mockito.mock(DataFinder.class);
+        Mockito.when(finder.getUserData(1L))
+               .thenThrow(new DomainError("unknown user 1"));
+
+        try {
+            withMetrics(finder, new CallMetricsAspect(meters)).getUserData(1L);
+        } catch (DomainError expected) {
+            // counted by the aspect
+        }
+
+        assertThat(meters.get(CallMetricsAspect.DOMAIN_ERRORS)
+                         .counter()
+                         .getId()
+                         .getTag("error"),
+                is(equalTo(DomainError.OTHER)));
+    }
+
+    @Test
+    public void shouldTimeOnlyOutermostServiceCall() {
+        SimpleMeterRegistry meters = new SimpleMeterRegistry();
+        CallMetricsAspect aspect = new CallMetricsAspect(meters);
+        DataFinder inner = withMetrics(Mockito.mock(DataFinder.class), aspect);
+        DataFinder outer = Mockito.mock(DataFinder.class);
+        Mockito.when(outer.getUserData(1L))
+               .thenAnswer(invocation -> inner.getUserData(1L));
+
+        withMetrics(outer, aspect).getUserData(1L);
+
+        assertThat(meters.get(CallMetricsAspect.SERVICE_CALLS)
+                         .timer()
+                         .count(),
+                is(equalTo(1L)));
+    }
+
+    private static DataFinder withMetrics(DataFinder target, CallMetricsAspect aspect) {
+        AspectJProxyFactory factory = new AspectJProxyFactory(target);
+        factory.addAspect(aspect);
+        return factory.getProxy();
+    }
+
+}